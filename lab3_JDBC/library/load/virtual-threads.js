@@ -0,0 +1,112 @@
+// k6 load plan for the virtual-thread mode: 5000 concurrent clients against the lab3 API.
+// Run once against the platform-thread build and once against the virtual-thread build and
+// compare (see README.md in this directory).
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e LABEL=virtual load/virtual-threads.js
+
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const LABEL = __ENV.LABEL || 'run';
+const CLIENTS = parseInt(__ENV.CLIENTS || '5000', 10);
+const TEAMS = parseInt(__ENV.TEAMS || '40', 10);
+const MATCHES = parseInt(__ENV.MATCHES || '400', 10);
+
+const shed = new Counter('shed_503');
+const dbLatency = new Trend('db_bound_duration', true);
+
+// 503 with Retry-After is load shedding by the database limits, not an error.
+http.setResponseCallback(http.expectedStatuses({ min: 200, max: 299 }, 503));
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '1m', target: CLIENTS },  // ramp up
+                { duration: '5m', target: CLIENTS },  // steady state: compare this window
+                { duration: '30s', target: 0 },       // ramp down
+            ],
+            gracefulRampDown: '30s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        'http_req_duration{kind:cached}': ['p(95)<200'],
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+    tags: { label: LABEL },
+};
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+function post(path, body) {
+    const res = http.post(`${BASE_URL}${path}`, JSON.stringify(body), JSON_HEADERS);
+    if (res.status !== 200 && res.status !== 201) {
+        throw new Error(`POST ${path} failed with ${res.status}: ${res.body}`);
+    }
+    return res.json();
+}
+
+// Creates one league with teams and a season of matches, once before the clients start.
+export function setup() {
+    const league = post('/api/leagues', { name: `Load League ${Date.now()}` });
+    const coach = post('/api/coaches', { name: 'Load Coach' });
+    const teamIds = [];
+    for (let i = 0; i < TEAMS; i++) {
+        teamIds.push(post('/api/teams', {
+            name: `Load Team ${i}`, coachId: coach.id, leagueId: league.id, playerIds: [],
+        }).id);
+    }
+    const matches = [];
+    for (let i = 0; i < MATCHES; i++) {
+        const home = teamIds[i % TEAMS];
+        const away = teamIds[(i + 1 + Math.floor(i / TEAMS)) % TEAMS];
+        if (home === away) {
+            continue;
+        }
+        const day = String(1 + (i % 28)).padStart(2, '0');
+        matches.push({
+            homeTeamId: home, awayTeamId: away, matchDate: `2024-03-${day}T18:00:00`,
+            homeScore: i % 4, awayScore: i % 3,
+        });
+    }
+    const created = post('/api/matches/batch', { matches });
+    return { leagueId: league.id, teamIds, matchIds: created.map((m) => m.id) };
+}
+
+function pick(items) {
+    return items[Math.floor(Math.random() * items.length)];
+}
+
+function track(res, kind) {
+    if (res.status === 503) {
+        shed.add(1, { kind });
+    } else if (kind === 'db') {
+        dbLatency.add(res.timings.duration);
+    }
+    check(res, { 'answered': (r) => r.status === 200 || r.status === 202 || r.status === 503 });
+}
+
+// One client: mostly reads that block on MySQL, some cached reads, a few live score writes.
+export default function (data) {
+    const roll = Math.random();
+    if (roll < 0.35) {
+        track(http.get(`${BASE_URL}/api/matches?limit=50`, { tags: { kind: 'db' } }), 'db');
+    } else if (roll < 0.6) {
+        track(http.get(`${BASE_URL}/api/players?limit=50`, { tags: { kind: 'db' } }), 'db');
+    } else if (roll < 0.8) {
+        track(http.get(`${BASE_URL}/api/teams/${pick(data.teamIds)}`, { tags: { kind: 'cached' } }), 'cached');
+    } else if (roll < 0.95) {
+        track(http.get(`${BASE_URL}/api/leagues/${data.leagueId}/standings`, { tags: { kind: 'cached' } }), 'cached');
+    } else {
+        const score = { homeScore: Math.floor(Math.random() * 5), awayScore: Math.floor(Math.random() * 5) };
+        track(http.put(`${BASE_URL}/api/matches/${pick(data.matchIds)}/score`, JSON.stringify(score),
+            { headers: JSON_HEADERS.headers, tags: { kind: 'write' } }), 'write');
+    }
+    // think time: 5000 clients at ~0.5 s per cycle is ~10k requests per second offered
+    sleep(0.25 + Math.random() * 0.5);
+}
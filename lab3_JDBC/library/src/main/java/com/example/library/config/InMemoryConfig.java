@@ -0,0 +1,31 @@
+package com.example.library.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import com.example.library.repository.memory.InMemoryTransactionManager;
+
+/**
+ * Configuration class for the {@code inmemory} profile.
+ * The repositories keep all data in memory instead of a database; this configuration
+ * provides the transaction manager that rolls their writes back.
+ * The DataSource auto-configuration is switched off in {@code application-inmemory.properties}.
+ */
+@EnableTransactionManagement
+@Configuration
+@Profile("inmemory")
+public class InMemoryConfig {
+
+    /**
+     * Creates the transaction manager of the in-memory repositories.
+     *
+     * @return A transaction manager that undoes the writes of a rolled back transaction.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new InMemoryTransactionManager();
+    }
+}
@@ -2,30 +2,175 @@ package com.example.library.config;
 
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import com.example.library.repository.impl.ConcurrencyLimit;
+import com.example.library.repository.impl.LimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
 /**
  * Configuration class for JDBC.
  * Configures the JdbcTemplate for database operations and enables transaction management.
+ * <p>
+ * Repositories get their connections through adaptive concurrency limits, one for reads and
+ * one for writes (see {@link ConcurrencyLimit}), and only at their first statement: a
+ * transaction that has not queried yet, such as a read waiting for a shared load, holds
+ * neither a connection nor a permit. Queries that stream a whole table, such as the export,
+ * hold their connection for as long as the client reads; they run on connections of their
+ * own, from a small fixed budget, so that they cannot use up the permits of ordinary reads.
  */
 @EnableTransactionManagement
 @Configuration
+@Profile("!inmemory")
 public class JdbcConfig {
 
+    /**
+     * Creates the connection pool, configured by {@code spring.datasource.*} and {@code spring.datasource.hikari.*}.
+     *
+     * @param properties The DataSource properties.
+     * @return The connection pool.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource connectionPool(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the limit of concurrent database reads.
+     *
+     * @param initial       Initial limit.
+     * @param min           Lower bound of the limit.
+     * @param max           Upper bound of the limit.
+     * @param targetLatency Statement latency in milliseconds above which the limit shrinks.
+     * @param backoff       Factor applied to the limit on a slow read.
+     * @param maxWait       Maximum time in milliseconds a read waits for a permit before 503;
+     *                      short, so that an overloaded database turns reads away at once.
+     * @return The read limit.
+     */
+    @Bean
+    public ConcurrencyLimit readLimit(@Value("${library.db-limit.reads.initial:4}") int initial,
+                                      @Value("${library.db-limit.reads.min:2}") int min,
+                                      @Value("${library.db-limit.reads.max:5}") int max,
+                                      @Value("${library.db-limit.target-latency:250}") long targetLatency,
+                                      @Value("${library.db-limit.backoff:0.9}") double backoff,
+                                      @Value("${library.db-limit.reads.max-wait:5}") long maxWait) {
+        return new ConcurrencyLimit("reads", initial, min, max, targetLatency, backoff, maxWait);
+    }
+
+    /**
+     * Creates the limit of concurrent database writes.
+     *
+     * @param initial       Initial limit.
+     * @param min           Lower bound of the limit.
+     * @param max           Upper bound of the limit.
+     * @param targetLatency Statement latency in milliseconds above which the limit shrinks.
+     * @param backoff       Factor applied to the limit on a slow write.
+     * @param maxWait       Maximum time in milliseconds a write waits for a permit before 503;
+     *                      long enough for a burst of writes queued behind each other's row locks.
+     * @return The write limit.
+     */
+    @Bean
+    public ConcurrencyLimit writeLimit(@Value("${library.db-limit.writes.initial:2}") int initial,
+                                       @Value("${library.db-limit.writes.min:1}") int min,
+                                       @Value("${library.db-limit.writes.max:3}") int max,
+                                       @Value("${library.db-limit.target-latency:250}") long targetLatency,
+                                       @Value("${library.db-limit.backoff:0.9}") double backoff,
+                                       @Value("${library.db-limit.writes.max-wait:1000}") long maxWait) {
+        return new ConcurrencyLimit("writes", initial, min, max, targetLatency, backoff, maxWait);
+    }
+
+    /**
+     * Creates the fixed budget of concurrent streamed queries. Their duration depends on the
+     * table size and on the client, not on database load, so the budget does not adapt.
+     *
+     * @param max     Number of queries that may stream at the same time.
+     * @param maxWait Maximum time in milliseconds a streamed query waits for a permit before 503.
+     * @return The stream limit.
+     */
+    @Bean
+    public ConcurrencyLimit streamLimit(@Value("${library.db-limit.streams.max:2}") int max,
+                                        @Value("${library.db-limit.streams.max-wait:0}") long maxWait) {
+        // minimum and maximum are equal, so target latency and backoff never apply
+        return new ConcurrencyLimit("streams", max, max, max, 0, 0.5, maxWait);
+    }
+
+    /**
+     * Creates the DataSource used by the repositories and the transaction manager.
+     * The limits together may not exceed the pool size: a permit must guarantee a free
+     * connection, or callers would queue in the pool for its connection timeout instead
+     * of being turned away by the limits.
+     *
+     * @param connectionPool The connection pool.
+     * @param readLimit      The limit of concurrent reads.
+     * @param writeLimit     The limit of concurrent writes.
+     * @param streamLimit    The limit of concurrent streamed queries, checked against the pool size.
+     * @return A DataSource that fetches connections lazily, through the limits.
+     * @throws IllegalStateException if the maximum limits add up to more than the pool size.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource connectionPool,
+                                 @Qualifier("readLimit") ConcurrencyLimit readLimit,
+                                 @Qualifier("writeLimit") ConcurrencyLimit writeLimit,
+                                 @Qualifier("streamLimit") ConcurrencyLimit streamLimit) {
+        int poolSize = poolSize(connectionPool);
+        if (readLimit.maxLimit() + writeLimit.maxLimit() + streamLimit.maxLimit() > poolSize) {
+            throw new IllegalStateException("library.db-limit.reads.max (" + readLimit.maxLimit()
+                + "), library.db-limit.writes.max (" + writeLimit.maxLimit()
+                + ") and library.db-limit.streams.max (" + streamLimit.maxLimit()
+                + ") exceed spring.datasource.hikari.maximum-pool-size (" + poolSize + ")");
+        }
+        return new LazyConnectionDataSourceProxy(new LimitingDataSource(connectionPool, readLimit, writeLimit));
+    }
+
+    /**
+     * Returns the size the pool will have once started: Hikari leaves an unset maximum
+     * at -1 until then, and falls back to the minimum idle count or 10.
+     */
+    private static int poolSize(HikariDataSource connectionPool) {
+        if (connectionPool.getMaximumPoolSize() > 0) {
+            return connectionPool.getMaximumPoolSize();
+        }
+        return connectionPool.getMinimumIdle() > 0 ? connectionPool.getMinimumIdle() : 10;
+    }
+
     /**
      * Creates and configures a JdbcTemplate bean.
      * This bean provides a simplified way to interact with the database using JDBC.
      *
-     * @param dataSource The DataSource bean automatically configured by Spring Boot,
-     *                   used to establish database connections.
+     * @param dataSource The limited DataSource, used to establish database connections.
      * @return A configured JdbcTemplate instance ready for use in repositories.
      */
     @Bean
+    @Primary
     public JdbcTemplate jdbcTemplate(DataSource dataSource) {
         return new JdbcTemplate(dataSource);
     }
 
-}
\ No newline at end of file
+    /**
+     * Creates the JdbcTemplate for queries that stream a whole table. It takes connections of
+     * its own, outside any transaction, through the stream limit; a streaming connection
+     * cannot run other statements until its result has been read anyway.
+     *
+     * @param connectionPool The connection pool.
+     * @param streamLimit    The limit of concurrent streamed queries.
+     * @return A JdbcTemplate for streamed queries.
+     */
+    @Bean
+    public JdbcTemplate streamingJdbcTemplate(HikariDataSource connectionPool,
+                                              @Qualifier("streamLimit") ConcurrencyLimit streamLimit) {
+        return new JdbcTemplate(new LimitingDataSource(connectionPool, streamLimit));
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.library.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class for scheduled tasks.
+ * Enables {@code @Scheduled} methods, such as the periodic flush of buffered live scores.
+ */
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+}
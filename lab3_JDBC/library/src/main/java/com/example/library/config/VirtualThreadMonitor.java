@@ -0,0 +1,107 @@
+package com.example.library.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Validates and watches the virtual-thread mode ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * On startup it reports whether the runtime supports virtual threads at all (Java 21+; Spring
+ * Boot silently stays on platform threads otherwise) and the connection pool that now bounds
+ * how many requests reach MySQL at once: requests beyond it wait in the pool, and those that
+ * wait longer than its connection timeout are answered with 503.
+ * <p>
+ * While running, it streams the JFR {@code jdk.VirtualThreadPinned} event: a virtual thread
+ * that blocks while holding a monitor keeps its carrier thread, and too many of these starve
+ * all requests. Each pinning above the threshold is logged with the application frame that
+ * caused it and counted in {@code library.virtual-threads.pinned}.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadMonitor {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final RecordingStream pinnedEvents;
+    private final Counter pinned;
+
+    /**
+     * Validates the setup and starts watching for pinned virtual threads.
+     *
+     * @param thresholdMillis Minimum duration in milliseconds of a reported pinning.
+     * @param connectionPool  The connection pool, absent in the {@code inmemory} profile.
+     * @param registry        The registry for the metrics.
+     */
+    public VirtualThreadMonitor(@Value("${library.virtual-threads.pinned-threshold:20}") long thresholdMillis,
+                                ObjectProvider<HikariDataSource> connectionPool,
+                                MeterRegistry registry) {
+        this.pinned = Counter.builder("library.virtual-threads.pinned")
+            .description("Virtual threads that blocked while pinned to their carrier thread")
+            .register(registry);
+        if (Runtime.version().feature() < 21) {
+            log.warn("Virtual threads are enabled, but Java {} has none: requests run on platform threads. "
+                + "Build and run with Java 21 (mvn -Pjava21)", Runtime.version().feature());
+            this.pinnedEvents = null;
+            return;
+        }
+        HikariDataSource pool = connectionPool.getIfAvailable();
+        if (pool != null) {
+            log.info("Virtual threads enabled: at most {} requests query MySQL at once, others wait up to {} ms for a connection",
+                pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+        }
+        this.pinnedEvents = new RecordingStream();
+        pinnedEvents.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        pinnedEvents.onEvent(PINNED_EVENT, this::report);
+        pinnedEvents.startAsync();
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.increment();
+        log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), culprit(event));
+    }
+
+    /**
+     * Returns the innermost application frame of a pinning, or the innermost frame if there is none.
+     */
+    private static String culprit(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown location";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        RecordedFrame culprit = frames.isEmpty() ? null : frames.get(0);
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod().getType().getName().startsWith("com.example.")) {
+                culprit = frame;
+                break;
+            }
+        }
+        return culprit == null ? "unknown location"
+            : culprit.getMethod().getType().getName() + "." + culprit.getMethod().getName() + ":" + culprit.getLineNumber();
+    }
+
+    /**
+     * Stops the event stream.
+     */
+    @PreDestroy
+    public void close() {
+        if (pinnedEvents != null) {
+            pinnedEvents.close();
+        }
+    }
+}
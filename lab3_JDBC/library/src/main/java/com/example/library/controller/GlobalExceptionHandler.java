@@ -6,14 +6,24 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import com.example.library.service.BadRequestException;
 import com.example.library.service.NotFoundException;
 
 /**
@@ -40,6 +50,21 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Handles BadRequestException.
+     *
+     * @param ex The BadRequestException instance.
+     * @return ResponseEntity containing an error message and HTTP status BAD_REQUEST.
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(BadRequestException ex) {
+        log.info("Bad request: {}", ex.getMessage());
+        return new ResponseEntity<>(
+            Collections.singletonMap("error", ex.getMessage()),
+            HttpStatus.BAD_REQUEST
+        );
+    }
+
     /**
      * Handles MethodArgumentNotValidException.
      *
@@ -73,6 +98,37 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Handles a client that disconnected from a streaming response, such as the match feed.
+     * Nothing can be sent to it any more, so no response body is written.
+     *
+     * @param ex The AsyncRequestNotUsableException instance.
+     */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClientGone(AsyncRequestNotUsableException ex) {
+        log.debug("Client disconnected: {}", ex.getMessage());
+    }
+
+    /**
+     * Handles a request that found no free worker or outlived the asynchronous request timeout,
+     * that waited longer than the connection timeout for a pooled connection, as happens first
+     * with virtual threads, whose queries missed their deadline, or that found the adaptive
+     * database concurrency limit reached.
+     * The server is overloaded, not broken, so the client is asked to retry.
+     *
+     * @param ex The exception that ended the wait.
+     * @return ResponseEntity containing an error message, a Retry-After header and HTTP status SERVICE_UNAVAILABLE.
+     */
+    @ExceptionHandler({TaskRejectedException.class, AsyncRequestTimeoutException.class,
+        CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class, QueryTimeoutException.class,
+        TransactionTimedOutException.class, TransientDataAccessResourceException.class})
+    public ResponseEntity<Map<String, String>> handleOverloaded(Exception ex) {
+        log.warn("Request not handled in time: {}", ex.toString());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Collections.singletonMap("error", "Server is busy, please retry"));
+    }
+
     /**
      * Handles all other exceptions.
      *
@@ -3,6 +3,7 @@ package com.example.library.controller;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,12 +11,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.library.dto.LeagueCreateUpdateDTO;
 import com.example.library.dto.LeagueDTO;
+import com.example.library.dto.LeagueProjectionDTO;
+import com.example.library.dto.RatingDTO;
+import com.example.library.dto.StandingDTO;
+import com.example.library.service.EloRatingService;
 import com.example.library.service.LeagueService;
+import com.example.library.service.SeasonSimulator;
+import com.example.library.service.StandingsService;
 
 import jakarta.validation.Valid;
 
@@ -28,24 +36,52 @@ import jakarta.validation.Valid;
 public class LeagueController {
 
     private final LeagueService leagueService;
+    private final StandingsService standingsService;
+    private final EloRatingService ratingService;
+    private final SeasonSimulator seasonSimulator;
 
     /**
      * Constructor for LeagueController.
      *
-     * @param leagueService The service layer for league operations.
+     * @param leagueService    The service layer for league operations.
+     * @param standingsService The service maintaining the league tables.
+     * @param ratingService    The service maintaining the Elo ratings.
+     * @param seasonSimulator  The service projecting the end of season.
      */
-    public LeagueController(LeagueService leagueService) {
+    public LeagueController(LeagueService leagueService,
+                            StandingsService standingsService,
+                            EloRatingService ratingService,
+                            SeasonSimulator seasonSimulator) {
         this.leagueService = leagueService;
+        this.standingsService = standingsService;
+        this.ratingService = ratingService;
+        this.seasonSimulator = seasonSimulator;
     }
 
     /**
-     * Retrieves all leagues.
+     * Retrieves one page of leagues, ordered by ID.
      *
-     * @return A list of LeagueDTOs.
+     * @param cursor The cursor from the {@code X-Next-Cursor} header of the previous page, optional.
+     * @param limit  The page size, optional; capped to the configured maximum.
+     * @return ResponseEntity containing a list of LeagueDTOs and the cursor of the next page, if any.
      */
     @GetMapping
-    public List<LeagueDTO> getAll() {
-        return leagueService.findAll();
+    public ResponseEntity<List<LeagueDTO>> getAll(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return PageResponses.ok(leagueService.findPage(cursor, limit));
+    }
+
+    /**
+     * Retrieves many leagues by ID in one request, e.g. {@code ?ids=1,2,3}.
+     * IDs that do not exist are listed in the {@code X-Missing-Ids} header instead of failing the request.
+     *
+     * @param ids The IDs of the leagues to retrieve; at most the configured maximum page size.
+     * @return ResponseEntity containing the found LeagueDTOs in request order.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<LeagueDTO>> getByIds(@RequestParam(name = "ids") List<Long> ids) {
+        return PageResponses.ok(leagueService.findByIds(ids));
     }
 
     /**
@@ -59,6 +95,40 @@ public class LeagueController {
         return leagueService.findById(id);
     }
 
+    /**
+     * Retrieves the current table of a league.
+     *
+     * @param id The ID of the league.
+     * @return The table rows ordered by position: points, goal difference, goals scored, wins.
+     */
+    @GetMapping("/{id}/standings")
+    public List<StandingDTO> getStandings(@PathVariable("id") Long id) {
+        return standingsService.findByLeague(id);
+    }
+
+    /**
+     * Retrieves the Elo ratings of the teams of a league.
+     *
+     * @param id The ID of the league.
+     * @return The ratings ordered by position, highest rating first.
+     */
+    @GetMapping("/{id}/ratings")
+    public List<RatingDTO> getRatings(@PathVariable("id") Long id) {
+        return ratingService.findByLeague(id);
+    }
+
+    /**
+     * Retrieves the simulated end of season of a league: the title, relegation and position
+     * probabilities of its teams after the remaining fixtures of a double round robin.
+     *
+     * @param id The ID of the league.
+     * @return The projection, ordered by expected points, with the cost of the simulation.
+     */
+    @GetMapping("/{id}/projections")
+    public LeagueProjectionDTO getProjections(@PathVariable("id") Long id) {
+        return seasonSimulator.findByLeague(id);
+    }
+
     /**
      * Creates a new league.
      *
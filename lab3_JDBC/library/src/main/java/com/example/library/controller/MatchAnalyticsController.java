@@ -0,0 +1,97 @@
+package com.example.library.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.library.dto.MatchStatsDTO;
+import com.example.library.dto.ScorelineDTO;
+import com.example.library.service.MatchColumnStore;
+
+/**
+ * REST controller for aggregate statistics over matches.
+ * All endpoints accept an optional date window: {@code from} is inclusive, {@code to} exclusive (ISO dates).
+ * Answered from the in-memory columnar store, never from the database.
+ */
+@RestController
+@RequestMapping("/api/matches/analytics")
+public class MatchAnalyticsController {
+
+    private final MatchColumnStore columnStore;
+
+    /**
+     * Constructor for MatchAnalyticsController.
+     *
+     * @param columnStore The columnar store answering the queries.
+     */
+    public MatchAnalyticsController(MatchColumnStore columnStore) {
+        this.columnStore = columnStore;
+    }
+
+    /**
+     * Retrieves the number of matches, goals and results within a date window.
+     *
+     * @param leagueId Only matches between teams of this league count, optional.
+     * @param from     Inclusive lower bound of the match date, optional.
+     * @param to       Exclusive upper bound of the match date, optional.
+     * @return The aggregated matches.
+     */
+    @GetMapping("/summary")
+    public MatchStatsDTO getSummary(
+            @RequestParam(name = "leagueId", required = false) Long leagueId,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return columnStore.summary(leagueId, from, to);
+    }
+
+    /**
+     * Retrieves goals and results per matchday.
+     *
+     * @param leagueId Only matches between teams of this league count, optional.
+     * @param from     Inclusive lower bound of the match date, optional.
+     * @param to       Exclusive upper bound of the match date, optional.
+     * @return One row per day with matches, in date order.
+     */
+    @GetMapping("/matchdays")
+    public List<MatchStatsDTO> getMatchdays(
+            @RequestParam(name = "leagueId", required = false) Long leagueId,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return columnStore.byMatchday(leagueId, from, to);
+    }
+
+    /**
+     * Retrieves goals, results and the home-win percentage per league.
+     *
+     * @param from Inclusive lower bound of the match date, optional.
+     * @param to   Exclusive upper bound of the match date, optional.
+     * @return One row per league with matches, ordered by league ID.
+     */
+    @GetMapping("/leagues")
+    public List<MatchStatsDTO> getLeagues(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return columnStore.byLeague(from, to);
+    }
+
+    /**
+     * Retrieves how often each final score occurred.
+     *
+     * @param leagueId Only matches between teams of this league count, optional.
+     * @param from     Inclusive lower bound of the match date, optional.
+     * @param to       Exclusive upper bound of the match date, optional.
+     * @return One row per score, most frequent first.
+     */
+    @GetMapping("/scorelines")
+    public List<ScorelineDTO> getScorelines(
+            @RequestParam(name = "leagueId", required = false) Long leagueId,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return columnStore.scorelines(leagueId, from, to);
+    }
+}
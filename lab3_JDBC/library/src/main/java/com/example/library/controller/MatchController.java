@@ -1,7 +1,12 @@
 package com.example.library.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,12 +15,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.library.dto.MatchBatchCreateDTO;
 import com.example.library.dto.MatchCreateUpdateDTO;
 import com.example.library.dto.MatchDTO;
+import com.example.library.dto.ScoreUpdateDTO;
 import com.example.library.service.MatchService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import jakarta.validation.Valid;
 
@@ -27,25 +42,109 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/matches")
 public class MatchController {
 
+    /**
+     * Media type of newline-delimited JSON.
+     */
+    static final String NDJSON = "application/x-ndjson";
+
     private final MatchService matchService;
+    private final MatchFeedStreams feedStreams;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructor for MatchController.
      *
      * @param matchService The service layer for match operations.
+     * @param feedStreams  The server-sent event connections of the match feed.
+     * @param objectMapper The application's JSON mapper, used for the streaming export.
      */
-    public MatchController(MatchService matchService) {
+    public MatchController(MatchService matchService, MatchFeedStreams feedStreams, ObjectMapper objectMapper) {
         this.matchService = matchService;
+        this.feedStreams = feedStreams;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Retrieves all matches.
+     * Retrieves one page of matches ordered by match date and ID, optionally within a date window.
+     * The same window must be passed again together with the cursor of the next page.
      *
-     * @return ResponseEntity containing a list of MatchDTOs.
+     * @param from   Inclusive lower bound of the match date (ISO date-time), optional.
+     * @param to     Exclusive upper bound of the match date (ISO date-time), optional.
+     * @param cursor The cursor from the {@code X-Next-Cursor} header of the previous page, optional.
+     * @param limit  The page size, optional; capped to the configured maximum.
+     * @return ResponseEntity containing a list of MatchDTOs and the cursor of the next page, if any.
      */
     @GetMapping
-    public ResponseEntity<List<MatchDTO>> getAll() {
-        return ResponseEntity.ok(matchService.findAll());
+    public ResponseEntity<List<MatchDTO>> getAll(
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return PageResponses.ok(matchService.findPage(from, to, cursor, limit));
+    }
+
+    /**
+     * Retrieves many matches by ID in one request, e.g. {@code ?ids=1,2,3}.
+     * IDs that do not exist are listed in the {@code X-Missing-Ids} header instead of failing the request.
+     *
+     * @param ids The IDs of the matches to retrieve; at most the configured maximum page size.
+     * @return ResponseEntity containing the found MatchDTOs in request order.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<MatchDTO>> getByIds(@RequestParam(name = "ids") List<Long> ids) {
+        return PageResponses.ok(matchService.findByIds(ids));
+    }
+
+    /**
+     * Exports all matches as newline-delimited JSON, one MatchDTO per line, ordered by ID.
+     * Rows are serialized while the database cursor is read, so memory use stays constant
+     * and the first lines are sent before the query has finished.
+     *
+     * @return ResponseEntity streaming the matches.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> export() {
+        // flushing is left to the generator and servlet buffers instead of once per row
+        ObjectWriter writer = objectMapper.writerFor(MatchDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gen.setRootValueSeparator(null);
+                matchService.exportAll(dto -> {
+                    try {
+                        writer.writeValue(gen, dto);
+                        gen.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    /**
+     * Streams match changes as server-sent events, instead of polling the match list.
+     * Every committed create, update or delete is sent as a {@code match} event whose data is
+     * a MatchFeedEventDTO and whose ID is its position in the feed. A client that reconnects with
+     * {@code Last-Event-ID} resumes after that event; if it is no longer buffered, or the client
+     * falls too far behind, a {@code resync} event tells it to reload the matches.
+     *
+     * @param leagueId    Only matches with a team of this league, optional.
+     * @param teamId      Only matches of this team, optional.
+     * @param lastEventId The ID of the last event received, sent by reconnecting clients, optional.
+     * @return The event stream.
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter feed(@RequestParam(name = "leagueId", required = false) Long leagueId,
+                           @RequestParam(name = "teamId", required = false) Long teamId,
+                           @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return feedStreams.subscribe(leagueId, teamId, lastEventId);
     }
 
     /**
@@ -71,6 +170,18 @@ public class MatchController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Creates many matches in one request using JDBC batch inserts.
+     *
+     * @param dto The MatchBatchCreateDTO containing the matches to create.
+     * @return ResponseEntity containing the created MatchDTOs, in input order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<MatchDTO>> createBatch(@Valid @RequestBody MatchBatchCreateDTO dto) {
+        List<MatchDTO> created = matchService.createAll(dto.getMatches());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
     /**
      * Updates an existing match.
      *
@@ -84,6 +195,21 @@ public class MatchController {
         return ResponseEntity.ok(matchService.update(id, dto));
     }
 
+    /**
+     * Accepts a live score for a match in progress.
+     * The score is buffered and written to the database shortly after, together with
+     * other live scores; reads of the match return it immediately.
+     *
+     * @param id  The ID of the match.
+     * @param dto The ScoreUpdateDTO containing the current scores.
+     * @return ResponseEntity with status 202 containing the MatchDTO with the accepted scores.
+     */
+    @PutMapping("/{id}/score")
+    public ResponseEntity<MatchDTO> updateScore(@PathVariable("id") Long id,
+                                                @Valid @RequestBody ScoreUpdateDTO dto) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(matchService.updateScore(id, dto));
+    }
+
     /**
      * Deletes a match.
      *
@@ -0,0 +1,316 @@
+package com.example.library.controller;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.library.service.MatchFeed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Delivers the {@link MatchFeed} to server-sent event subscribers.
+ * An idle subscriber is only an open async request and a few fields: no thread waits for it.
+ * When the feed grows, every subscriber gets one drain task on a small shared pool, which sends
+ * the new entries that pass its filters, from its own position, at most one ring batch per
+ * turn before queueing up again behind the others. A subscriber whose position has left the
+ * ring gets a {@code resync} event and continues from the head, so it must reload the matches
+ * it shows. A subscriber whose connection fails is dropped.
+ * <p>
+ * Sends block while the client's socket buffer is full, so a slow client holds a sender thread.
+ * A subscriber whose send has not finished within the send timeout is dropped: it gets no more
+ * events, its connection is completed once the send returns, and the pool gets a thread in
+ * place of the blocked one until then, up to a maximum, so the other subscribers keep
+ * receiving. The dropped client reconnects with {@code Last-Event-ID} and resynchronizes if
+ * it fell too far behind.
+ * <p>
+ * Publishes {@code library.match-feed.subscribers}, {@code library.match-feed.resyncs}
+ * and {@code library.match-feed.stalled}.
+ */
+@Component
+public class MatchFeedStreams {
+    /**
+     * Maximum number of entries read from the ring per step of a drain.
+     */
+    private static final int READ_BATCH = 256;
+    /**
+     * Send state of a subscription that is not sending.
+     */
+    private static final long IDLE = Long.MIN_VALUE;
+    /**
+     * Send state of a subscription dropped while a send was blocked; final.
+     */
+    private static final long STALLED = Long.MIN_VALUE + 1;
+
+    /**
+     * One open feed connection.
+     */
+    private final class Subscription {
+        final SseEmitter emitter;
+        final Long leagueId;
+        final Long teamId;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean heartbeatDue = true;
+        volatile boolean closed;
+        /**
+         * Start of the send in progress, in {@link System#nanoTime()}, or {@link #IDLE} or
+         * {@link #STALLED}. Switched only by compare-and-set, so that exactly one of the sender
+         * finishing a send and the stall check flagging it wins.
+         */
+        final AtomicLong sendingSince = new AtomicLong(IDLE);
+        long position;
+
+        Subscription(SseEmitter emitter, Long leagueId, Long teamId, long position) {
+            this.emitter = emitter;
+            this.leagueId = leagueId;
+            this.teamId = teamId;
+            this.position = position;
+        }
+    }
+
+    private final MatchFeed feed;
+    private final long timeout;
+    private final long sendTimeoutNanos;
+    private final int senderThreads;
+    private final int maxSenderThreads;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor senders;
+    private final Counter resyncs;
+    private final Counter stalled;
+    private int blockedSenders;
+
+    /**
+     * Constructs the stream registry, subscribes it to the feed and registers its metrics.
+     *
+     * @param feed          The match feed to deliver.
+     * @param timeout       Lifetime of a connection in milliseconds; clients reconnect with {@code Last-Event-ID}.
+     * @param senderThreads    Number of threads sending to subscribers.
+     * @param maxSenderThreads Maximum number of sending threads, including those blocked by dropped subscribers.
+     * @param sendTimeout      Time in milliseconds after which a subscriber whose send has not finished is dropped.
+     * @param registry         The registry for the metrics.
+     */
+    public MatchFeedStreams(MatchFeed feed,
+                            @Value("${library.match-feed.timeout:1800000}") long timeout,
+                            @Value("${library.match-feed.sender-threads:4}") int senderThreads,
+                            @Value("${library.match-feed.max-sender-threads:16}") int maxSenderThreads,
+                            @Value("${library.match-feed.send-timeout:5000}") long sendTimeout,
+                            MeterRegistry registry) {
+        this.feed = feed;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeout);
+        this.senderThreads = senderThreads;
+        this.maxSenderThreads = Math.max(senderThreads, maxSenderThreads);
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "match-feed-" + threads.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        Gauge.builder("library.match-feed.subscribers", subscriptions, Set::size)
+            .description("Open match feed connections")
+            .register(registry);
+        this.resyncs = Counter.builder("library.match-feed.resyncs")
+            .description("Match feed subscribers that lost their position and had to resynchronize")
+            .register(registry);
+        this.stalled = Counter.builder("library.match-feed.stalled")
+            .description("Match feed subscribers dropped because a send did not finish in time")
+            .register(registry);
+        feed.onAppend(() -> subscriptions.forEach(this::schedule));
+    }
+
+    /**
+     * Opens a feed connection.
+     *
+     * @param leagueId    Only changes of matches with a team of this league are sent, or null for all.
+     * @param teamId      Only changes of matches of this team are sent, or null for all.
+     * @param lastEventId The ID of the last event the client received, to resume after it; null to start live.
+     * @return The emitter of the connection.
+     */
+    public SseEmitter subscribe(Long leagueId, Long teamId, Long lastEventId) {
+        SseEmitter emitter = newEmitter(timeout);
+        Subscription s = new Subscription(emitter, leagueId, teamId,
+                lastEventId != null ? lastEventId : feed.head());
+        emitter.onCompletion(() -> close(s));
+        emitter.onTimeout(() -> close(s));
+        emitter.onError(e -> close(s));
+        subscriptions.add(s);
+        schedule(s);
+        return emitter;
+    }
+
+    /**
+     * Sends a comment to every subscriber that received nothing since the previous heartbeat,
+     * so that proxies keep idle connections open and broken ones are detected.
+     */
+    @Scheduled(fixedDelayString = "${library.match-feed.heartbeat-interval:30000}")
+    public void heartbeat() {
+        for (Subscription s : subscriptions) {
+            s.heartbeatDue = true;
+            schedule(s);
+        }
+    }
+
+    /**
+     * Drops every subscriber whose send has been blocked for longer than the send timeout,
+     * and lends the pool a thread for each, so the other subscribers are not held up.
+     * A send that returns before it is flagged is not dropped; one that returns after it
+     * gives the thread back itself (see {@link #send}).
+     */
+    @Scheduled(fixedDelayString = "${library.match-feed.stall-check-interval:1000}")
+    public void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscription s : subscriptions) {
+            long since = s.sendingSince.get();
+            if (since != IDLE && since != STALLED && now - since > sendTimeoutNanos
+                    && s.sendingSince.compareAndSet(since, STALLED)) {
+                stalled.increment();
+                close(s);
+                resizeSenders(1);
+            }
+        }
+    }
+
+    /**
+     * Returns the current number of sending threads.
+     */
+    int senderThreads() {
+        return senders.getCorePoolSize();
+    }
+
+    /**
+     * Creates the emitter of a new connection.
+     */
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    /**
+     * Completes all open connections.
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(s -> s.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void schedule(Subscription s) {
+        if (!s.closed && s.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(s));
+            } catch (RejectedExecutionException e) {
+                s.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscription s) {
+        try {
+            boolean sent = false;
+            while (!s.closed) {
+                MatchFeed.Slice slice = feed.readAfter(s.position, READ_BATCH);
+                if (slice.isGap()) {
+                    resyncs.increment();
+                    send(s, SseEmitter.event().id(String.valueOf(slice.getHead())).name("resync").data(""));
+                    s.position = slice.getHead();
+                    sent = true;
+                    continue;
+                }
+                for (MatchFeed.Entry entry : slice.getEntries()) {
+                    if (s.closed) {
+                        break;
+                    }
+                    s.position = entry.getSequence();
+                    if (entry.matches(s.leagueId, s.teamId)) {
+                        send(s, SseEmitter.event()
+                                .id(String.valueOf(entry.getSequence()))
+                                .name("match")
+                                .data(entry.getEvent()));
+                        sent = true;
+                    }
+                }
+                // one batch per turn: the rest waits behind the other subscribers
+                break;
+            }
+            if (!sent && s.heartbeatDue && !s.closed) {
+                send(s, SseEmitter.event().comment("keep-alive"));
+            }
+            s.heartbeatDue = false;
+        } catch (IOException | IllegalStateException e) {
+            // the client went away; the container completes the request, but the emitter
+            // callbacks may only fire later, so stop sending right away
+            close(s);
+        } finally {
+            s.scheduled.set(false);
+        }
+        // entries appended while this drain was finishing, or left for the next turn
+        if (!s.closed && feed.head() > s.position) {
+            schedule(s);
+        }
+    }
+
+    /**
+     * Sends an event. If the stall check flagged the send while it was blocked, the send
+     * ends the connection once it returns and gives the lent thread back.
+     *
+     * @throws IllegalStateException if the subscriber has been dropped as stalled.
+     */
+    private void send(Subscription s, SseEmitter.SseEventBuilder event) throws IOException {
+        long start = System.nanoTime();
+        // keep clear of the two markers
+        if (start == IDLE || start == STALLED) {
+            start++;
+        }
+        if (!s.sendingSince.compareAndSet(IDLE, start)) {
+            throw new IllegalStateException("Subscriber dropped as stalled");
+        }
+        try {
+            s.emitter.send(event);
+        } finally {
+            if (!s.sendingSince.compareAndSet(start, IDLE)) {
+                resizeSenders(-1);
+                try {
+                    s.emitter.complete();
+                } catch (IllegalStateException e) {
+                    // already completed
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes the number of sending threads by the given number of blocked senders, within the maximum.
+     */
+    private synchronized void resizeSenders(int delta) {
+        // a flagged send may return before its thread was lent, so the count can dip below 0
+        blockedSenders += delta;
+        int size = Math.min(maxSenderThreads, senderThreads + Math.max(0, blockedSenders));
+        if (size > senders.getMaximumPoolSize()) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    private void close(Subscription s) {
+        s.closed = true;
+        subscriptions.remove(s);
+    }
+}
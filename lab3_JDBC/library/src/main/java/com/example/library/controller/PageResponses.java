@@ -0,0 +1,63 @@
+package com.example.library.controller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.http.ResponseEntity;
+
+import com.example.library.service.CursorPage;
+import com.example.library.service.MultiGet;
+
+/**
+ * Builds responses for keyset-paginated and multi-get list endpoints.
+ * The response body stays a plain JSON array of the items; the cursor of the
+ * next page is sent in the {@value #NEXT_CURSOR_HEADER} header and is absent on the last page,
+ * and IDs a multi-get could not find are sent in the {@value #MISSING_IDS_HEADER} header.
+ */
+final class PageResponses {
+
+    /**
+     * Response header carrying the cursor of the next page.
+     */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Response header carrying the comma-separated IDs a multi-get could not find.
+     */
+    static final String MISSING_IDS_HEADER = "X-Missing-Ids";
+
+    private PageResponses() {
+    }
+
+    /**
+     * Creates a 200 OK response for a page.
+     *
+     * @param page The page to return.
+     * @param <T>  The item type.
+     * @return The response with the page items as body and the next-page cursor as header.
+     */
+    static <T> ResponseEntity<List<T>> ok(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return builder.body(page.getItems());
+    }
+
+    /**
+     * Creates a 200 OK response for a multi-get.
+     *
+     * @param result The multi-get result to return.
+     * @param <T>    The item type.
+     * @return The response with the found items as body and the missing IDs as header.
+     */
+    static <T> ResponseEntity<List<T>> ok(MultiGet<T> result) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (!result.getMissingIds().isEmpty()) {
+            builder.header(MISSING_IDS_HEADER, result.getMissingIds().stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        }
+        return builder.body(result.getItems());
+    }
+}
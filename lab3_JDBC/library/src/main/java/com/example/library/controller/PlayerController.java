@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.library.dto.PlayerCreateUpdateDTO;
@@ -39,13 +40,29 @@ public class PlayerController {
     }
 
     /**
-     * Retrieves all players.
+     * Retrieves one page of players, ordered by ID.
      *
-     * @return ResponseEntity containing a list of PlayerDTOs.
+     * @param cursor The cursor from the {@code X-Next-Cursor} header of the previous page, optional.
+     * @param limit  The page size, optional; capped to the configured maximum.
+     * @return ResponseEntity containing a list of PlayerDTOs and the cursor of the next page, if any.
      */
     @GetMapping
-    public ResponseEntity<List<PlayerDTO>> getAll() {
-        return ResponseEntity.ok(playerService.findAll());
+    public ResponseEntity<List<PlayerDTO>> getAll(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return PageResponses.ok(playerService.findPage(cursor, limit));
+    }
+
+    /**
+     * Retrieves many players by ID in one request, e.g. {@code ?ids=1,2,3}.
+     * IDs that do not exist are listed in the {@code X-Missing-Ids} header instead of failing the request.
+     *
+     * @param ids The IDs of the players to retrieve; at most the configured maximum page size.
+     * @return ResponseEntity containing the found PlayerDTOs in request order.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<PlayerDTO>> getByIds(@RequestParam(name = "ids") List<Long> ids) {
+        return PageResponses.ok(playerService.findByIds(ids));
     }
 
     /**
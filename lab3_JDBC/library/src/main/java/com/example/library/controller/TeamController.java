@@ -1,7 +1,9 @@
 package com.example.library.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,11 +13,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.library.dto.HeadToHeadDTO;
+import com.example.library.dto.MatchDTO;
+import com.example.library.dto.PlayerDTO;
+import com.example.library.dto.RatingDTO;
 import com.example.library.dto.TeamCreateUpdateDTO;
 import com.example.library.dto.TeamDTO;
+import com.example.library.service.EloRatingService;
+import com.example.library.service.HeadToHeadService;
+import com.example.library.service.MatchService;
+import com.example.library.service.PlayerService;
 import com.example.library.service.TeamService;
+import com.example.library.service.TeamView;
 
 import jakarta.validation.Valid;
 
@@ -28,35 +40,139 @@ import jakarta.validation.Valid;
 public class TeamController {
 
     private final TeamService teamService;
+    private final PlayerService playerService;
+    private final MatchService matchService;
+    private final HeadToHeadService headToHeadService;
+    private final EloRatingService ratingService;
 
     /**
      * Constructor for TeamController.
      *
-     * @param teamService The service layer for team operations.
+     * @param teamService       The service layer for team operations.
+     * @param playerService     The service layer for player operations.
+     * @param matchService      The service layer for match operations.
+     * @param headToHeadService The service providing head-to-head records.
+     * @param ratingService     The service maintaining the Elo ratings.
      */
-    public TeamController(TeamService teamService) {
+    public TeamController(TeamService teamService,
+                          PlayerService playerService,
+                          MatchService matchService,
+                          HeadToHeadService headToHeadService,
+                          EloRatingService ratingService) {
         this.teamService = teamService;
+        this.playerService = playerService;
+        this.matchService = matchService;
+        this.headToHeadService = headToHeadService;
+        this.ratingService = ratingService;
     }
 
     /**
-     * Retrieves all teams.
+     * Retrieves one page of teams, ordered by ID.
      *
-     * @return ResponseEntity containing a list of TeamDTOs.
+     * @param cursor  The cursor from the {@code X-Next-Cursor} header of the previous page, optional.
+     * @param limit   The page size, optional; capped to the configured maximum.
+     * @param fields  Comma-separated top-level fields to return, optional; all fields if omitted.
+     * @param include Comma-separated associations to load, optional; all associations if omitted.
+     * @return ResponseEntity containing a list of TeamDTOs and the cursor of the next page, if any.
      */
     @GetMapping
-    public ResponseEntity<List<TeamDTO>> getAll() {
-        return ResponseEntity.ok(teamService.findAll());
+    public ResponseEntity<List<TeamDTO>> getAll(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "include", required = false) String include) {
+        return PageResponses.ok(teamService.findPage(cursor, limit, TeamView.of(fields, include)));
+    }
+
+    /**
+     * Retrieves many teams by ID in one request, e.g. {@code ?ids=1,2,3}.
+     * IDs that do not exist are listed in the {@code X-Missing-Ids} header instead of failing the request.
+     *
+     * @param ids     The IDs of the teams to retrieve; at most the configured maximum page size.
+     * @param fields  Comma-separated top-level fields to return, optional; all fields if omitted.
+     * @param include Comma-separated associations to load, optional; all associations if omitted.
+     * @return ResponseEntity containing the found TeamDTOs in request order.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<TeamDTO>> getByIds(
+            @RequestParam(name = "ids") List<Long> ids,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "include", required = false) String include) {
+        return PageResponses.ok(teamService.findByIds(ids, TeamView.of(fields, include)));
     }
 
     /**
      * Retrieves a team by its ID.
+     * With {@code ?fields=} and {@code ?include=} only the requested parts are loaded and returned,
+     * e.g. {@code ?fields=name,league} or {@code ?include=players}.
      *
-     * @param id The ID of the team to retrieve.
+     * @param id      The ID of the team to retrieve.
+     * @param fields  Comma-separated top-level fields to return, optional; all fields if omitted.
+     * @param include Comma-separated associations to load, optional; all associations if omitted.
      * @return ResponseEntity containing the TeamDTO if found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TeamDTO> getById(@PathVariable("id") Long id) {
-        return ResponseEntity.ok(teamService.findById(id));
+    public ResponseEntity<TeamDTO> getById(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "include", required = false) String include) {
+        return ResponseEntity.ok(teamService.findById(id, TeamView.of(fields, include)));
+    }
+
+    /**
+     * Retrieves the players of a team.
+     *
+     * @param id The ID of the team.
+     * @return ResponseEntity containing a list of PlayerDTOs.
+     */
+    @GetMapping("/{id}/players")
+    public ResponseEntity<List<PlayerDTO>> getPlayers(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(playerService.findByTeam(id));
+    }
+
+    /**
+     * Retrieves the matches of a team, home or away, optionally limited to a date window.
+     *
+     * @param id   The ID of the team.
+     * @param from Inclusive lower bound of the match date (ISO date-time), optional.
+     * @param to   Exclusive upper bound of the match date (ISO date-time), optional.
+     * @return ResponseEntity containing a list of MatchDTOs ordered by match date.
+     */
+    @GetMapping("/{id}/matches")
+    public ResponseEntity<List<MatchDTO>> getMatches(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(matchService.findByTeam(id, from, to));
+    }
+
+    /**
+     * Retrieves the Elo rating of a team within its league.
+     *
+     * @param id The ID of the team.
+     * @return ResponseEntity containing the RatingDTO.
+     */
+    @GetMapping("/{id}/rating")
+    public ResponseEntity<RatingDTO> getRating(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(ratingService.findByTeam(id));
+    }
+
+    /**
+     * Retrieves the head-to-head record of two teams.
+     *
+     * @param id         The ID of the team the record is seen from.
+     * @param opponentId The ID of the opponent.
+     * @param last       The number of recent meetings to include, optional.
+     * @return ResponseEntity containing the HeadToHeadDTO.
+     */
+    @GetMapping("/{id}/vs/{opponentId}")
+    public ResponseEntity<HeadToHeadDTO> getHeadToHead(
+            @PathVariable("id") Long id,
+            @PathVariable("opponentId") Long opponentId,
+            @RequestParam(name = "last", required = false) Integer last) {
+        return ResponseEntity.ok(headToHeadService.find(id, opponentId, last));
     }
 
     /**
@@ -0,0 +1,109 @@
+package com.example.library.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the head-to-head record of two teams.
+ * All counts are seen from the perspective of the first team.
+ */
+public class HeadToHeadDTO {
+    /**
+     * The ID of the team the record is seen from.
+     */
+    private Long teamId;
+    /**
+     * The ID of the opponent.
+     */
+    private Long opponentId;
+    /**
+     * The number of meetings between the two teams.
+     */
+    private int played;
+    /**
+     * The number of meetings won by the team.
+     */
+    private int wins;
+    /**
+     * The number of drawn meetings.
+     */
+    private int draws;
+    /**
+     * The number of meetings lost by the team.
+     */
+    private int losses;
+    /**
+     * The goals scored by the team in all meetings.
+     */
+    private int goalsFor;
+    /**
+     * The goals scored by the opponent in all meetings.
+     */
+    private int goalsAgainst;
+    /**
+     * The most recent meetings, newest first.
+     */
+    private List<MatchDTO> lastMeetings;
+
+    public Long getTeamId() {
+        return teamId;
+    }
+    public void setTeamId(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public Long getOpponentId() {
+        return opponentId;
+    }
+    public void setOpponentId(Long opponentId) {
+        this.opponentId = opponentId;
+    }
+
+    public int getPlayed() {
+        return played;
+    }
+    public void setPlayed(int played) {
+        this.played = played;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+    public void setWins(int wins) {
+        this.wins = wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+    public void setDraws(int draws) {
+        this.draws = draws;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+    public void setLosses(int losses) {
+        this.losses = losses;
+    }
+
+    public int getGoalsFor() {
+        return goalsFor;
+    }
+    public void setGoalsFor(int goalsFor) {
+        this.goalsFor = goalsFor;
+    }
+
+    public int getGoalsAgainst() {
+        return goalsAgainst;
+    }
+    public void setGoalsAgainst(int goalsAgainst) {
+        this.goalsAgainst = goalsAgainst;
+    }
+
+    public List<MatchDTO> getLastMeetings() {
+        return lastMeetings;
+    }
+    public void setLastMeetings(List<MatchDTO> lastMeetings) {
+        this.lastMeetings = lastMeetings;
+    }
+}
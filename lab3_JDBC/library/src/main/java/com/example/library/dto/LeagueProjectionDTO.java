@@ -0,0 +1,87 @@
+package com.example.library.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the simulated end of season of a league
+ * ({@code GET /api/leagues/{id}/projections}), with the cost of the simulation.
+ */
+public class LeagueProjectionDTO {
+    /**
+     * The ID of the league.
+     */
+    private Long leagueId;
+    /**
+     * The number of simulated seasons.
+     */
+    private int simulations;
+    /**
+     * The number of fixtures still to play, simulated in every season.
+     */
+    private int remainingFixtures;
+    /**
+     * The number of parallel workers that ran the simulations.
+     */
+    private int workers;
+    /**
+     * The wall-clock time of the simulation in milliseconds.
+     */
+    private long elapsedMillis;
+    /**
+     * The simulated seasons per second of wall-clock time.
+     */
+    private long simulationsPerSecond;
+    /**
+     * The projection of every team of the league, ordered by position.
+     */
+    private List<ProjectionDTO> teams;
+
+    public Long getLeagueId() {
+        return leagueId;
+    }
+    public void setLeagueId(Long leagueId) {
+        this.leagueId = leagueId;
+    }
+
+    public int getSimulations() {
+        return simulations;
+    }
+    public void setSimulations(int simulations) {
+        this.simulations = simulations;
+    }
+
+    public int getRemainingFixtures() {
+        return remainingFixtures;
+    }
+    public void setRemainingFixtures(int remainingFixtures) {
+        this.remainingFixtures = remainingFixtures;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getSimulationsPerSecond() {
+        return simulationsPerSecond;
+    }
+    public void setSimulationsPerSecond(long simulationsPerSecond) {
+        this.simulationsPerSecond = simulationsPerSecond;
+    }
+
+    public List<ProjectionDTO> getTeams() {
+        return teams;
+    }
+    public void setTeams(List<ProjectionDTO> teams) {
+        this.teams = teams;
+    }
+}
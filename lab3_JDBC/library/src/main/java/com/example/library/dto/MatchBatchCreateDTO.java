@@ -0,0 +1,34 @@
+package com.example.library.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Data Transfer Object for creating many matches in one request.
+ * Every entry is validated like a single {@link MatchCreateUpdateDTO}.
+ */
+public class MatchBatchCreateDTO {
+
+    /**
+     * The maximum number of matches accepted in one batch.
+     */
+    public static final int MAX_SIZE = 5000;
+
+    /**
+     * The matches to create. Must not be empty and not exceed {@link #MAX_SIZE} entries.
+     */
+    @NotEmpty(message = "At least one match is required")
+    @Size(max = MAX_SIZE, message = "At most " + MAX_SIZE + " matches per batch")
+    @Valid
+    private List<MatchCreateUpdateDTO> matches;
+
+    public List<MatchCreateUpdateDTO> getMatches() {
+        return matches;
+    }
+    public void setMatches(List<MatchCreateUpdateDTO> matches) {
+        this.matches = matches;
+    }
+}
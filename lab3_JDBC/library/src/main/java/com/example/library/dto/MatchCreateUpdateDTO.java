@@ -2,6 +2,8 @@ package com.example.library.dto;
 
 import java.time.LocalDateTime;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 /**
@@ -29,15 +31,19 @@ public class MatchCreateUpdateDTO {
     private LocalDateTime matchDate;
 
     /**
-     * The score of the home team. Must not be null.
+     * The score of the home team. Must not be null, negative or above 32767.
      */
     @NotNull(message = "Home score is required")
+    @Min(value = 0, message = "Home score must not be negative")
+    @Max(value = Short.MAX_VALUE, message = "Home score must be at most 32767")
     private Integer homeScore;
 
     /**
-     * The score of the away team. Must not be null.
+     * The score of the away team. Must not be null, negative or above 32767.
      */
     @NotNull(message = "Away score is required")
+    @Min(value = 0, message = "Away score must not be negative")
+    @Max(value = Short.MAX_VALUE, message = "Away score must be at most 32767")
     private Integer awayScore;
 
     public Long getHomeTeamId() {
@@ -0,0 +1,41 @@
+package com.example.library.dto;
+
+/**
+ * Data Transfer Object for one entry of the match feed ({@code GET /api/matches/feed}).
+ * Sent as the data of a server-sent event whose ID is {@link #getSequence()}.
+ */
+public class MatchFeedEventDTO {
+    /**
+     * The kind of change: {@code created}, {@code updated} or {@code deleted}.
+     */
+    private String type;
+    /**
+     * The position of the change in the feed; increases with every change.
+     */
+    private long sequence;
+    /**
+     * The match after the change, or before it if the match was deleted.
+     */
+    private MatchDTO match;
+
+    public String getType() {
+        return type;
+    }
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public MatchDTO getMatch() {
+        return match;
+    }
+    public void setMatch(MatchDTO match) {
+        this.match = match;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.library.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object for aggregated results of a group of matches:
+ * all matches of a window, or those of one league or one matchday.
+ */
+public class MatchStatsDTO {
+    /**
+     * The league the matches were grouped by, or null if not grouped by league.
+     */
+    private Long leagueId;
+    /**
+     * The matchday the matches were grouped by, or null if not grouped by day.
+     */
+    private LocalDate date;
+    /**
+     * The number of matches.
+     */
+    private int matches;
+    /**
+     * The goals scored in all matches together.
+     */
+    private long goals;
+    /**
+     * The number of matches the home team won.
+     */
+    private int homeWins;
+    /**
+     * The number of drawn matches.
+     */
+    private int draws;
+    /**
+     * The number of matches the away team won.
+     */
+    private int awayWins;
+    /**
+     * The share of home wins in percent, rounded to one decimal; 0 without matches.
+     */
+    private double homeWinPercentage;
+
+    public Long getLeagueId() {
+        return leagueId;
+    }
+    public void setLeagueId(Long leagueId) {
+        this.leagueId = leagueId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public int getMatches() {
+        return matches;
+    }
+    public void setMatches(int matches) {
+        this.matches = matches;
+    }
+
+    public long getGoals() {
+        return goals;
+    }
+    public void setGoals(long goals) {
+        this.goals = goals;
+    }
+
+    public int getHomeWins() {
+        return homeWins;
+    }
+    public void setHomeWins(int homeWins) {
+        this.homeWins = homeWins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+    public void setDraws(int draws) {
+        this.draws = draws;
+    }
+
+    public int getAwayWins() {
+        return awayWins;
+    }
+    public void setAwayWins(int awayWins) {
+        this.awayWins = awayWins;
+    }
+
+    public double getHomeWinPercentage() {
+        return homeWinPercentage;
+    }
+    public void setHomeWinPercentage(double homeWinPercentage) {
+        this.homeWinPercentage = homeWinPercentage;
+    }
+}
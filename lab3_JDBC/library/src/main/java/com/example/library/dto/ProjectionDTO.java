@@ -0,0 +1,95 @@
+package com.example.library.dto;
+
+/**
+ * Data Transfer Object for the projected end of season of one team, from simulated seasons.
+ */
+public class ProjectionDTO {
+    /**
+     * The 1-based position of the team in the projection, by expected points.
+     */
+    private int position;
+    /**
+     * The ID of the team.
+     */
+    private Long teamId;
+    /**
+     * The name of the team.
+     */
+    private String teamName;
+    /**
+     * The points of the team from the league matches played so far.
+     */
+    private int points;
+    /**
+     * The average points of the team at the end of the simulated seasons, rounded to one decimal.
+     */
+    private double expectedPoints;
+    /**
+     * The share of simulated seasons the team finished first in.
+     */
+    private double titleProbability;
+    /**
+     * The share of simulated seasons the team finished in a relegation place in.
+     */
+    private double relegationProbability;
+    /**
+     * The share of simulated seasons the team finished in each position; index 0 is first place.
+     */
+    private double[] positionProbabilities;
+
+    public int getPosition() {
+        return position;
+    }
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+    public void setTeamId(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+    public void setTeamName(String teamName) {
+        this.teamName = teamName;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+    public void setPoints(int points) {
+        this.points = points;
+    }
+
+    public double getExpectedPoints() {
+        return expectedPoints;
+    }
+    public void setExpectedPoints(double expectedPoints) {
+        this.expectedPoints = expectedPoints;
+    }
+
+    public double getTitleProbability() {
+        return titleProbability;
+    }
+    public void setTitleProbability(double titleProbability) {
+        this.titleProbability = titleProbability;
+    }
+
+    public double getRelegationProbability() {
+        return relegationProbability;
+    }
+    public void setRelegationProbability(double relegationProbability) {
+        this.relegationProbability = relegationProbability;
+    }
+
+    public double[] getPositionProbabilities() {
+        return positionProbabilities;
+    }
+    public void setPositionProbabilities(double[] positionProbabilities) {
+        this.positionProbabilities = positionProbabilities;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.library.dto;
+
+/**
+ * Data Transfer Object for the Elo rating of a team within its league.
+ */
+public class RatingDTO {
+    /**
+     * The 1-based position of the team in its league, by rating.
+     */
+    private int position;
+    /**
+     * The ID of the team.
+     */
+    private Long teamId;
+    /**
+     * The name of the team.
+     */
+    private String teamName;
+    /**
+     * The ID of the league the rating applies to.
+     */
+    private Long leagueId;
+    /**
+     * The current Elo rating, rounded to one decimal.
+     */
+    private double rating;
+    /**
+     * The number of league matches the rating is based on.
+     */
+    private int played;
+
+    public int getPosition() {
+        return position;
+    }
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+    public void setTeamId(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+    public void setTeamName(String teamName) {
+        this.teamName = teamName;
+    }
+
+    public Long getLeagueId() {
+        return leagueId;
+    }
+    public void setLeagueId(Long leagueId) {
+        this.leagueId = leagueId;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public int getPlayed() {
+        return played;
+    }
+    public void setPlayed(int played) {
+        this.played = played;
+    }
+}
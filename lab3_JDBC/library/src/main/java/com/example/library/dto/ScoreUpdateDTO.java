@@ -0,0 +1,42 @@
+package com.example.library.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Data Transfer Object for a live score update of a match in progress.
+ * Only the scores change; teams and date stay as they are.
+ */
+public class ScoreUpdateDTO {
+
+    /**
+     * The current score of the home team. Must not be null, negative or above 32767.
+     */
+    @NotNull(message = "Home score is required")
+    @Min(value = 0, message = "Home score must not be negative")
+    @Max(value = Short.MAX_VALUE, message = "Home score must be at most 32767")
+    private Integer homeScore;
+
+    /**
+     * The current score of the away team. Must not be null, negative or above 32767.
+     */
+    @NotNull(message = "Away score is required")
+    @Min(value = 0, message = "Away score must not be negative")
+    @Max(value = Short.MAX_VALUE, message = "Away score must be at most 32767")
+    private Integer awayScore;
+
+    public Integer getHomeScore() {
+        return homeScore;
+    }
+    public void setHomeScore(Integer homeScore) {
+        this.homeScore = homeScore;
+    }
+
+    public Integer getAwayScore() {
+        return awayScore;
+    }
+    public void setAwayScore(Integer awayScore) {
+        this.awayScore = awayScore;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.library.dto;
+
+/**
+ * Data Transfer Object for how often one final score occurred.
+ */
+public class ScorelineDTO {
+    /**
+     * The goals of the home team.
+     */
+    private int homeScore;
+    /**
+     * The goals of the away team.
+     */
+    private int awayScore;
+    /**
+     * The number of matches that ended with this score.
+     */
+    private int matches;
+    /**
+     * The share of all counted matches in percent, rounded to one decimal.
+     */
+    private double percentage;
+
+    public int getHomeScore() {
+        return homeScore;
+    }
+    public void setHomeScore(int homeScore) {
+        this.homeScore = homeScore;
+    }
+
+    public int getAwayScore() {
+        return awayScore;
+    }
+    public void setAwayScore(int awayScore) {
+        this.awayScore = awayScore;
+    }
+
+    public int getMatches() {
+        return matches;
+    }
+    public void setMatches(int matches) {
+        this.matches = matches;
+    }
+
+    public double getPercentage() {
+        return percentage;
+    }
+    public void setPercentage(double percentage) {
+        this.percentage = percentage;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.library.dto;
+
+/**
+ * Data Transfer Object for one row of a league table.
+ */
+public class StandingDTO {
+    /**
+     * The 1-based position of the team in the table.
+     */
+    private int position;
+    /**
+     * The ID of the team.
+     */
+    private Long teamId;
+    /**
+     * The name of the team.
+     */
+    private String teamName;
+    /**
+     * The number of league matches played.
+     */
+    private int played;
+    /**
+     * The number of matches won.
+     */
+    private int won;
+    /**
+     * The number of matches drawn.
+     */
+    private int drawn;
+    /**
+     * The number of matches lost.
+     */
+    private int lost;
+    /**
+     * The number of goals scored.
+     */
+    private int goalsFor;
+    /**
+     * The number of goals conceded.
+     */
+    private int goalsAgainst;
+    /**
+     * Goals scored minus goals conceded.
+     */
+    private int goalDifference;
+    /**
+     * League points: three per win, one per draw.
+     */
+    private int points;
+
+    public int getPosition() {
+        return position;
+    }
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+    public void setTeamId(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+    public void setTeamName(String teamName) {
+        this.teamName = teamName;
+    }
+
+    public int getPlayed() {
+        return played;
+    }
+    public void setPlayed(int played) {
+        this.played = played;
+    }
+
+    public int getWon() {
+        return won;
+    }
+    public void setWon(int won) {
+        this.won = won;
+    }
+
+    public int getDrawn() {
+        return drawn;
+    }
+    public void setDrawn(int drawn) {
+        this.drawn = drawn;
+    }
+
+    public int getLost() {
+        return lost;
+    }
+    public void setLost(int lost) {
+        this.lost = lost;
+    }
+
+    public int getGoalsFor() {
+        return goalsFor;
+    }
+    public void setGoalsFor(int goalsFor) {
+        this.goalsFor = goalsFor;
+    }
+
+    public int getGoalsAgainst() {
+        return goalsAgainst;
+    }
+    public void setGoalsAgainst(int goalsAgainst) {
+        this.goalsAgainst = goalsAgainst;
+    }
+
+    public int getGoalDifference() {
+        return goalDifference;
+    }
+    public void setGoalDifference(int goalDifference) {
+        this.goalDifference = goalDifference;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+    public void setPoints(int points) {
+        this.points = points;
+    }
+}
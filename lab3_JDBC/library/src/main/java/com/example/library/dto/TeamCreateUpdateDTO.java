@@ -30,8 +30,9 @@ public class TeamCreateUpdateDTO {
     private Long leagueId;
 
     /**
-     * A list of player IDs to associate with the team. Optional.
-     * Allows creating a team without players initially.
+     * The complete roster of the team as a list of player IDs. Optional.
+     * If given, the listed players are moved to the team and players of the team
+     * that are not listed are left without a team; if null, the roster is not changed.
      */
     // ⚠️ Сделано НЕ обязательным: можно создать команду без игроков, а потом привязать их
     private List<Long> playerIds;
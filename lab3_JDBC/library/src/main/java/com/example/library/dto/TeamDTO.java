@@ -2,10 +2,14 @@ package com.example.library.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Data Transfer Object for representing a Team.
  * Used for sending team data to the client, including associated coach, league, players, and matches.
+ * Parts left out with {@code ?fields=} or {@code ?include=} are null and omitted from the JSON.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class TeamDTO {
     /**
      * The unique identifier of the team.
@@ -0,0 +1,24 @@
+package com.example.library.event;
+
+/**
+ * Published by the service layer whenever a coach is updated or deleted.
+ */
+public class CoachChangedEvent {
+    /**
+     * The ID of the changed coach.
+     */
+    private final Long coachId;
+
+    /**
+     * Constructs a CoachChangedEvent.
+     *
+     * @param coachId The ID of the changed coach.
+     */
+    public CoachChangedEvent(Long coachId) {
+        this.coachId = coachId;
+    }
+
+    public Long getCoachId() {
+        return coachId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.library.event;
+
+/**
+ * Published by the service layer whenever a league is updated or deleted.
+ */
+public class LeagueChangedEvent {
+    /**
+     * The ID of the changed league.
+     */
+    private final Long leagueId;
+
+    /**
+     * Constructs a LeagueChangedEvent.
+     *
+     * @param leagueId The ID of the changed league.
+     */
+    public LeagueChangedEvent(Long leagueId) {
+        this.leagueId = leagueId;
+    }
+
+    public Long getLeagueId() {
+        return leagueId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.library.event;
+
+import com.example.library.model.Match;
+
+/**
+ * Published by the live score buffer whenever it accepts a live score, before the score
+ * is written to the database. Listeners caching views that overlay pending scores drop
+ * them here; read models built from committed matches wait for the {@link MatchChangedEvent}
+ * of the flush instead.
+ */
+public class LiveScoreRecordedEvent {
+    /**
+     * The match with the accepted score.
+     */
+    private final Match match;
+
+    /**
+     * Constructs a LiveScoreRecordedEvent.
+     *
+     * @param match The match with the accepted score.
+     */
+    public LiveScoreRecordedEvent(Match match) {
+        this.match = match;
+    }
+
+    public Match getMatch() {
+        return match;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.library.event;
+
+import com.example.library.model.Match;
+
+/**
+ * Published by the service layer whenever a match is created, updated or deleted.
+ * Carries the state of the match before and after the change, so that listeners
+ * maintaining derived data can revert the old result and apply the new one.
+ */
+public class MatchChangedEvent {
+    /**
+     * The match before the change, or null if the match was created.
+     */
+    private final Match previous;
+    /**
+     * The match after the change, or null if the match was deleted.
+     */
+    private final Match current;
+
+    /**
+     * Constructs a MatchChangedEvent.
+     *
+     * @param previous The match before the change, or null if it was created.
+     * @param current  The match after the change, or null if it was deleted.
+     */
+    public MatchChangedEvent(Match previous, Match current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public Match getPrevious() {
+        return previous;
+    }
+
+    public Match getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.library.event;
+
+/**
+ * Published by the service layer whenever a player is created, updated or deleted.
+ * Carries the team the player belongs to after the change and, where the service
+ * knows it without an extra read, the team it belonged to before.
+ */
+public class PlayerChangedEvent {
+    /**
+     * The ID of the player.
+     */
+    private final Long playerId;
+    /**
+     * The team of the player before the change, or null if the player was created
+     * or the previous team is not known.
+     */
+    private final Long previousTeamId;
+    /**
+     * The team of the player after the change, or null if the player was deleted.
+     */
+    private final Long currentTeamId;
+
+    /**
+     * Constructs a PlayerChangedEvent.
+     *
+     * @param playerId       The ID of the player.
+     * @param previousTeamId The team before the change, or null if unknown or created.
+     * @param currentTeamId  The team after the change, or null if the player was deleted.
+     */
+    public PlayerChangedEvent(Long playerId, Long previousTeamId, Long currentTeamId) {
+        this.playerId = playerId;
+        this.previousTeamId = previousTeamId;
+        this.currentTeamId = currentTeamId;
+    }
+
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    public Long getPreviousTeamId() {
+        return previousTeamId;
+    }
+
+    public Long getCurrentTeamId() {
+        return currentTeamId;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.library.event;
+
+import com.example.library.model.Team;
+
+/**
+ * Published by the service layer whenever a team is created, updated or deleted.
+ */
+public class TeamChangedEvent {
+    /**
+     * The ID of the changed team.
+     */
+    private final Long teamId;
+    /**
+     * The team after the change, or null if the team was deleted.
+     */
+    private final Team current;
+
+    /**
+     * Constructs a TeamChangedEvent.
+     *
+     * @param teamId  The ID of the changed team.
+     * @param current The team after the change, or null if it was deleted.
+     */
+    public TeamChangedEvent(Long teamId, Team current) {
+        this.teamId = teamId;
+        this.current = current;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public Team getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.library.event;
+
+/**
+ * Published by the TeamDirectory when a team enters, leaves or moves between leagues.
+ */
+public class TeamLeagueChangedEvent {
+    /**
+     * The ID of the team.
+     */
+    private final Long teamId;
+    /**
+     * The league the team belonged to before, or null if the team is new.
+     */
+    private final Long previousLeagueId;
+    /**
+     * The league the team belongs to now, or null if the team was deleted.
+     */
+    private final Long currentLeagueId;
+
+    /**
+     * Constructs a TeamLeagueChangedEvent.
+     *
+     * @param teamId           The ID of the team.
+     * @param previousLeagueId The previous league, or null if the team is new.
+     * @param currentLeagueId  The current league, or null if the team was deleted.
+     */
+    public TeamLeagueChangedEvent(Long teamId, Long previousLeagueId, Long currentLeagueId) {
+        this.teamId = teamId;
+        this.previousLeagueId = previousLeagueId;
+        this.currentLeagueId = currentLeagueId;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public Long getPreviousLeagueId() {
+        return previousLeagueId;
+    }
+
+    public Long getCurrentLeagueId() {
+        return currentLeagueId;
+    }
+}
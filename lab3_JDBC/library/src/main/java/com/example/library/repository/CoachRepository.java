@@ -1,6 +1,8 @@
 package com.example.library.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import com.example.library.model.Coach;
 
@@ -15,6 +17,15 @@ public interface CoachRepository {
      */
     List<Coach> findAll();
 
+    /**
+     * Retrieves one page of coaches ordered by ID, starting after the given ID.
+     *
+     * @param afterId The ID of the last coach of the previous page, or null for the first page.
+     * @param limit   The maximum number of coaches to return.
+     * @return Up to {@code limit} coaches with an ID greater than {@code afterId}, ordered by ID.
+     */
+    List<Coach> findPage(Long afterId, int limit);
+
     /**
      * Finds a coach by its unique identifier.
      *
@@ -23,6 +34,23 @@ public interface CoachRepository {
      */
     Coach findById(Long id);
 
+    /**
+     * Finds all coaches with the given identifiers in a single round trip.
+     * IDs that do not exist are silently skipped.
+     *
+     * @param ids The IDs of the coaches to find.
+     * @return The found coaches, in no particular order.
+     */
+    List<Coach> findByIds(Collection<Long> ids);
+
+    /**
+     * Determines which of the given coach IDs exist, using a single lightweight query per chunk.
+     *
+     * @param ids The IDs to check.
+     * @return The subset of the given IDs that exist.
+     */
+    Set<Long> findExistingIds(Collection<Long> ids);
+
     /**
      * Creates a new coach in the database.
      *
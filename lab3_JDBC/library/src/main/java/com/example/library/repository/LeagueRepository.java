@@ -1,6 +1,8 @@
 package com.example.library.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import com.example.library.model.League;
 
@@ -15,6 +17,15 @@ public interface LeagueRepository {
      */
     List<League> findAll();
 
+    /**
+     * Retrieves one page of leagues ordered by ID, starting after the given ID.
+     *
+     * @param afterId The ID of the last league of the previous page, or null for the first page.
+     * @param limit   The maximum number of leagues to return.
+     * @return Up to {@code limit} leagues with an ID greater than {@code afterId}, ordered by ID.
+     */
+    List<League> findPage(Long afterId, int limit);
+
     /**
      * Finds a league by its unique identifier.
      *
@@ -23,6 +34,23 @@ public interface LeagueRepository {
      */
     League findById(Long id);
 
+    /**
+     * Finds all leagues with the given identifiers in a single round trip.
+     * IDs that do not exist are silently skipped.
+     *
+     * @param ids The IDs of the leagues to find.
+     * @return The found leagues, in no particular order.
+     */
+    List<League> findByIds(Collection<Long> ids);
+
+    /**
+     * Determines which of the given league IDs exist, using a single lightweight query per chunk.
+     *
+     * @param ids The IDs to check.
+     * @return The subset of the given IDs that exist.
+     */
+    Set<Long> findExistingIds(Collection<Long> ids);
+
     /**
      * Creates a new league in the database.
      *
@@ -1,6 +1,9 @@
 package com.example.library.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.example.library.model.Match;
 
@@ -15,6 +18,28 @@ public interface MatchRepository {
      */
     List<Match> findAll();
 
+    /**
+     * Streams all matches, ordered by ID, to the given action while the result set is read.
+     * Rows are handed over one at a time and never collected into a list, so memory use
+     * does not depend on the size of the table.
+     *
+     * @param action The action invoked for every match.
+     */
+    void forEach(Consumer<Match> action);
+
+    /**
+     * Retrieves one page of matches ordered by match date and ID, optionally within a date window.
+     * The page starts after the (afterDate, afterId) key of the previous page.
+     *
+     * @param from      Inclusive lower bound of the match date, or null for no lower bound.
+     * @param to        Exclusive upper bound of the match date, or null for no upper bound.
+     * @param afterDate The match date of the last match of the previous page, or null for the first page.
+     * @param afterId   The ID of the last match of the previous page, or null for the first page.
+     * @param limit     The maximum number of matches to return.
+     * @return Up to {@code limit} matches, ordered by match date and ID.
+     */
+    List<Match> findPage(LocalDateTime from, LocalDateTime to, LocalDateTime afterDate, Long afterId, int limit);
+
     /**
      * Finds a match by its unique identifier.
      *
@@ -23,6 +48,52 @@ public interface MatchRepository {
      */
     Match findById(Long id);
 
+    /**
+     * Finds a match by its unique identifier and locks its row until the current transaction ends,
+     * so that no concurrent update or delete of the match can interleave with the caller's.
+     *
+     * @param id The ID of the match to find.
+     * @return The found Match object.
+     */
+    Match findByIdForUpdate(Long id);
+
+    /**
+     * Finds all matches with the given identifiers in a single round trip.
+     * IDs that do not exist are silently skipped.
+     *
+     * @param ids The IDs of the matches to find.
+     * @return The found matches, in no particular order.
+     */
+    List<Match> findByIds(Collection<Long> ids);
+
+    /**
+     * Finds all matches in which any of the given teams played, either at home or away.
+     * Each match is returned once, even if both of its teams are in the set.
+     *
+     * @param teamIds The IDs of the teams.
+     * @return The matches of these teams, ordered by ID.
+     */
+    List<Match> findByTeamIds(Collection<Long> teamIds);
+
+    /**
+     * Finds the matches a team played, either at home or away, optionally limited to a date window.
+     *
+     * @param teamId The ID of the team.
+     * @param from   Inclusive lower bound of the match date, or null for no lower bound.
+     * @param to     Exclusive upper bound of the match date, or null for no upper bound.
+     * @return The matches of the team, ordered by match date and ID.
+     */
+    List<Match> findByTeamId(Long teamId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Finds all matches played within the given date window.
+     *
+     * @param from Inclusive lower bound of the match date, or null for no lower bound.
+     * @param to   Exclusive upper bound of the match date, or null for no upper bound.
+     * @return The matches in the window, ordered by match date and ID.
+     */
+    List<Match> findByDateRange(LocalDateTime from, LocalDateTime to);
+
     /**
      * Creates a new match in the database.
      *
@@ -31,6 +102,14 @@ public interface MatchRepository {
      */
     Long create(Match match);
 
+    /**
+     * Creates many matches using JDBC batch inserts, one round trip per chunk.
+     *
+     * @param matches The Match objects to create.
+     * @return The generated IDs, in the same order as the given matches.
+     */
+    List<Long> createAll(List<Match> matches);
+
     /**
      * Updates an existing match in the database.
      *
@@ -39,6 +118,15 @@ public interface MatchRepository {
      */
     int update(Match match);
 
+    /**
+     * Updates the scores of many matches using JDBC batches, one round trip per chunk.
+     * Only the scores are written; all other columns are left unchanged.
+     *
+     * @param matches The matches with their new scores.
+     * @return For each match, in the given order, whether its row exists and was updated.
+     */
+    boolean[] updateScores(List<Match> matches);
+
     /**
      * Deletes a match from the database by its ID.
      *
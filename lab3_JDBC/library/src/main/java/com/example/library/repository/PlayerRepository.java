@@ -1,6 +1,8 @@
 package com.example.library.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import com.example.library.model.Player;
 
@@ -15,6 +17,15 @@ public interface PlayerRepository {
      */
     List<Player> findAll();
 
+    /**
+     * Retrieves one page of players ordered by ID, starting after the given ID.
+     *
+     * @param afterId The ID of the last player of the previous page, or null for the first page.
+     * @param limit   The maximum number of players to return.
+     * @return Up to {@code limit} players with an ID greater than {@code afterId}, ordered by ID.
+     */
+    List<Player> findPage(Long afterId, int limit);
+
     /**
      * Finds a player by its unique identifier.
      *
@@ -23,6 +34,59 @@ public interface PlayerRepository {
      */
     Player findById(Long id);
 
+    /**
+     * Finds all players with the given identifiers in a single round trip.
+     * IDs that do not exist are silently skipped.
+     *
+     * @param ids The IDs of the players to find.
+     * @return The found players, in no particular order.
+     */
+    List<Player> findByIds(Collection<Long> ids);
+
+    /**
+     * Determines which of the given player IDs exist, using a single lightweight query per chunk.
+     *
+     * @param ids The IDs to check.
+     * @return The subset of the given IDs that exist.
+     */
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Finds all players that belong to any of the given teams.
+     *
+     * @param teamIds The IDs of the teams.
+     * @return The players of these teams, ordered by ID.
+     */
+    List<Player> findByTeamIds(Collection<Long> teamIds);
+
+    /**
+     * Finds all players that belong to the given team.
+     *
+     * @param teamId The ID of the team.
+     * @return The players of the team, ordered by ID.
+     */
+    List<Player> findByTeamId(Long teamId);
+
+    /**
+     * Finds the players with the given identifiers and the players of the given team, and locks
+     * their rows until the current transaction ends, so that no concurrent change of the same
+     * players can interleave with a roster change of the caller.
+     *
+     * @param playerIds The IDs of the players to find; IDs that do not exist are skipped.
+     * @param teamId    The ID of the team whose players to find as well, or null for none.
+     * @return The found players, ordered by ID.
+     */
+    List<Player> findRosterForUpdate(Collection<Long> playerIds, Long teamId);
+
+    /**
+     * Moves many players to one team with a single statement per chunk of IDs.
+     *
+     * @param playerIds The IDs of the players to move.
+     * @param teamId    The ID of the new team, or null to leave the players without a team.
+     * @return The number of rows affected.
+     */
+    int assignTeam(Collection<Long> playerIds, Long teamId);
+
     /**
      * Creates a new player in the database.
      *
@@ -1,6 +1,8 @@
 package com.example.library.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import com.example.library.model.Team;
 
@@ -15,6 +17,15 @@ public interface TeamRepository {
      */
     List<Team> findAll();
 
+    /**
+     * Retrieves one page of teams ordered by ID, starting after the given ID.
+     *
+     * @param afterId The ID of the last team of the previous page, or null for the first page.
+     * @param limit   The maximum number of teams to return.
+     * @return Up to {@code limit} teams with an ID greater than {@code afterId}, ordered by ID.
+     */
+    List<Team> findPage(Long afterId, int limit);
+
     /**
      * Finds a team by its unique identifier.
      *
@@ -23,6 +34,23 @@ public interface TeamRepository {
      */
     Team findById(Long id);
 
+    /**
+     * Finds all teams with the given identifiers in a single round trip.
+     * IDs that do not exist are silently skipped.
+     *
+     * @param ids The IDs of the teams to find.
+     * @return The found teams, in no particular order.
+     */
+    List<Team> findByIds(Collection<Long> ids);
+
+    /**
+     * Determines which of the given team IDs exist, using a single lightweight query per chunk.
+     *
+     * @param ids The IDs to check.
+     * @return The subset of the given IDs that exist.
+     */
+    Set<Long> findExistingIds(Collection<Long> ids);
+
     /**
      * Creates a new team in the database.
      *
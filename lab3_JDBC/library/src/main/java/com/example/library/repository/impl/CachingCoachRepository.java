@@ -0,0 +1,132 @@
+package com.example.library.repository.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.example.library.model.Coach;
+import com.example.library.repository.CoachRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Caching decorator of {@link CoachRepositoryImpl}.
+ * All coaches are loaded into a {@link DictionaryCache} on startup; lookups by ID are
+ * answered from memory and writes refresh the dictionary after commit.
+ * Listing ({@link #findAll()}, {@link #findPage(Long, int)}) still reads the table.
+ */
+@Repository
+@Profile("!inmemory")
+@Primary
+public class CachingCoachRepository implements CoachRepository {
+
+    private final CoachRepositoryImpl delegate;
+    private final DictionaryCache<Coach> cache;
+
+    /**
+     * Constructs a CachingCoachRepository.
+     *
+     * @param delegate The JDBC repository that owns the data.
+     * @param registry The registry for the dictionary metrics.
+     */
+    public CachingCoachRepository(CoachRepositoryImpl delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.cache = new DictionaryCache<>("coaches", Coach::getId, CachingCoachRepository::copyOf, registry);
+    }
+
+    /**
+     * Loads all coaches into the dictionary.
+     */
+    @PostConstruct
+    void load() {
+        cache.loadAll(delegate.findAll());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Coach> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Coach> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Coach findById(Long id) {
+        return cache.get(id, delegate::findById);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Coach> findByIds(Collection<Long> ids) {
+        return cache.getAll(ids, delegate::findByIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return cache.existingIds(ids, delegate::findExistingIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long create(Coach coach) {
+        Long id = delegate.create(coach);
+        Coach created = copyOf(coach);
+        created.setId(id);
+        cache.putAfterCommit(created);
+        return id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int update(Coach coach) {
+        int updated = delegate.update(coach);
+        if (updated > 0) {
+            cache.putAfterCommit(coach);
+        }
+        return updated;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int delete(Long id) {
+        int deleted = delegate.delete(id);
+        if (deleted > 0) {
+            cache.removeAfterCommit(id);
+        }
+        return deleted;
+    }
+
+    private static Coach copyOf(Coach coach) {
+        Coach copy = new Coach();
+        copy.setId(coach.getId());
+        copy.setName(coach.getName());
+        return copy;
+    }
+}
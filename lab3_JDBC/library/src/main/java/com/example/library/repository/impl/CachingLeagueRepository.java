@@ -0,0 +1,132 @@
+package com.example.library.repository.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.example.library.model.League;
+import com.example.library.repository.LeagueRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Caching decorator of {@link LeagueRepositoryImpl}.
+ * All leagues are loaded into a {@link DictionaryCache} on startup; lookups by ID are
+ * answered from memory and writes refresh the dictionary after commit.
+ * Listing ({@link #findAll()}, {@link #findPage(Long, int)}) still reads the table.
+ */
+@Repository
+@Profile("!inmemory")
+@Primary
+public class CachingLeagueRepository implements LeagueRepository {
+
+    private final LeagueRepositoryImpl delegate;
+    private final DictionaryCache<League> cache;
+
+    /**
+     * Constructs a CachingLeagueRepository.
+     *
+     * @param delegate The JDBC repository that owns the data.
+     * @param registry The registry for the dictionary metrics.
+     */
+    public CachingLeagueRepository(LeagueRepositoryImpl delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.cache = new DictionaryCache<>("leagues", League::getId, CachingLeagueRepository::copyOf, registry);
+    }
+
+    /**
+     * Loads all leagues into the dictionary.
+     */
+    @PostConstruct
+    void load() {
+        cache.loadAll(delegate.findAll());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<League> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<League> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public League findById(Long id) {
+        return cache.get(id, delegate::findById);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<League> findByIds(Collection<Long> ids) {
+        return cache.getAll(ids, delegate::findByIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return cache.existingIds(ids, delegate::findExistingIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long create(League league) {
+        Long id = delegate.create(league);
+        League created = copyOf(league);
+        created.setId(id);
+        cache.putAfterCommit(created);
+        return id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int update(League league) {
+        int updated = delegate.update(league);
+        if (updated > 0) {
+            cache.putAfterCommit(league);
+        }
+        return updated;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int delete(Long id) {
+        int deleted = delegate.delete(id);
+        if (deleted > 0) {
+            cache.removeAfterCommit(id);
+        }
+        return deleted;
+    }
+
+    private static League copyOf(League league) {
+        League copy = new League();
+        copy.setId(league.getId());
+        copy.setName(league.getName());
+        return copy;
+    }
+}
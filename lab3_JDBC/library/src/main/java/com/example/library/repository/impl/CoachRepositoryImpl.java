@@ -2,9 +2,13 @@ package com.example.library.repository.impl;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -19,6 +23,7 @@ import com.example.library.repository.rowmapper.CoachRowMapper;
  * Handles database operations for Coach entities using JdbcTemplate.
  */
 @Repository
+@Profile("!inmemory")
 public class CoachRepositoryImpl implements CoachRepository {
 
     private final JdbcTemplate jdbc;
@@ -41,6 +46,22 @@ public class CoachRepositoryImpl implements CoachRepository {
         return jdbc.query(sql, new CoachRowMapper());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses a seek predicate on the primary key instead of OFFSET, so every page
+     * costs the same regardless of its position.
+     */
+    @Override
+    public List<Coach> findPage(Long afterId, int limit) {
+        if (afterId == null) {
+            String sql = "SELECT id, name FROM coaches ORDER BY id LIMIT ?";
+            return jdbc.query(sql, new CoachRowMapper(), limit);
+        }
+        String sql = "SELECT id, name FROM coaches WHERE id > ? ORDER BY id LIMIT ?";
+        return jdbc.query(sql, new CoachRowMapper(), afterId, limit);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -50,6 +71,24 @@ public class CoachRepositoryImpl implements CoachRepository {
         return jdbc.queryForObject(sql, new CoachRowMapper(), id);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Coach> findByIds(Collection<Long> ids) {
+        String sql = "SELECT id, name FROM coaches WHERE id IN (%s)";
+        return InClause.query(jdbc, sql, ids, new CoachRowMapper());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        String sql = "SELECT id FROM coaches WHERE id IN (%s)";
+        return new HashSet<>(InClause.query(jdbc, sql, ids, (rs, rowNum) -> rs.getLong(1)));
+    }
+
     /**
      * {@inheritDoc}
      */
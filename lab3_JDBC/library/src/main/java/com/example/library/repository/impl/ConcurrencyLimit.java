@@ -0,0 +1,228 @@
+package com.example.library.repository.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * An adaptive limit on concurrent database work of one kind (reads, writes or streams), adjusted by
+ * AIMD on the observed statement latency: every statement that takes longer than the target
+ * latency, or work that cannot get a connection or times out, shrinks the limit by the backoff
+ * ratio; every statement within the target while the limit is at least half used grows it by
+ * one over the limit, that is by about one per round of statements. When MySQL slows down,
+ * the limit thus drops towards what it can serve, and excess requests are turned away at once
+ * instead of piling up in JDBC; when it recovers, the limit climbs back.
+ * <p>
+ * A permit is held for as long as a connection is, while latency is sampled per statement
+ * (see {@link LimitingDataSource}), so time spent between statements does not look like a slow
+ * database. A caller over the limit waits at most the maximum wait for a permit, then is
+ * rejected with {@link TransientDataAccessResourceException} (503 with {@code Retry-After}).
+ * <p>
+ * Publishes {@code library.db-limit.limit}, {@code library.db-limit.in-flight},
+ * {@code library.db-limit.queued} and {@code library.db-limit.rejected}, tagged with the kind.
+ */
+public class ConcurrencyLimit implements MeterBinder {
+    private final String kind;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoff;
+    private final long maxWaitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private Counter rejected;
+
+    /**
+     * Constructs a limit.
+     *
+     * @param kind            The kind of database work, used in messages and as metric tag.
+     * @param initialLimit    The limit to start with.
+     * @param minLimit        The limit never drops below this.
+     * @param maxLimit        The limit never grows above this.
+     * @param targetLatencyMs Statements taking longer than this, in milliseconds, shrink the limit.
+     * @param backoff         Factor applied to the limit on a slow statement, between 0 and 1.
+     * @param maxWaitMs       Maximum time in milliseconds a caller waits for a permit.
+     */
+    public ConcurrencyLimit(String kind, int initialLimit, int minLimit, int maxLimit,
+                            long targetLatencyMs, double backoff, long maxWaitMs) {
+        if (minLimit < 1 || maxLimit < minLimit || backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("Invalid " + kind + " limit: min " + minLimit
+                + ", max " + maxLimit + ", backoff " + backoff);
+        }
+        this.kind = kind;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.backoff = backoff;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.db-limit.limit", this, ConcurrencyLimit::limit)
+            .tag("kind", kind)
+            .description("Current adaptive limit of concurrent database work")
+            .register(registry);
+        Gauge.builder("library.db-limit.in-flight", this, ConcurrencyLimit::inFlight)
+            .tag("kind", kind)
+            .description("Database work holding a permit")
+            .register(registry);
+        Gauge.builder("library.db-limit.queued", this, ConcurrencyLimit::queued)
+            .tag("kind", kind)
+            .description("Database work waiting for a permit")
+            .register(registry);
+        this.rejected = Counter.builder("library.db-limit.rejected")
+            .tag("kind", kind)
+            .description("Database work rejected because the limit was reached")
+            .register(registry);
+    }
+
+    /**
+     * Takes a permit, waiting at most the maximum wait.
+     * Every permit must be returned with {@link #release}.
+     *
+     * @throws TransientDataAccessResourceException if no permit became free in time.
+     */
+    public void acquire() {
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    if (rejected != null) {
+                        rejected.increment();
+                    }
+                    throw new TransientDataAccessResourceException(
+                        "Database " + kind + " limit of " + (int) limit + " concurrent uses reached");
+                }
+                queued++;
+                try {
+                    remaining = released.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TransientDataAccessResourceException("Interrupted while waiting for a database " + kind + " permit");
+                } finally {
+                    queued--;
+                }
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit taken with {@link #acquire}.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adjusts the limit to the latency of a statement run under a permit.
+     *
+     * @param latencyNanos The time the statement took, in nanoseconds.
+     */
+    public void onSample(long latencyNanos) {
+        lock.lock();
+        try {
+            if (latencyNanos > targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoff);
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shrinks the limit after work failed for lack of database capacity, such as a
+     * connection or statement timeout.
+     */
+    public void onDropped() {
+        lock.lock();
+        try {
+            limit = Math.max(minLimit, limit * backoff);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of permits that can be taken right now without waiting.
+     *
+     * @return The free permits, never negative.
+     */
+    public int available() {
+        lock.lock();
+        try {
+            return Math.max(0, (int) limit - inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the upper bound of the limit.
+     *
+     * @return The maximum limit.
+     */
+    public int maxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Returns the kind of database work this limit applies to.
+     *
+     * @return The kind, such as reads or writes.
+     */
+    public String kind() {
+        return kind;
+    }
+
+    private double limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.library.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-through dictionary of a small, rarely changing table, keyed by ID.
+ * Readers see an immutable snapshot that is replaced as a whole on every change
+ * (copy-on-write), so lookups take no locks. Entries are copied on the way in and
+ * on the way out, so callers can never modify the cached state.
+ * <p>
+ * Every committed write bumps the version of the dictionary. A read-through load remembers
+ * the version it started at and caches its result only if no write came in meanwhile, so a
+ * load that read the row before a concurrent commit cannot overwrite the committed state.
+ * Publishes {@code library.dictionary.requests} (hits and misses) and
+ * {@code library.dictionary.size}, tagged with the dictionary name.
+ *
+ * @param <T> The entity type.
+ */
+final class DictionaryCache<T> {
+    private final Function<T, Long> idOf;
+    private final UnaryOperator<T> copy;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile NavigableMap<Long, T> snapshot = Collections.emptyNavigableMap();
+    /**
+     * Bumped by every write to the dictionary; guarded by this dictionary for updates.
+     */
+    private volatile long version;
+
+    /**
+     * Constructs an empty dictionary and registers its metrics.
+     *
+     * @param name     The dictionary name, used as the {@code cache} tag.
+     * @param idOf     Extracts the ID of an entity.
+     * @param copy     Creates a detached copy of an entity.
+     * @param registry The registry for the metrics.
+     */
+    DictionaryCache(String name, Function<T, Long> idOf, UnaryOperator<T> copy, MeterRegistry registry) {
+        this.idOf = idOf;
+        this.copy = copy;
+        FunctionCounter.builder("library.dictionary.requests", hits, LongAdder::doubleValue)
+            .tag("cache", name).tag("result", "hit")
+            .description("Dictionary lookups answered from memory")
+            .register(registry);
+        FunctionCounter.builder("library.dictionary.requests", misses, LongAdder::doubleValue)
+            .tag("cache", name).tag("result", "miss")
+            .description("Dictionary lookups that went to the database")
+            .register(registry);
+        Gauge.builder("library.dictionary.size", this, c -> c.snapshot.size())
+            .tag("cache", name)
+            .description("Number of entries in the dictionary")
+            .register(registry);
+    }
+
+    /**
+     * Replaces the whole content of the dictionary.
+     *
+     * @param entities All entities of the table.
+     */
+    synchronized void loadAll(Collection<T> entities) {
+        NavigableMap<Long, T> next = new TreeMap<>();
+        for (T entity : entities) {
+            next.put(idOf.apply(entity), copy.apply(entity));
+        }
+        snapshot = Collections.unmodifiableNavigableMap(next);
+        version++;
+    }
+
+    /**
+     * Looks up one entity, loading and caching it on a miss.
+     *
+     * @param id     The ID of the entity.
+     * @param loader Loads the entity from the database on a miss.
+     * @return A copy of the entity.
+     */
+    T get(Long id, Function<Long, T> loader) {
+        T cached = snapshot.get(id);
+        if (cached != null) {
+            hits.increment();
+            return copy.apply(cached);
+        }
+        misses.increment();
+        long started = version;
+        T loaded = loader.apply(id);
+        if (loaded != null) {
+            putLoaded(List.of(loaded), started);
+        }
+        return loaded;
+    }
+
+    /**
+     * Looks up many entities, loading the missing ones with one call.
+     *
+     * @param ids    The IDs of the entities.
+     * @param loader Loads the entities that are not cached; IDs that do not exist are skipped.
+     * @return Copies of the found entities, in no particular order.
+     */
+    List<T> getAll(Collection<Long> ids, Function<Collection<Long>, List<T>> loader) {
+        Map<Long, T> current = snapshot;
+        List<T> result = new ArrayList<>(ids.size());
+        Set<Long> missing = new HashSet<>();
+        for (Long id : new HashSet<>(ids)) {
+            T cached = id == null ? null : current.get(id);
+            if (cached != null) {
+                result.add(copy.apply(cached));
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        hits.add(result.size());
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            long started = version;
+            List<T> loaded = loader.apply(missing);
+            putLoaded(loaded, started);
+            result.addAll(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * Determines which of the given IDs exist; IDs not in the dictionary are checked with one call.
+     *
+     * @param ids    The IDs to check.
+     * @param loader Checks the IDs that are not cached against the database.
+     * @return The subset of the given IDs that exist.
+     */
+    Set<Long> existingIds(Collection<Long> ids, Function<Collection<Long>, Set<Long>> loader) {
+        Map<Long, T> current = snapshot;
+        Set<Long> existing = new HashSet<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            (current.containsKey(id) ? existing : missing).add(id);
+        }
+        hits.add(existing.size());
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            existing.addAll(loader.apply(missing));
+        }
+        return existing;
+    }
+
+    /**
+     * Stores an entity once the surrounding transaction, if any, has committed.
+     *
+     * @param entity The new state of the entity.
+     */
+    void putAfterCommit(T entity) {
+        T detached = copy.apply(entity);
+        afterCommit(() -> put(detached));
+    }
+
+    /**
+     * Removes an entity once the surrounding transaction, if any, has committed.
+     *
+     * @param id The ID of the removed entity.
+     */
+    void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Caches entities read through on a miss, unless the dictionary was written since the
+     * load started: the load may then have read a row before a concurrent commit.
+     *
+     * @param loaded  The loaded entities.
+     * @param started The version of the dictionary when the load started.
+     */
+    private synchronized void putLoaded(List<T> loaded, long started) {
+        if (loaded.isEmpty() || version != started) {
+            return;
+        }
+        NavigableMap<Long, T> next = new TreeMap<>(snapshot);
+        for (T entity : loaded) {
+            next.put(idOf.apply(entity), copy.apply(entity));
+        }
+        snapshot = Collections.unmodifiableNavigableMap(next);
+    }
+
+    private synchronized void put(T entity) {
+        NavigableMap<Long, T> next = new TreeMap<>(snapshot);
+        next.put(idOf.apply(entity), copy.apply(entity));
+        snapshot = Collections.unmodifiableNavigableMap(next);
+        version++;
+    }
+
+    private synchronized void remove(Long id) {
+        if (snapshot.containsKey(id)) {
+            NavigableMap<Long, T> next = new TreeMap<>(snapshot);
+            next.remove(id);
+            snapshot = Collections.unmodifiableNavigableMap(next);
+        }
+        version++;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
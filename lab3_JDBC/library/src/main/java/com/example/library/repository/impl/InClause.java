@@ -0,0 +1,119 @@
+package com.example.library.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Helper for running {@code WHERE ... IN (...)} queries with JdbcTemplate.
+ * Splits large ID sets into chunks so that a single statement never carries
+ * more bind parameters than the driver or the server handles comfortably.
+ */
+final class InClause {
+
+    /**
+     * Maximum number of IDs bound into a single IN list.
+     */
+    static final int CHUNK_SIZE = 500;
+
+    private InClause() {
+    }
+
+    /**
+     * Builds a comma-separated list of {@code ?} placeholders.
+     *
+     * @param count The number of placeholders.
+     * @return The placeholder list, e.g. {@code "?, ?, ?"}.
+     */
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Removes duplicates and nulls while keeping the first-seen order.
+     *
+     * @param ids The IDs to normalize.
+     * @return A list of distinct, non-null IDs.
+     */
+    static List<Long> distinct(Collection<Long> ids) {
+        LinkedHashSet<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        return new ArrayList<>(unique);
+    }
+
+    /**
+     * Runs the given query once per chunk of IDs and concatenates the results.
+     * The SQL must contain one {@code %s} marker per IN list; every marker is
+     * replaced with the placeholders of the current chunk and the chunk is bound
+     * once for each marker.
+     *
+     * @param jdbc      The JdbcTemplate to use.
+     * @param sqlFormat The SQL with {@code %s} markers for the IN lists.
+     * @param ids       The IDs to look up.
+     * @param mapper    The RowMapper for the result rows.
+     * @param <T>       The mapped row type.
+     * @return The rows of all chunks, in chunk order.
+     */
+    static <T> List<T> query(JdbcTemplate jdbc, String sqlFormat, Collection<Long> ids, RowMapper<T> mapper) {
+        List<Long> unique = distinct(ids);
+        if (unique.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int markers = countMarkers(sqlFormat);
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < unique.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = unique.subList(from, Math.min(from + CHUNK_SIZE, unique.size()));
+            String in = placeholders(chunk.size());
+            Object[] markerValues = Collections.nCopies(markers, in).toArray();
+            String sql = String.format(sqlFormat, markerValues);
+            Object[] args = new Object[chunk.size() * markers];
+            for (int m = 0; m < markers; m++) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    args[m * chunk.size() + i] = chunk.get(i);
+                }
+            }
+            result.addAll(jdbc.query(sql, mapper, args));
+        }
+        return result;
+    }
+
+    /**
+     * Runs the given update statement once per chunk of IDs and sums the affected rows.
+     * The SQL must contain exactly one {@code %s} marker for the IN list; the leading
+     * arguments are bound before the IDs of every chunk.
+     *
+     * @param jdbc        The JdbcTemplate to use.
+     * @param sqlFormat   The SQL with one {@code %s} marker for the IN list.
+     * @param ids         The IDs of the rows to update.
+     * @param leadingArgs The arguments bound before the IN list, e.g. the values of a SET clause.
+     * @return The total number of affected rows.
+     */
+    static int update(JdbcTemplate jdbc, String sqlFormat, Collection<Long> ids, Object... leadingArgs) {
+        List<Long> unique = distinct(ids);
+        int updated = 0;
+        for (int from = 0; from < unique.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = unique.subList(from, Math.min(from + CHUNK_SIZE, unique.size()));
+            String sql = String.format(sqlFormat, placeholders(chunk.size()));
+            List<Object> args = new ArrayList<>(leadingArgs.length + chunk.size());
+            Collections.addAll(args, leadingArgs);
+            args.addAll(chunk);
+            updated += jdbc.update(sql, args.toArray());
+        }
+        return updated;
+    }
+
+    private static int countMarkers(String sqlFormat) {
+        int count = 0;
+        int idx = sqlFormat.indexOf("%s");
+        while (idx >= 0) {
+            count++;
+            idx = sqlFormat.indexOf("%s", idx + 2);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.library.repository.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource that takes a permit from a {@link ConcurrencyLimit} for every connection it
+ * hands out and returns it when the connection is closed.
+ * Work inside a read-write transaction uses the write limit, everything else the read limit;
+ * a DataSource with a single limit uses it for all work, as the one for streamed queries does.
+ * <p>
+ * The limit adapts to the time each statement takes to execute, not to how long the connection
+ * is held: mapping rows and assembling DTOs between statements is not database latency. Batches
+ * and statements with an explicit fetch size, such as the streamed export and the rebuilds that
+ * walk all matches, are not sampled, since their duration depends on their size, not on load.
+ * A statement that times out, like a connection that cannot be had, shrinks the limit.
+ * <p>
+ * The kind of work is only known once the transaction has started, so this DataSource is
+ * meant to sit behind a {@code LazyConnectionDataSourceProxy}, which fetches the connection
+ * at the first statement rather than at the start of the transaction.
+ */
+public class LimitingDataSource extends DelegatingDataSource {
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final Set<String> SAMPLED_EXECUTIONS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+    private final ConcurrencyLimit readLimit;
+    private final ConcurrencyLimit writeLimit;
+
+    /**
+     * Constructs the limiting DataSource.
+     *
+     * @param target     The connection pool.
+     * @param readLimit  The limit of work outside read-write transactions.
+     * @param writeLimit The limit of work inside read-write transactions.
+     */
+    public LimitingDataSource(DataSource target, ConcurrencyLimit readLimit, ConcurrencyLimit writeLimit) {
+        super(target);
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+    }
+
+    /**
+     * Constructs a limiting DataSource that takes every connection through one limit.
+     *
+     * @param target The connection pool.
+     * @param limit  The limit of all work.
+     */
+    public LimitingDataSource(DataSource target, ConcurrencyLimit limit) {
+        this(target, limit, limit);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ConcurrencyLimit limit = currentLimit();
+        limit.acquire();
+        try {
+            return limited(super.getConnection(), limit);
+        } catch (SQLException | RuntimeException e) {
+            limit.onDropped();
+            limit.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        ConcurrencyLimit limit = currentLimit();
+        limit.acquire();
+        try {
+            return limited(super.getConnection(username, password), limit);
+        } catch (SQLException | RuntimeException e) {
+            limit.onDropped();
+            limit.release();
+            throw e;
+        }
+    }
+
+    private ConcurrencyLimit currentLimit() {
+        boolean write = TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return write ? writeLimit : readLimit;
+    }
+
+    /**
+     * Wraps a connection so that closing it, once, returns the permit, and its statements report their latency.
+     */
+    private static Connection limited(Connection target, ConcurrencyLimit limit) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                    try {
+                        target.close();
+                    } finally {
+                        limit.release();
+                    }
+                    return null;
+                }
+                if (method.getName().equals("isClosed") && closed.get()) {
+                    return true;
+                }
+                Object result = invoke(method, target, args);
+                if (STATEMENT_FACTORIES.contains(method.getName())) {
+                    return sampled((Statement) result, method.getReturnType(), limit);
+                }
+                return result;
+            });
+    }
+
+    /**
+     * Wraps a statement so that each execution reports its latency, unless a fetch size was set.
+     */
+    private static Object sampled(Statement target, Class<?> type, ConcurrencyLimit limit) {
+        AtomicBoolean streaming = new AtomicBoolean();
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "setFetchSize":
+                        streaming.set((Integer) args[0] != 0);
+                        break;
+                    default:
+                        break;
+                }
+                if (!SAMPLED_EXECUTIONS.contains(method.getName()) || streaming.get()) {
+                    return invoke(method, target, args);
+                }
+                long start = System.nanoTime();
+                try {
+                    Object result = invoke(method, target, args);
+                    limit.onSample(System.nanoTime() - start);
+                    return result;
+                } catch (SQLTimeoutException e) {
+                    limit.onDropped();
+                    throw e;
+                }
+            });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,13 +1,28 @@
 package com.example.library.repository.impl;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import com.example.library.model.Match;
@@ -19,17 +34,30 @@ import com.example.library.repository.rowmapper.MatchRowMapper;
  * Handles database operations for Match entities using JdbcTemplate.
  */
 @Repository
+@Profile("!inmemory")
 public class MatchRepositoryImpl implements MatchRepository {
 
     private final JdbcTemplate jdbc;
+    private final JdbcTemplate streamingJdbc;
+    private final int streamFetchSize;
+    private final int batchSize;
 
     /**
      * Constructs a MatchRepositoryImpl with the given JdbcTemplate.
      *
-     * @param jdbc The JdbcTemplate to use for database operations.
+     * @param jdbc            The JdbcTemplate to use for database operations.
+     * @param streamingJdbc   The JdbcTemplate for streaming all matches, on connections of its own.
+     * @param streamFetchSize The JDBC fetch size used when streaming all matches, except on MySQL.
+     * @param batchSize       The number of rows sent per JDBC batch when inserting many matches.
      */
-    public MatchRepositoryImpl(JdbcTemplate jdbc) {
+    public MatchRepositoryImpl(JdbcTemplate jdbc,
+                               @Qualifier("streamingJdbcTemplate") JdbcTemplate streamingJdbc,
+                               @Value("${library.export.fetch-size:1000}") int streamFetchSize,
+                               @Value("${library.batch.chunk-size:500}") int batchSize) {
         this.jdbc = jdbc;
+        this.streamingJdbc = streamingJdbc;
+        this.streamFetchSize = streamFetchSize;
+        this.batchSize = batchSize;
     }
 
     /**
@@ -41,6 +69,56 @@ public class MatchRepositoryImpl implements MatchRepository {
         return jdbc.query(sql, new MatchRowMapper());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses a forward-only, read-only statement that streams the result instead of buffering
+     * it: on MySQL with a fetch size of {@link Integer#MIN_VALUE}, which makes Connector/J
+     * read rows one at a time as the server sends them, and elsewhere with the configured
+     * positive fetch size. Only this statement streams; every other query keeps the
+     * driver's default of client-side prepared statements with buffered results.
+     * While it streams, the connection cannot run other statements, so the query runs on a
+     * connection of its own, outside the caller's transaction, within the stream limit.
+     */
+    @Override
+    public void forEach(Consumer<Match> action) {
+        String sql = "SELECT id, home_team_id, away_team_id, match_date, home_score, away_score FROM matches ORDER BY id";
+        MatchRowMapper mapper = new MatchRowMapper();
+        streamingJdbc.query(conn -> {
+            PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(streamingFetchSize(conn));
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(mapper.mapRow(rs, rs.getRow())));
+    }
+
+    private int streamingFetchSize(Connection conn) throws SQLException {
+        return "MySQL".equals(conn.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : streamFetchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Seeks on the (match_date, id) index instead of using OFFSET, so every page
+     * costs the same regardless of its position.
+     */
+    @Override
+    public List<Match> findPage(LocalDateTime from, LocalDateTime to,
+                                LocalDateTime afterDate, Long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+            "SELECT id, home_team_id, away_team_id, match_date, home_score, away_score FROM matches WHERE 1 = 1");
+        sql.append(dateWindow(from, to, args));
+        if (afterDate != null && afterId != null) {
+            sql.append(" AND match_date >= ? AND (match_date > ? OR id > ?)");
+            args.add(afterDate);
+            args.add(afterDate);
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY match_date, id LIMIT ?");
+        args.add(limit);
+        return jdbc.query(sql.toString(), new MatchRowMapper(), args.toArray());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -50,6 +128,76 @@ public class MatchRepositoryImpl implements MatchRepository {
         return jdbc.queryForObject(sql, new MatchRowMapper(), id);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Match findByIdForUpdate(Long id) {
+        String sql = "SELECT id, home_team_id, away_team_id, match_date, home_score, away_score FROM matches WHERE id = ? FOR UPDATE";
+        return jdbc.queryForObject(sql, new MatchRowMapper(), id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Match> findByIds(Collection<Long> ids) {
+        String sql = "SELECT id, home_team_id, away_team_id, match_date, home_score, away_score FROM matches WHERE id IN (%s)";
+        return InClause.query(jdbc, sql, ids, new MatchRowMapper());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Match> findByTeamIds(Collection<Long> teamIds) {
+        String sql = "SELECT id, home_team_id, away_team_id, match_date, home_score, away_score FROM matches "
+                + "WHERE home_team_id IN (%s) OR away_team_id IN (%s) ORDER BY id";
+        // a match between teams of different chunks is returned by both chunks
+        Map<Long, Match> unique = new TreeMap<>();
+        for (Match m : InClause.query(jdbc, sql, teamIds, new MatchRowMapper())) {
+            unique.putIfAbsent(m.getId(), m);
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Runs as a UNION of the home and away sides so that each branch can use its own
+     * (team, match_date) index instead of scanning the whole table.
+     */
+    @Override
+    public List<Match> findByTeamId(Long teamId, LocalDateTime from, LocalDateTime to) {
+        List<Object> windowArgs = new ArrayList<>();
+        String window = dateWindow(from, to, windowArgs);
+        String sql = "SELECT id, home_team_id, away_team_id, match_date, home_score, away_score FROM matches "
+                + "WHERE home_team_id = ?" + window
+                + " UNION ALL "
+                + "SELECT id, home_team_id, away_team_id, match_date, home_score, away_score FROM matches "
+                + "WHERE away_team_id = ?" + window + " AND home_team_id <> ?"
+                + " ORDER BY match_date, id";
+        List<Object> args = new ArrayList<>();
+        args.add(teamId);
+        args.addAll(windowArgs);
+        args.add(teamId);
+        args.addAll(windowArgs);
+        args.add(teamId);
+        return jdbc.query(sql, new MatchRowMapper(), args.toArray());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Match> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT id, home_team_id, away_team_id, match_date, home_score, away_score FROM matches "
+                + "WHERE 1 = 1" + dateWindow(from, to, args)
+                + " ORDER BY match_date, id";
+        return jdbc.query(sql, new MatchRowMapper(), args.toArray());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -73,6 +221,48 @@ public class MatchRepositoryImpl implements MatchRepository {
         return key.longValue();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * With {@code rewriteBatchedStatements=true} on the MySQL connection URL the driver
+     * sends each chunk as a single multi-row INSERT and reports the generated keys in row order.
+     */
+    @Override
+    public List<Long> createAll(List<Match> matches) {
+        String sql = "INSERT INTO matches (home_team_id, away_team_id, match_date, home_score, away_score) VALUES (?, ?, ?, ?, ?)";
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (int from = 0; from < matches.size(); from += batchSize) {
+            List<Match> chunk = matches.subList(from, Math.min(from + batchSize, matches.size()));
+            KeyHolder kh = new GeneratedKeyHolder();
+            jdbc.batchUpdate(conn -> conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(@NonNull PreparedStatement ps, int i) throws SQLException {
+                        Match match = chunk.get(i);
+                        ps.setLong(1, match.getHomeTeamId());
+                        ps.setLong(2, match.getAwayTeamId());
+                        ps.setObject(3, match.getMatchDate());
+                        ps.setInt(4, match.getHomeScore());
+                        ps.setInt(5, match.getAwayScore());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                }, kh);
+            List<Map<String, Object>> keys = kh.getKeyList();
+            if (keys.size() != chunk.size()) {
+                throw new IllegalStateException("Expected " + chunk.size()
+                        + " generated keys for Match batch, got " + keys.size());
+            }
+            for (Map<String, Object> key : keys) {
+                ids.add(((Number) key.values().iterator().next()).longValue());
+            }
+        }
+        return ids;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -89,6 +279,30 @@ public class MatchRepositoryImpl implements MatchRepository {
         );
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A driver that cannot report per-statement counts ({@link Statement#SUCCESS_NO_INFO})
+     * is taken as having updated the row.
+     */
+    @Override
+    public boolean[] updateScores(List<Match> matches) {
+        String sql = "UPDATE matches SET home_score = ?, away_score = ? WHERE id = ?";
+        int[][] counts = jdbc.batchUpdate(sql, matches, batchSize, (ps, match) -> {
+            ps.setInt(1, match.getHomeScore());
+            ps.setInt(2, match.getAwayScore());
+            ps.setLong(3, match.getId());
+        });
+        boolean[] updated = new boolean[matches.size()];
+        int i = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                updated[i++] = count != 0;
+            }
+        }
+        return updated;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -97,4 +311,25 @@ public class MatchRepositoryImpl implements MatchRepository {
         String sql = "DELETE FROM matches WHERE id = ?";
         return jdbc.update(sql, id);
     }
+
+    /**
+     * Builds the optional match_date conditions of a query and collects their arguments.
+     *
+     * @param from Inclusive lower bound, or null.
+     * @param to   Exclusive upper bound, or null.
+     * @param args The list the bind arguments are appended to.
+     * @return The SQL fragment, starting with " AND" if not empty.
+     */
+    private static String dateWindow(LocalDateTime from, LocalDateTime to, List<Object> args) {
+        StringBuilder sb = new StringBuilder();
+        if (from != null) {
+            sb.append(" AND match_date >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sb.append(" AND match_date < ?");
+            args.add(to);
+        }
+        return sb.toString();
+    }
 }
\ No newline at end of file
@@ -2,9 +2,16 @@ package com.example.library.repository.impl;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -19,6 +26,7 @@ import com.example.library.repository.rowmapper.PlayerRowMapper;
  * Handles database operations for Player entities using JdbcTemplate.
  */
 @Repository
+@Profile("!inmemory")
 public class PlayerRepositoryImpl implements PlayerRepository {
 
     private final JdbcTemplate jdbc;
@@ -41,6 +49,22 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         return jdbc.query(sql, new PlayerRowMapper());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses a seek predicate on the primary key instead of OFFSET, so every page
+     * costs the same regardless of its position.
+     */
+    @Override
+    public List<Player> findPage(Long afterId, int limit) {
+        if (afterId == null) {
+            String sql = "SELECT id, name, team_id FROM players ORDER BY id LIMIT ?";
+            return jdbc.query(sql, new PlayerRowMapper(), limit);
+        }
+        String sql = "SELECT id, name, team_id FROM players WHERE id > ? ORDER BY id LIMIT ?";
+        return jdbc.query(sql, new PlayerRowMapper(), afterId, limit);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -50,6 +74,70 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         return jdbc.queryForObject(sql, new PlayerRowMapper(), id);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> findByIds(Collection<Long> ids) {
+        String sql = "SELECT id, name, team_id FROM players WHERE id IN (%s)";
+        return InClause.query(jdbc, sql, ids, new PlayerRowMapper());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        String sql = "SELECT id FROM players WHERE id IN (%s)";
+        return new HashSet<>(InClause.query(jdbc, sql, ids, (rs, rowNum) -> rs.getLong(1)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> findByTeamIds(Collection<Long> teamIds) {
+        String sql = "SELECT id, name, team_id FROM players WHERE team_id IN (%s) ORDER BY id";
+        List<Player> players = InClause.query(jdbc, sql, teamIds, new PlayerRowMapper());
+        players.sort(Comparator.comparing(Player::getId));
+        return players;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> findByTeamId(Long teamId) {
+        String sql = "SELECT id, name, team_id FROM players WHERE team_id = ? ORDER BY id";
+        return jdbc.query(sql, new PlayerRowMapper(), teamId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> findRosterForUpdate(Collection<Long> playerIds, Long teamId) {
+        TreeMap<Long, Player> players = new TreeMap<>();
+        if (teamId != null) {
+            String sql = "SELECT id, name, team_id FROM players WHERE team_id = ? ORDER BY id FOR UPDATE";
+            jdbc.query(sql, new PlayerRowMapper(), teamId).forEach(p -> players.put(p.getId(), p));
+        }
+        if (!playerIds.isEmpty()) {
+            String sql = "SELECT id, name, team_id FROM players WHERE id IN (%s) ORDER BY id FOR UPDATE";
+            InClause.query(jdbc, sql, playerIds, new PlayerRowMapper()).forEach(p -> players.put(p.getId(), p));
+        }
+        return new ArrayList<>(players.values());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int assignTeam(Collection<Long> playerIds, Long teamId) {
+        String sql = "UPDATE players SET team_id = ? WHERE id IN (%s)";
+        return InClause.update(jdbc, sql, playerIds, teamId);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -2,9 +2,13 @@ package com.example.library.repository.impl;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -19,6 +23,7 @@ import com.example.library.repository.rowmapper.TeamRowMapper;
  * Handles database operations for Team entities using JdbcTemplate.
  */
 @Repository
+@Profile("!inmemory")
 public class TeamRepositoryImpl implements TeamRepository {
 
     private final JdbcTemplate jdbc;
@@ -41,6 +46,22 @@ public class TeamRepositoryImpl implements TeamRepository {
         return jdbc.query(sql, new TeamRowMapper());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses a seek predicate on the primary key instead of OFFSET, so every page
+     * costs the same regardless of its position.
+     */
+    @Override
+    public List<Team> findPage(Long afterId, int limit) {
+        if (afterId == null) {
+            String sql = "SELECT id, name, coach_id, league_id FROM teams ORDER BY id LIMIT ?";
+            return jdbc.query(sql, new TeamRowMapper(), limit);
+        }
+        String sql = "SELECT id, name, coach_id, league_id FROM teams WHERE id > ? ORDER BY id LIMIT ?";
+        return jdbc.query(sql, new TeamRowMapper(), afterId, limit);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -50,6 +71,24 @@ public class TeamRepositoryImpl implements TeamRepository {
         return jdbc.queryForObject(sql, new TeamRowMapper(), id);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Team> findByIds(Collection<Long> ids) {
+        String sql = "SELECT id, name, coach_id, league_id FROM teams WHERE id IN (%s)";
+        return InClause.query(jdbc, sql, ids, new TeamRowMapper());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        String sql = "SELECT id FROM teams WHERE id IN (%s)";
+        return new HashSet<>(InClause.query(jdbc, sql, ids, (rs, rowNum) -> rs.getLong(1)));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,132 @@
+package com.example.library.repository.memory;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.example.library.model.Coach;
+import com.example.library.repository.CoachRepository;
+
+/**
+ * In-memory implementation of the CoachRepository interface for the {@code inmemory} profile.
+ * Follows the JDBC implementation: a missing coach fails {@link #findById(Long)} with
+ * EmptyResultDataAccessException, and deleting a coach that still has teams fails with
+ * DataIntegrityViolationException.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryCoachRepository implements CoachRepository {
+
+    private final InMemoryDatabase db;
+
+    /**
+     * Constructs an InMemoryCoachRepository.
+     *
+     * @param db The in-memory tables.
+     */
+    public InMemoryCoachRepository(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Coach> findAll() {
+        return db.coaches.all();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Coach> findPage(Long afterId, int limit) {
+        return db.coaches.page(afterId, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Coach findById(Long id) {
+        return db.coaches.require(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Coach> findByIds(Collection<Long> ids) {
+        return db.coaches.getAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        for (Long id : ids) {
+            if (db.coaches.contains(id)) {
+                existing.add(id);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long create(Coach coach) {
+        return db.write(() -> {
+            long id = db.coaches.nextId();
+            Coach row = copyOf(coach);
+            row.setId(id);
+            db.coaches.put(id, row);
+            db.onRollback(() -> db.coaches.remove(id));
+            return id;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int update(Coach coach) {
+        return db.write(() -> {
+            if (!db.coaches.contains(coach.getId())) {
+                return 0;
+            }
+            Coach previous = db.coaches.put(coach.getId(), coach);
+            db.onRollback(() -> db.coaches.put(previous.getId(), previous));
+            return 1;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int delete(Long id) {
+        return db.write(() -> {
+            if (!db.coaches.contains(id)) {
+                return 0;
+            }
+            InMemoryDatabase.requireNoChildren(db.teamsByCoach, id, "teams.coach_id");
+            Coach previous = db.coaches.remove(id);
+            db.onRollback(() -> db.coaches.put(id, previous));
+            return 1;
+        });
+    }
+
+    private static Coach copyOf(Coach coach) {
+        Coach copy = new Coach();
+        copy.setName(coach.getName());
+        return copy;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.library.repository.memory;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.example.library.model.Coach;
+import com.example.library.model.League;
+import com.example.library.model.Match;
+import com.example.library.model.Player;
+import com.example.library.model.Team;
+
+/**
+ * The tables and secondary indexes behind the in-memory repositories of the {@code inmemory} profile.
+ * Mirrors {@code schema.sql}: one {@link InMemoryTable} per table, an index per foreign key
+ * (teams by coach and by league, players by team, matches by team) and the match date index,
+ * the last two ordered by (match_date, id) like their SQL counterparts.
+ * <p>
+ * Reads go straight to the concurrent maps. Writes, including their foreign key checks and
+ * index maintenance, run one at a time under a single lock, so a check and the write it
+ * guards cannot interleave with another write. Every write registers its inverse with the
+ * current transaction (see {@link InMemoryTransactionManager}).
+ */
+@Component
+@Profile("inmemory")
+public class InMemoryDatabase {
+    final InMemoryTable<Coach> coaches = new InMemoryTable<>(InMemoryDatabase::copyOf);
+    final InMemoryTable<League> leagues = new InMemoryTable<>(InMemoryDatabase::copyOf);
+    final InMemoryTable<Team> teams = new InMemoryTable<>(InMemoryDatabase::copyOf);
+    final InMemoryTable<Player> players = new InMemoryTable<>(InMemoryDatabase::copyOf);
+    final InMemoryTable<Match> matches = new InMemoryTable<>(InMemoryDatabase::copyOf);
+
+    final Map<Long, NavigableSet<Long>> teamsByCoach = new ConcurrentHashMap<>();
+    final Map<Long, NavigableSet<Long>> teamsByLeague = new ConcurrentHashMap<>();
+    final Map<Long, NavigableSet<Long>> playersByTeam = new ConcurrentHashMap<>();
+    final Map<Long, NavigableSet<DatedKey>> matchesByTeam = new ConcurrentHashMap<>();
+    final NavigableSet<DatedKey> matchesByDate = new ConcurrentSkipListSet<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Key of the (match_date, id) indexes.
+     */
+    static final class DatedKey implements Comparable<DatedKey> {
+        final LocalDateTime date;
+        final long id;
+
+        DatedKey(LocalDateTime date, long id) {
+            this.date = date;
+            this.id = id;
+        }
+
+        static DatedKey of(Match match) {
+            return new DatedKey(match.getMatchDate(), match.getId());
+        }
+
+        @Override
+        public int compareTo(DatedKey other) {
+            int byDate = date.compareTo(other.date);
+            return byDate != 0 ? byDate : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof DatedKey && compareTo((DatedKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id) * 31 + date.hashCode();
+        }
+    }
+
+    /**
+     * Runs a write under the write lock.
+     *
+     * @param write The write, including its checks.
+     * @param <T>   The result type.
+     * @return The result of the write.
+     */
+    <T> T write(Supplier<T> write) {
+        writeLock.lock();
+        try {
+            return write.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Registers the inverse of a write with the current transaction; it runs under the write lock.
+     *
+     * @param undo Restores the state before the write.
+     */
+    void onRollback(Runnable undo) {
+        InMemoryTransactionManager.onRollback(() -> write(() -> {
+            undo.run();
+            return null;
+        }));
+    }
+
+    /**
+     * Checks a foreign key of a row about to be written.
+     *
+     * @param parent The referenced table.
+     * @param id     The referenced ID; null passes, as for a nullable column.
+     * @param column The referencing column, for the message.
+     * @throws DataIntegrityViolationException if no row with the ID exists.
+     */
+    static void requireParent(InMemoryTable<?> parent, Long id, String column) {
+        if (id != null && !parent.contains(id)) {
+            throw new DataIntegrityViolationException(
+                "Cannot add or update a child row: a foreign key constraint fails (" + column + " = " + id + ")");
+        }
+    }
+
+    /**
+     * Checks that no row references a row about to be deleted.
+     *
+     * @param index  The index of the referencing column.
+     * @param id     The ID of the row to delete.
+     * @param column The referencing column, for the message.
+     * @throws DataIntegrityViolationException if the row is still referenced.
+     */
+    static void requireNoChildren(Map<Long, ? extends NavigableSet<?>> index, Long id, String column) {
+        NavigableSet<?> children = index.get(id);
+        if (children != null && !children.isEmpty()) {
+            throw new DataIntegrityViolationException(
+                "Cannot delete or update a parent row: a foreign key constraint fails (" + column + " = " + id + ")");
+        }
+    }
+
+    static <K> void index(Map<Long, NavigableSet<K>> index, Long key, K value) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(value);
+        }
+    }
+
+    static <K> void unindex(Map<Long, NavigableSet<K>> index, Long key, K value) {
+        if (key != null) {
+            NavigableSet<K> values = index.get(key);
+            if (values != null) {
+                values.remove(value);
+            }
+        }
+    }
+
+    static <K> NavigableSet<K> lookup(Map<Long, NavigableSet<K>> index, Long key) {
+        NavigableSet<K> values = index.get(key);
+        return values == null ? Collections.emptyNavigableSet() : values;
+    }
+
+    private static Coach copyOf(Coach coach) {
+        Coach copy = new Coach();
+        copy.setId(coach.getId());
+        copy.setName(coach.getName());
+        return copy;
+    }
+
+    private static League copyOf(League league) {
+        League copy = new League();
+        copy.setId(league.getId());
+        copy.setName(league.getName());
+        return copy;
+    }
+
+    private static Team copyOf(Team team) {
+        Team copy = new Team();
+        copy.setId(team.getId());
+        copy.setName(team.getName());
+        copy.setCoachId(team.getCoachId());
+        copy.setLeagueId(team.getLeagueId());
+        return copy;
+    }
+
+    private static Player copyOf(Player player) {
+        Player copy = new Player();
+        copy.setId(player.getId());
+        copy.setName(player.getName());
+        copy.setTeamId(player.getTeamId());
+        return copy;
+    }
+
+    private static Match copyOf(Match match) {
+        Match copy = new Match();
+        copy.setId(match.getId());
+        copy.setHomeTeamId(match.getHomeTeamId());
+        copy.setAwayTeamId(match.getAwayTeamId());
+        copy.setMatchDate(match.getMatchDate());
+        copy.setHomeScore(match.getHomeScore());
+        copy.setAwayScore(match.getAwayScore());
+        return copy;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.library.repository.memory;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.example.library.model.League;
+import com.example.library.repository.LeagueRepository;
+
+/**
+ * In-memory implementation of the LeagueRepository interface for the {@code inmemory} profile.
+ * Follows the JDBC implementation: a missing league fails {@link #findById(Long)} with
+ * EmptyResultDataAccessException, and deleting a league that still has teams fails with
+ * DataIntegrityViolationException.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryLeagueRepository implements LeagueRepository {
+
+    private final InMemoryDatabase db;
+
+    /**
+     * Constructs an InMemoryLeagueRepository.
+     *
+     * @param db The in-memory tables.
+     */
+    public InMemoryLeagueRepository(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<League> findAll() {
+        return db.leagues.all();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<League> findPage(Long afterId, int limit) {
+        return db.leagues.page(afterId, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public League findById(Long id) {
+        return db.leagues.require(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<League> findByIds(Collection<Long> ids) {
+        return db.leagues.getAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        for (Long id : ids) {
+            if (db.leagues.contains(id)) {
+                existing.add(id);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long create(League league) {
+        return db.write(() -> {
+            long id = db.leagues.nextId();
+            League row = copyOf(league);
+            row.setId(id);
+            db.leagues.put(id, row);
+            db.onRollback(() -> db.leagues.remove(id));
+            return id;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int update(League league) {
+        return db.write(() -> {
+            if (!db.leagues.contains(league.getId())) {
+                return 0;
+            }
+            League previous = db.leagues.put(league.getId(), league);
+            db.onRollback(() -> db.leagues.put(previous.getId(), previous));
+            return 1;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int delete(Long id) {
+        return db.write(() -> {
+            if (!db.leagues.contains(id)) {
+                return 0;
+            }
+            InMemoryDatabase.requireNoChildren(db.teamsByLeague, id, "teams.league_id");
+            League previous = db.leagues.remove(id);
+            db.onRollback(() -> db.leagues.put(id, previous));
+            return 1;
+        });
+    }
+
+    private static League copyOf(League league) {
+        League copy = new League();
+        copy.setName(league.getName());
+        return copy;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.library.repository.memory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.example.library.model.Match;
+import com.example.library.repository.MatchRepository;
+import com.example.library.repository.memory.InMemoryDatabase.DatedKey;
+
+/**
+ * In-memory implementation of the MatchRepository interface for the {@code inmemory} profile.
+ * Follows the JDBC implementation: a missing match fails {@link #findById(Long)} with
+ * EmptyResultDataAccessException, and writing a match with a missing team fails with
+ * DataIntegrityViolationException. Date windows and pages are ranges of the
+ * (match_date, id) index; the matches of a team are a range of its own index.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryMatchRepository implements MatchRepository {
+
+    /**
+     * Smallest key of a match date, for inclusive lower bounds.
+     */
+    private static final long FIRST_ID = Long.MIN_VALUE;
+
+    private final InMemoryDatabase db;
+
+    /**
+     * Constructs an InMemoryMatchRepository.
+     *
+     * @param db The in-memory tables.
+     */
+    public InMemoryMatchRepository(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Match> findAll() {
+        return db.matches.all();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Walks the table in ID order without copying it into a list first.
+     */
+    @Override
+    public void forEach(Consumer<Match> action) {
+        Long after = null;
+        List<Match> page;
+        do {
+            page = db.matches.page(after, 1000);
+            page.forEach(action);
+            after = page.isEmpty() ? after : page.get(page.size() - 1).getId();
+        } while (!page.isEmpty());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Match> findPage(LocalDateTime from, LocalDateTime to,
+                                LocalDateTime afterDate, Long afterId, int limit) {
+        NavigableSet<DatedKey> keys = window(db.matchesByDate, from, to);
+        if (afterDate != null && afterId != null) {
+            keys = keys.tailSet(new DatedKey(afterDate, afterId), false);
+        }
+        return resolve(keys, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Match findById(Long id) {
+        return db.matches.require(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The row lock is taken before the row is read and released when the transaction completes.
+     */
+    @Override
+    public Match findByIdForUpdate(Long id) {
+        InMemoryTransactionManager.lockUntilCompletion(db.matches.rowLock(id));
+        return db.matches.require(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Match> findByIds(Collection<Long> ids) {
+        return db.matches.getAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Match> findByTeamIds(Collection<Long> teamIds) {
+        Set<Long> ids = new TreeSet<>();
+        for (Long teamId : teamIds) {
+            for (DatedKey key : InMemoryDatabase.lookup(db.matchesByTeam, teamId)) {
+                ids.add(key.id);
+            }
+        }
+        return db.matches.getAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Match> findByTeamId(Long teamId, LocalDateTime from, LocalDateTime to) {
+        return resolve(window(InMemoryDatabase.lookup(db.matchesByTeam, teamId), from, to), Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Match> findByDateRange(LocalDateTime from, LocalDateTime to) {
+        return resolve(window(db.matchesByDate, from, to), Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long create(Match match) {
+        return db.write(() -> insert(match));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All teams are checked before the first match is stored, so the batch is stored completely or not at all.
+     */
+    @Override
+    public List<Long> createAll(List<Match> matches) {
+        return db.write(() -> {
+            matches.forEach(this::checkReferences);
+            List<Long> ids = new ArrayList<>(matches.size());
+            for (Match match : matches) {
+                ids.add(insert(match));
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int update(Match match) {
+        return db.write(() -> {
+            if (!db.matches.contains(match.getId())) {
+                return 0;
+            }
+            checkReferences(match);
+            Match previous = db.matches.get(match.getId());
+            store(match, previous);
+            Match written = db.matches.get(match.getId());
+            db.onRollback(() -> store(previous, written));
+            return 1;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean[] updateScores(List<Match> matches) {
+        return db.write(() -> {
+            boolean[] updated = new boolean[matches.size()];
+            for (int i = 0; i < matches.size(); i++) {
+                Match previous = db.matches.get(matches.get(i).getId());
+                if (previous == null) {
+                    continue;
+                }
+                Match scored = db.matches.get(previous.getId());
+                scored.setHomeScore(matches.get(i).getHomeScore());
+                scored.setAwayScore(matches.get(i).getAwayScore());
+                db.matches.put(scored.getId(), scored);
+                db.onRollback(() -> db.matches.put(previous.getId(), previous));
+                updated[i] = true;
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int delete(Long id) {
+        return db.write(() -> {
+            Match previous = remove(id);
+            if (previous == null) {
+                return 0;
+            }
+            db.onRollback(() -> store(previous, null));
+            return 1;
+        });
+    }
+
+    private Long insert(Match match) {
+        checkReferences(match);
+        long id = db.matches.nextId();
+        Match row = new Match();
+        row.setId(id);
+        row.setHomeTeamId(match.getHomeTeamId());
+        row.setAwayTeamId(match.getAwayTeamId());
+        row.setMatchDate(match.getMatchDate());
+        row.setHomeScore(match.getHomeScore());
+        row.setAwayScore(match.getAwayScore());
+        store(row, null);
+        db.onRollback(() -> remove(id));
+        return id;
+    }
+
+    private void checkReferences(Match match) {
+        InMemoryDatabase.requireParent(db.teams, match.getHomeTeamId(), "matches.home_team_id");
+        InMemoryDatabase.requireParent(db.teams, match.getAwayTeamId(), "matches.away_team_id");
+    }
+
+    /**
+     * Stores a match and moves it in the date and team indexes from its previous version, if any.
+     */
+    private void store(Match match, Match previous) {
+        if (previous != null) {
+            unindex(previous);
+        }
+        db.matches.put(match.getId(), match);
+        DatedKey key = DatedKey.of(match);
+        db.matchesByDate.add(key);
+        InMemoryDatabase.index(db.matchesByTeam, match.getHomeTeamId(), key);
+        InMemoryDatabase.index(db.matchesByTeam, match.getAwayTeamId(), key);
+    }
+
+    private Match remove(long id) {
+        Match removed = db.matches.remove(id);
+        if (removed != null) {
+            unindex(removed);
+        }
+        return removed;
+    }
+
+    private void unindex(Match match) {
+        DatedKey key = DatedKey.of(match);
+        db.matchesByDate.remove(key);
+        InMemoryDatabase.unindex(db.matchesByTeam, match.getHomeTeamId(), key);
+        InMemoryDatabase.unindex(db.matchesByTeam, match.getAwayTeamId(), key);
+    }
+
+    private static NavigableSet<DatedKey> window(NavigableSet<DatedKey> keys, LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            keys = keys.tailSet(new DatedKey(from, FIRST_ID), true);
+        }
+        if (to != null) {
+            keys = keys.headSet(new DatedKey(to, FIRST_ID), false);
+        }
+        return keys;
+    }
+
+    /**
+     * Looks up the matches of index keys in key order; a match deleted since the index was read is skipped.
+     */
+    private List<Match> resolve(NavigableSet<DatedKey> keys, int limit) {
+        List<Match> result = new ArrayList<>();
+        for (DatedKey key : keys) {
+            if (result.size() == limit) {
+                break;
+            }
+            Match match = db.matches.get(key.id);
+            if (match != null) {
+                result.add(match);
+            }
+        }
+        return result;
+    }
+}
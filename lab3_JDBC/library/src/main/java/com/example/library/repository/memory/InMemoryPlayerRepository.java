@@ -0,0 +1,211 @@
+package com.example.library.repository.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.example.library.model.Player;
+import com.example.library.repository.PlayerRepository;
+
+/**
+ * In-memory implementation of the PlayerRepository interface for the {@code inmemory} profile.
+ * Follows the JDBC implementation: a missing player fails {@link #findById(Long)} with
+ * EmptyResultDataAccessException, and writing a player with a missing team fails with
+ * DataIntegrityViolationException. Rosters are answered from the players-by-team index.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryPlayerRepository implements PlayerRepository {
+
+    private final InMemoryDatabase db;
+
+    /**
+     * Constructs an InMemoryPlayerRepository.
+     *
+     * @param db The in-memory tables.
+     */
+    public InMemoryPlayerRepository(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> findAll() {
+        return db.players.all();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> findPage(Long afterId, int limit) {
+        return db.players.page(afterId, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Player findById(Long id) {
+        return db.players.require(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> findByIds(Collection<Long> ids) {
+        return db.players.getAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        for (Long id : ids) {
+            if (db.players.contains(id)) {
+                existing.add(id);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> findByTeamIds(Collection<Long> teamIds) {
+        Set<Long> ids = new TreeSet<>();
+        for (Long teamId : teamIds) {
+            ids.addAll(InMemoryDatabase.lookup(db.playersByTeam, teamId));
+        }
+        return db.players.getAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> findByTeamId(Long teamId) {
+        return db.players.getAll(new ArrayList<>(InMemoryDatabase.lookup(db.playersByTeam, teamId)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The row locks are taken before the rows are read, all at once in a fixed order, and
+     * released when the transaction completes.
+     */
+    @Override
+    public List<Player> findRosterForUpdate(Collection<Long> playerIds, Long teamId) {
+        Set<Long> ids = new TreeSet<>(playerIds);
+        if (teamId != null) {
+            ids.addAll(InMemoryDatabase.lookup(db.playersByTeam, teamId));
+        }
+        db.players.rowLocks(ids).forEach(InMemoryTransactionManager::lockUntilCompletion);
+        return db.players.getAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int assignTeam(Collection<Long> playerIds, Long teamId) {
+        return db.write(() -> {
+            InMemoryDatabase.requireParent(db.teams, teamId, "players.team_id");
+            int updated = 0;
+            for (Long id : new TreeSet<>(playerIds)) {
+                Player previous = db.players.get(id);
+                if (previous == null) {
+                    continue;
+                }
+                Player moved = db.players.get(id);
+                moved.setTeamId(teamId);
+                store(moved, previous);
+                db.onRollback(() -> store(previous, moved));
+                updated++;
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long create(Player player) {
+        return db.write(() -> {
+            InMemoryDatabase.requireParent(db.teams, player.getTeamId(), "players.team_id");
+            long id = db.players.nextId();
+            Player row = new Player();
+            row.setId(id);
+            row.setName(player.getName());
+            row.setTeamId(player.getTeamId());
+            store(row, null);
+            db.onRollback(() -> remove(id));
+            return id;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int update(Player player) {
+        return db.write(() -> {
+            if (!db.players.contains(player.getId())) {
+                return 0;
+            }
+            InMemoryDatabase.requireParent(db.teams, player.getTeamId(), "players.team_id");
+            Player previous = db.players.get(player.getId());
+            store(player, previous);
+            Player written = db.players.get(player.getId());
+            db.onRollback(() -> store(previous, written));
+            return 1;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int delete(Long id) {
+        return db.write(() -> {
+            Player previous = remove(id);
+            if (previous == null) {
+                return 0;
+            }
+            db.onRollback(() -> store(previous, null));
+            return 1;
+        });
+    }
+
+    /**
+     * Stores a player and moves it in the team index from its previous version, if any.
+     */
+    private void store(Player player, Player previous) {
+        if (previous != null) {
+            InMemoryDatabase.unindex(db.playersByTeam, previous.getTeamId(), previous.getId());
+        }
+        db.players.put(player.getId(), player);
+        InMemoryDatabase.index(db.playersByTeam, player.getTeamId(), player.getId());
+    }
+
+    private Player remove(long id) {
+        Player removed = db.players.remove(id);
+        if (removed != null) {
+            InMemoryDatabase.unindex(db.playersByTeam, removed.getTeamId(), id);
+        }
+        return removed;
+    }
+}
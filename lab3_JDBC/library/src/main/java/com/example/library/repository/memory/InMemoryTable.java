@@ -0,0 +1,156 @@
+package com.example.library.repository.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+
+/**
+ * The rows of one in-memory table, ordered by primary key, with an atomic ID sequence.
+ * Rows are stored and handed out as copies, so callers never share state with the table.
+ * Reads take no locks; writes are serialized by {@link InMemoryDatabase}. Row locks, as taken
+ * by {@code SELECT ... FOR UPDATE}, are striped over a fixed set of locks.
+ *
+ * @param <T> The entity type.
+ */
+final class InMemoryTable<T> {
+    private final ConcurrentSkipListMap<Long, T> rows = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Lock[] rowLocks = new Lock[64];
+    private final UnaryOperator<T> copy;
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param copy Creates a detached copy of a row.
+     */
+    InMemoryTable(UnaryOperator<T> copy) {
+        this.copy = copy;
+        for (int i = 0; i < rowLocks.length; i++) {
+            rowLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock of a row; rows may share a lock.
+     */
+    Lock rowLock(long id) {
+        return rowLocks[(int) (id & (rowLocks.length - 1))];
+    }
+
+    /**
+     * Returns the locks of the given rows, each once, in the order they must be taken in,
+     * so that callers locking several rows cannot deadlock each other.
+     */
+    List<Lock> rowLocks(Collection<Long> ids) {
+        boolean[] taken = new boolean[rowLocks.length];
+        for (Long id : ids) {
+            taken[(int) (id & (rowLocks.length - 1))] = true;
+        }
+        List<Lock> locks = new ArrayList<>();
+        for (int i = 0; i < rowLocks.length; i++) {
+            if (taken[i]) {
+                locks.add(rowLocks[i]);
+            }
+        }
+        return locks;
+    }
+
+    /**
+     * Returns the next value of the ID sequence. As with AUTO_INCREMENT, values are never reused.
+     */
+    long nextId() {
+        return sequence.incrementAndGet();
+    }
+
+    boolean contains(Long id) {
+        return id != null && rows.containsKey(id);
+    }
+
+    /**
+     * Returns a copy of a row, or null if absent.
+     */
+    T get(long id) {
+        T row = rows.get(id);
+        return row == null ? null : copy.apply(row);
+    }
+
+    /**
+     * Returns a copy of a row, failing like {@code queryForObject} if it is absent.
+     *
+     * @throws EmptyResultDataAccessException if there is no row with the ID.
+     */
+    T require(long id) {
+        T row = get(id);
+        if (row == null) {
+            throw new EmptyResultDataAccessException(1);
+        }
+        return row;
+    }
+
+    /**
+     * Returns copies of all rows, ordered by ID.
+     */
+    List<T> all() {
+        return copies(rows.values(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns copies of up to {@code limit} rows with an ID greater than {@code afterId}, ordered by ID.
+     */
+    List<T> page(Long afterId, int limit) {
+        ConcurrentNavigableMap<Long, T> tail = afterId == null ? rows : rows.tailMap(afterId, false);
+        return copies(tail.values(), limit);
+    }
+
+    /**
+     * Returns copies of the rows with the given IDs that exist, ordered by ID; duplicates are returned once.
+     */
+    List<T> getAll(Collection<Long> ids) {
+        List<T> found = new ArrayList<>();
+        for (Long id : new TreeSet<>(ids)) {
+            T row = get(id);
+            if (row != null) {
+                found.add(row);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Stores a copy of a row.
+     *
+     * @return The previous row with the ID, or null.
+     */
+    T put(long id, T row) {
+        return rows.put(id, copy.apply(row));
+    }
+
+    /**
+     * Removes a row.
+     *
+     * @return The removed row, or null if absent.
+     */
+    T remove(long id) {
+        return rows.remove(id);
+    }
+
+    private List<T> copies(Collection<T> source, int limit) {
+        List<T> result = new ArrayList<>(Math.min(limit, 64));
+        for (T row : source) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(copy.apply(row));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.library.repository.memory;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import com.example.library.model.Team;
+import com.example.library.repository.TeamRepository;
+
+/**
+ * In-memory implementation of the TeamRepository interface for the {@code inmemory} profile.
+ * Follows the JDBC implementation: a missing team fails {@link #findById(Long)} with
+ * EmptyResultDataAccessException; writing a team with a missing coach or league, and deleting
+ * a team that still has players or matches, fail with DataIntegrityViolationException.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryTeamRepository implements TeamRepository {
+
+    private final InMemoryDatabase db;
+
+    /**
+     * Constructs an InMemoryTeamRepository.
+     *
+     * @param db The in-memory tables.
+     */
+    public InMemoryTeamRepository(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Team> findAll() {
+        return db.teams.all();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Team> findPage(Long afterId, int limit) {
+        return db.teams.page(afterId, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Team findById(Long id) {
+        return db.teams.require(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Team> findByIds(Collection<Long> ids) {
+        return db.teams.getAll(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        for (Long id : ids) {
+            if (db.teams.contains(id)) {
+                existing.add(id);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long create(Team team) {
+        return db.write(() -> {
+            checkReferences(team);
+            long id = db.teams.nextId();
+            Team row = new Team();
+            row.setId(id);
+            row.setName(team.getName());
+            row.setCoachId(team.getCoachId());
+            row.setLeagueId(team.getLeagueId());
+            store(row, null);
+            db.onRollback(() -> remove(id));
+            return id;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int update(Team team) {
+        return db.write(() -> {
+            if (!db.teams.contains(team.getId())) {
+                return 0;
+            }
+            checkReferences(team);
+            Team previous = db.teams.get(team.getId());
+            store(team, previous);
+            Team written = db.teams.get(team.getId());
+            db.onRollback(() -> store(previous, written));
+            return 1;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int delete(Long id) {
+        return db.write(() -> {
+            if (!db.teams.contains(id)) {
+                return 0;
+            }
+            InMemoryDatabase.requireNoChildren(db.playersByTeam, id, "players.team_id");
+            InMemoryDatabase.requireNoChildren(db.matchesByTeam, id, "matches.home_team_id/away_team_id");
+            Team previous = remove(id);
+            db.onRollback(() -> store(previous, null));
+            return 1;
+        });
+    }
+
+    private void checkReferences(Team team) {
+        InMemoryDatabase.requireParent(db.coaches, team.getCoachId(), "teams.coach_id");
+        InMemoryDatabase.requireParent(db.leagues, team.getLeagueId(), "teams.league_id");
+    }
+
+    /**
+     * Stores a team and moves it in the indexes from its previous version, if any.
+     */
+    private void store(Team team, Team previous) {
+        if (previous != null) {
+            InMemoryDatabase.unindex(db.teamsByCoach, previous.getCoachId(), previous.getId());
+            InMemoryDatabase.unindex(db.teamsByLeague, previous.getLeagueId(), previous.getId());
+        }
+        db.teams.put(team.getId(), team);
+        InMemoryDatabase.index(db.teamsByCoach, team.getCoachId(), team.getId());
+        InMemoryDatabase.index(db.teamsByLeague, team.getLeagueId(), team.getId());
+    }
+
+    private Team remove(long id) {
+        Team removed = db.teams.remove(id);
+        if (removed != null) {
+            InMemoryDatabase.unindex(db.teamsByCoach, removed.getCoachId(), id);
+            InMemoryDatabase.unindex(db.teamsByLeague, removed.getLeagueId(), id);
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.library.repository.memory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Lock;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction manager for the {@code inmemory} profile.
+ * The in-memory repositories apply every write immediately and register its inverse
+ * with the current transaction; a rollback runs these inverses in reverse order, a commit
+ * drops them. Transaction synchronization works as with a database, so after-commit
+ * listeners and caches behave the same. There is no isolation: other threads see
+ * writes of a transaction before it commits.
+ */
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    /**
+     * Inverse operations of the writes of one transaction, latest first.
+     */
+    private static final class UndoLog {
+        final Deque<Runnable> actions = new ArrayDeque<>();
+        boolean rollbackOnly;
+    }
+
+    private static final class TransactionObject implements SmartTransactionObject {
+        UndoLog log;
+        boolean newLog;
+
+        @Override
+        public boolean isRollbackOnly() {
+            return log != null && log.rollbackOnly;
+        }
+
+        @Override
+        public void flush() {
+            // writes are applied immediately
+        }
+    }
+
+    /**
+     * Registers the inverse of a write with the current transaction.
+     * Outside a transaction the write is final and nothing is registered.
+     *
+     * @param undo Restores the state before the write.
+     */
+    static void onRollback(Runnable undo) {
+        UndoLog log = (UndoLog) TransactionSynchronizationManager.getResource(UndoLog.class);
+        if (log != null) {
+            log.actions.push(undo);
+        }
+    }
+
+    /**
+     * Takes a row lock and holds it until the current transaction completes.
+     * Outside a transaction the lock is released right away, as with autocommit.
+     *
+     * @param rowLock The lock of the row.
+     */
+    static void lockUntilCompletion(Lock rowLock) {
+        rowLock.lock();
+        if (TransactionSynchronizationManager.getResource(UndoLog.class) == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            rowLock.unlock();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                rowLock.unlock();
+            }
+        });
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        TransactionObject tx = new TransactionObject();
+        tx.log = (UndoLog) TransactionSynchronizationManager.getResource(UndoLog.class);
+        return tx;
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((TransactionObject) transaction).log != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        TransactionObject tx = (TransactionObject) transaction;
+        tx.log = new UndoLog();
+        tx.newLog = true;
+        TransactionSynchronizationManager.bindResource(UndoLog.class, tx.log);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((TransactionObject) transaction).log = null;
+        return TransactionSynchronizationManager.unbindResource(UndoLog.class);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(UndoLog.class, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        ((TransactionObject) status.getTransaction()).log.actions.clear();
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        Deque<Runnable> actions = ((TransactionObject) status.getTransaction()).log.actions;
+        while (!actions.isEmpty()) {
+            actions.pop().run();
+        }
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((TransactionObject) status.getTransaction()).log.rollbackOnly = true;
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionObject tx = (TransactionObject) transaction;
+        if (tx.newLog) {
+            TransactionSynchronizationManager.unbindResource(UndoLog.class);
+        }
+    }
+}
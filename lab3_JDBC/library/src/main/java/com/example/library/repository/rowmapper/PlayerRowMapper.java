@@ -25,7 +25,7 @@ public class PlayerRowMapper implements RowMapper<Player> {
         Player p = new Player();
         p.setId(rs.getLong("id"));
         p.setName(rs.getString("name"));
-        p.setTeamId(rs.getLong("team_id"));
+        p.setTeamId(rs.getObject("team_id", Long.class));
         return p;
     }
 }
\ No newline at end of file
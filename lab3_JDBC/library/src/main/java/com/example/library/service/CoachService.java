@@ -3,11 +3,13 @@ package com.example.library.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 
 import com.example.library.dto.CoachCreateUpdateDTO;
 import com.example.library.dto.CoachDTO;
+import com.example.library.event.CoachChangedEvent;
 import com.example.library.model.Coach;
 import com.example.library.repository.CoachRepository;
 
@@ -18,25 +20,51 @@ import com.example.library.repository.CoachRepository;
 @Service
 public class CoachService {
     private final CoachRepository repo;
+    private final PageLimits pageLimits;
+    private final ApplicationEventPublisher events;
 
     /**
      * Constructs a CoachService with the CoachRepository.
      *
-     * @param repo Repository for coach data access.
+     * @param repo       Repository for coach data access.
+     * @param pageLimits Page size limits for list requests.
+     * @param events     Publisher for coach change events.
      */
-    public CoachService(CoachRepository repo) {
+    public CoachService(CoachRepository repo, PageLimits pageLimits, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.pageLimits = pageLimits;
+        this.events = events;
     }
 
     /**
-     * Retrieves all coaches and converts them to DTOs.
+     * Retrieves one page of coachs ordered by ID and converts them to DTOs.
      *
-     * @return A list of CoachDTOs.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit  The requested page size, or null for the default size.
+     * @return The page of CoachDTOs together with the cursor of the next page.
+     * @throws BadRequestException if the cursor or the limit is invalid.
      */
-    public List<CoachDTO> findAll() {
-        return repo.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public CursorPage<CoachDTO> findPage(String cursor, Integer limit) {
+        PageCursor after = PageCursor.decodeId(cursor);
+        int size = pageLimits.resolve(limit);
+        List<Coach> rows = repo.findPage(after == null ? null : after.getId(), size + 1);
+        return CursorPage.of(rows, size,
+                page -> page.stream().map(this::toDTO).collect(Collectors.toList()),
+                row -> PageCursor.encode(row.getId()));
+    }
+
+    /**
+     * Finds many coaches by ID with one query per chunk of IDs and converts them to DTOs.
+     * IDs that do not exist are reported in the result instead of failing the request.
+     *
+     * @param ids The IDs of the coaches to find.
+     * @return The found CoachDTOs in request order, together with the missing IDs.
+     * @throws BadRequestException if no IDs or too many IDs are requested.
+     */
+    public MultiGet<CoachDTO> findByIds(List<Long> ids) {
+        pageLimits.checkIds(ids);
+        return MultiGet.of(ids, repo.findByIds(ids), Coach::getId,
+                page -> page.stream().map(this::toDTO).collect(Collectors.toList()));
     }
 
     /**
@@ -63,13 +91,14 @@ public class CoachService {
     public CoachDTO create(CoachCreateUpdateDTO dto) {
         Coach c = new Coach();
         c.setName(dto.getName());
-        long id = repo.create(c);
-        return toDTO(repo.findById(id));
+        c.setId(repo.create(c));
+        return toDTO(c);
     }
 
     /**
      * Updates an existing coach with the data from the provided DTO.
-     * Validates the existence of the coach.
+     * A missing coach is detected from the affected-row count; the response is built
+     * from the written data without reading the row back.
      *
      * @param id  The ID of the coach to update.
      * @param dto The DTO containing the updated data.
@@ -77,26 +106,28 @@ public class CoachService {
      * @throws NotFoundException if the coach with the given ID is not found.
      */
     public CoachDTO update(Long id, CoachCreateUpdateDTO dto) {
-        // проверяем, что такой коуч существует
-        findById(id);
         Coach c = new Coach();
         c.setId(id);
         c.setName(dto.getName());
-        repo.update(c);
-        return toDTO(repo.findById(id));
+        if (repo.update(c) == 0) {
+            throw new NotFoundException("Coach not found with id " + id);
+        }
+        events.publishEvent(new CoachChangedEvent(id));
+        return toDTO(c);
     }
 
     /**
      * Deletes a coach by its ID.
-     * Validates the existence of the coach before deletion.
+     * A missing coach is detected from the affected-row count.
      *
      * @param id The ID of the coach to delete.
      * @throws NotFoundException if the coach with the given ID is not found.
      */
     public void delete(Long id) {
-        // если нет такой записи — бросим 404
-        findById(id);
-        repo.delete(id);
+        if (repo.delete(id) == 0) {
+            throw new NotFoundException("Coach not found with id " + id);
+        }
+        events.publishEvent(new CoachChangedEvent(id));
     }
 
     /**
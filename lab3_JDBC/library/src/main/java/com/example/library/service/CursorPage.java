@@ -0,0 +1,62 @@
+package com.example.library.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list.
+ * Carries the items of the page and the opaque cursor that continues after the last item.
+ *
+ * @param <T> The type of the items.
+ */
+public class CursorPage<T> {
+    /**
+     * The items of this page.
+     */
+    private final List<T> items;
+    /**
+     * The cursor of the next page, or null if this is the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * Constructs a page.
+     *
+     * @param items      The items of this page.
+     * @param nextCursor The cursor of the next page, or null if this is the last page.
+     */
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code limit + 1}.
+     * The extra row only signals that another page exists; it is dropped from the result.
+     *
+     * @param rows      The fetched rows, at most {@code limit + 1}.
+     * @param limit     The page size.
+     * @param converter Converts the rows of the page to DTOs.
+     * @param cursorOf  Builds the cursor that continues after a given row.
+     * @param <E>       The row type.
+     * @param <T>       The DTO type.
+     * @return The page.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit,
+                                          Function<List<E>, List<T>> converter,
+                                          Function<E, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(converter.apply(rows), null);
+        }
+        List<E> page = rows.subList(0, limit);
+        return new CursorPage<>(converter.apply(page), cursorOf.apply(page.get(limit - 1)));
+    }
+}
@@ -0,0 +1,480 @@
+package com.example.library.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.library.dto.RatingDTO;
+import com.example.library.event.MatchChangedEvent;
+import com.example.library.event.TeamLeagueChangedEvent;
+import com.example.library.model.Match;
+import com.example.library.repository.LeagueRepository;
+import com.example.library.repository.MatchRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Maintains Elo ratings of all teams in memory, one rating pool per league.
+ * As for the league tables, a match counts only while both teams play in the same league.
+ * On startup all matches are read once, grouped by league, and every league is replayed
+ * in match date order as its own fork/join task. Afterwards every committed match change
+ * is applied incrementally: a result after the latest one of its league is rated in O(1);
+ * a late, edited or deleted result rolls the league back to just before the affected date
+ * and replays only the matches from there on.
+ * <p>
+ * Every change of a league's ratings gives it a new {@link #versionOf(Long) version},
+ * so that results derived from the ratings can be cached until the next change.
+ */
+@Service
+public class EloRatingService {
+    /**
+     * Rating order: rating descending, then team name and ID so that the order is total.
+     */
+    private static final Comparator<RatingDTO> RATING_ORDER =
+        Comparator.comparingDouble(RatingDTO::getRating).reversed()
+            .thenComparing(RatingDTO::getTeamName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(RatingDTO::getTeamId);
+
+    private final MatchRepository matchRepository;
+    private final LeagueRepository leagueRepository;
+    private final TeamDirectory teamDirectory;
+    private final double kFactor;
+    private final double initialRating;
+    private final double homeAdvantage;
+    private final Counter replayed;
+
+    private final Map<Long, LeagueRatings> leagues = new ConcurrentHashMap<>();
+    /**
+     * Match changes take the read lock and then the lock of their league;
+     * rebuilding a whole league takes the write lock.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Source of league versions; a rebuilt league continues from it, so versions are never reused.
+     */
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Constructs an EloRatingService.
+     *
+     * @param matchRepository  Repository used to rebuild the ratings from all matches.
+     * @param leagueRepository Repository used to tell an empty league from a missing one.
+     * @param teamDirectory    Directory resolving the league of each team.
+     * @param kFactor          The maximum rating change of one match.
+     * @param initialRating    The rating of a team without matches.
+     * @param homeAdvantage    Rating points added to the home team when computing the expected result.
+     * @param registry         The registry for the replay metric.
+     */
+    public EloRatingService(MatchRepository matchRepository,
+                            LeagueRepository leagueRepository,
+                            TeamDirectory teamDirectory,
+                            @Value("${library.ratings.k-factor:20}") double kFactor,
+                            @Value("${library.ratings.initial:1500}") double initialRating,
+                            @Value("${library.ratings.home-advantage:0}") double homeAdvantage,
+                            MeterRegistry registry) {
+        this.matchRepository = matchRepository;
+        this.leagueRepository = leagueRepository;
+        this.teamDirectory = teamDirectory;
+        this.kFactor = kFactor;
+        this.initialRating = initialRating;
+        this.homeAdvantage = homeAdvantage;
+        this.replayed = Counter.builder("library.ratings.replayed")
+            .description("Matches re-rated because an earlier result was added, edited or deleted")
+            .register(registry);
+    }
+
+    /**
+     * Builds the ratings of all leagues from all matches in the database, one fork/join task per league.
+     */
+    @PostConstruct
+    void rebuild() {
+        Map<Long, List<Match>> byLeague = new HashMap<>();
+        matchRepository.forEach(match -> {
+            Long league = leagueOf(match);
+            if (league != null) {
+                byLeague.computeIfAbsent(league, id -> new ArrayList<>()).add(match);
+            }
+        });
+        Map<Long, LeagueRatings> built = buildAll(byLeague);
+        lock.writeLock().lock();
+        try {
+            leagues.clear();
+            leagues.putAll(built);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the rating of a team within its league.
+     *
+     * @param teamId The ID of the team.
+     * @return The team's rating and position.
+     * @throws NotFoundException if the team with the given ID is not found.
+     */
+    public RatingDTO findByTeam(Long teamId) {
+        Long leagueId = teamDirectory.leagueOf(teamId);
+        if (leagueId == null) {
+            throw new NotFoundException("Team not found with id " + teamId);
+        }
+        for (RatingDTO row : ranking(leagueId)) {
+            if (row.getTeamId().equals(teamId)) {
+                return row;
+            }
+        }
+        throw new NotFoundException("Team not found with id " + teamId);
+    }
+
+    /**
+     * Returns the teams of a league ordered by rating.
+     * Every team of the league is listed; teams without matches have the initial rating.
+     *
+     * @param leagueId The ID of the league.
+     * @return The ratings, ordered by position.
+     * @throws NotFoundException if the league with the given ID is not found.
+     */
+    public List<RatingDTO> findByLeague(Long leagueId) {
+        List<RatingDTO> ranking = ranking(leagueId);
+        if (ranking.isEmpty()) {
+            requireLeague(leagueId);
+        }
+        return ranking;
+    }
+
+    /**
+     * Returns the current ratings of the given teams of a league, unrounded.
+     *
+     * @param leagueId The ID of the league.
+     * @param teamIds  The teams to rate; teams without league matches get the initial rating.
+     * @return The rating of every given team by team ID.
+     */
+    public Map<Long, Double> ratingsOf(Long leagueId, Collection<Long> teamIds) {
+        LeagueRatings league = leagues.get(leagueId);
+        Map<Long, TeamRating> ratings = league == null ? Map.of() : league.snapshot();
+        Map<Long, Double> result = new HashMap<>();
+        for (Long teamId : teamIds) {
+            TeamRating r = ratings.get(teamId);
+            result.put(teamId, r == null ? initialRating : r.rating);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the expected score of the home team, 1 for a win and 0.5 for a draw,
+     * including the configured home advantage.
+     *
+     * @param homeRating The rating of the home team.
+     * @param awayRating The rating of the away team.
+     * @return The expected score, between 0 and 1.
+     */
+    public double expectedScore(double homeRating, double awayRating) {
+        return 1 / (1 + Math.pow(10, (awayRating - homeRating - homeAdvantage) / 400));
+    }
+
+    /**
+     * Returns the version of a league's ratings, which changes whenever the ratings do.
+     * The version changes only after the match change behind it is committed, so a result
+     * computed from the database and the ratings after reading the version is never newer
+     * than the version it is stored under.
+     *
+     * @param leagueId The ID of the league.
+     * @return The version; 0 if the league has never had a rated match.
+     */
+    public long versionOf(Long leagueId) {
+        LeagueRatings league = leagues.get(leagueId);
+        return league == null ? 0 : league.version;
+    }
+
+    /**
+     * Re-rates the leagues of a committed match change.
+     *
+     * @param event The match change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchChanged(MatchChangedEvent event) {
+        Match previous = event.getPrevious();
+        Match current = event.getCurrent();
+        Long previousLeague = previous == null ? null : leagueOf(previous);
+        Long currentLeague = current == null ? null : leagueOf(current);
+        lock.readLock().lock();
+        try {
+            if (previousLeague != null && previousLeague.equals(currentLeague)) {
+                league(previousLeague).update(previous, current);
+                return;
+            }
+            if (previousLeague != null) {
+                league(previousLeague).update(previous, null);
+            }
+            if (currentLeague != null) {
+                league(currentLeague).update(null, current);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the leagues a team left and joined from their matches in the database.
+     *
+     * @param event The league membership change.
+     */
+    @EventListener
+    public void onTeamLeagueChanged(TeamLeagueChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Long leagueId : new Long[] {event.getPreviousLeagueId(), event.getCurrentLeagueId()}) {
+                if (leagueId == null) {
+                    continue;
+                }
+                List<Match> matches = new ArrayList<>();
+                Set<Long> teams = teamDirectory.teamsOf(leagueId);
+                if (!teams.isEmpty()) {
+                    for (Match match : matchRepository.findByTeamIds(teams)) {
+                        if (leagueId.equals(leagueOf(match))) {
+                            matches.add(match);
+                        }
+                    }
+                }
+                LeagueRatings rebuilt = new LeagueRatings();
+                rebuilt.replayAll(matches);
+                leagues.put(leagueId, rebuilt);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, LeagueRatings> buildAll(Map<Long, List<Match>> byLeague) {
+        List<Long> ids = new ArrayList<>(byLeague.keySet());
+        List<Callable<LeagueRatings>> tasks = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            tasks.add(() -> {
+                LeagueRatings ratings = new LeagueRatings();
+                ratings.replayAll(byLeague.get(id));
+                return ratings;
+            });
+        }
+        List<Future<LeagueRatings>> results = ForkJoinPool.commonPool().invokeAll(tasks);
+        Map<Long, LeagueRatings> built = new HashMap<>();
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                built.put(ids.get(i), results.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding ratings", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rebuilding ratings failed", e.getCause());
+        }
+        return built;
+    }
+
+    private List<RatingDTO> ranking(Long leagueId) {
+        Set<Long> teamIds = teamDirectory.teamsOf(leagueId);
+        List<RatingDTO> rows = new ArrayList<>(teamIds.size());
+        if (teamIds.isEmpty()) {
+            return rows;
+        }
+        Map<Long, TeamRating> ratings = leagues.containsKey(leagueId)
+            ? leagues.get(leagueId).snapshot()
+            : Map.of();
+        for (Long teamId : teamIds) {
+            TeamRating r = ratings.get(teamId);
+            RatingDTO dto = new RatingDTO();
+            dto.setTeamId(teamId);
+            dto.setTeamName(teamDirectory.nameOf(teamId));
+            dto.setLeagueId(leagueId);
+            dto.setRating(Math.round((r == null ? initialRating : r.rating) * 10) / 10.0);
+            dto.setPlayed(r == null ? 0 : r.played);
+            rows.add(dto);
+        }
+        rows.sort(RATING_ORDER);
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setPosition(i + 1);
+        }
+        return rows;
+    }
+
+    private LeagueRatings league(Long leagueId) {
+        return leagues.computeIfAbsent(leagueId, id -> new LeagueRatings());
+    }
+
+    /**
+     * Returns the league both teams of a match play in, or null if they play in different leagues.
+     */
+    private Long leagueOf(Match match) {
+        Long league = teamDirectory.leagueOf(match.getHomeTeamId());
+        if (league != null
+                && !match.getHomeTeamId().equals(match.getAwayTeamId())
+                && Objects.equals(league, teamDirectory.leagueOf(match.getAwayTeamId()))) {
+            return league;
+        }
+        return null;
+    }
+
+    private void requireLeague(Long leagueId) {
+        try {
+            leagueRepository.findById(leagueId);
+        } catch (EmptyResultDataAccessException e) {
+            throw new NotFoundException("League not found with id " + leagueId);
+        }
+    }
+
+    /**
+     * Orders the matches of a league by match date, then ID.
+     */
+    private static final class MatchKey implements Comparable<MatchKey> {
+        final LocalDateTime date;
+        final long id;
+
+        MatchKey(LocalDateTime date, long id) {
+            this.date = date;
+            this.id = id;
+        }
+
+        static MatchKey of(Match match) {
+            return new MatchKey(match.getMatchDate(), match.getId());
+        }
+
+        @Override
+        public int compareTo(MatchKey other) {
+            int byDate = date.compareTo(other.date);
+            return byDate != 0 ? byDate : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * A rated match with the ratings of both teams before it, so that it can be rolled back exactly.
+     */
+    private static final class RatedMatch {
+        final Match match;
+        double homeBefore;
+        double awayBefore;
+
+        RatedMatch(Match match) {
+            this.match = match;
+        }
+    }
+
+    /**
+     * The current rating of one team; guarded by the lock of its league.
+     */
+    private static final class TeamRating {
+        double rating;
+        int played;
+
+        TeamRating(double rating, int played) {
+            this.rating = rating;
+            this.played = played;
+        }
+    }
+
+    /**
+     * The rated matches of one league in date order and the resulting ratings.
+     */
+    private final class LeagueRatings {
+        private final TreeMap<MatchKey, RatedMatch> matches = new TreeMap<>();
+        private final Map<Long, TeamRating> ratings = new HashMap<>();
+        volatile long version = versions.incrementAndGet();
+
+        /**
+         * Rates all matches of the league from scratch.
+         */
+        synchronized void replayAll(List<Match> all) {
+            for (Match match : all) {
+                matches.put(MatchKey.of(match), new RatedMatch(match));
+            }
+            matches.values().forEach(this::rate);
+            version = versions.incrementAndGet();
+        }
+
+        /**
+         * Replaces one match of the league. A match after all others is simply rated;
+         * otherwise the matches from the earlier of the old and new date on are rolled back
+         * in reverse order and rated again.
+         */
+        synchronized void update(Match removed, Match added) {
+            MatchKey removedKey = removed == null ? null : MatchKey.of(removed);
+            MatchKey addedKey = added == null ? null : MatchKey.of(added);
+            if (removedKey == null && (matches.isEmpty() || addedKey.compareTo(matches.lastKey()) > 0)) {
+                RatedMatch rated = new RatedMatch(added);
+                matches.put(addedKey, rated);
+                rate(rated);
+                version = versions.incrementAndGet();
+                return;
+            }
+            MatchKey from = removedKey == null || (addedKey != null && addedKey.compareTo(removedKey) < 0)
+                ? addedKey
+                : removedKey;
+            NavigableMap<MatchKey, RatedMatch> tail = matches.tailMap(from, true);
+            for (RatedMatch rated : tail.descendingMap().values()) {
+                rollBack(rated);
+            }
+            if (removedKey != null) {
+                matches.remove(removedKey);
+            }
+            if (addedKey != null) {
+                matches.put(addedKey, new RatedMatch(added));
+            }
+            tail = matches.tailMap(from, true);
+            tail.values().forEach(this::rate);
+            replayed.increment(tail.size());
+            version = versions.incrementAndGet();
+        }
+
+        synchronized Map<Long, TeamRating> snapshot() {
+            Map<Long, TeamRating> copy = new HashMap<>();
+            ratings.forEach((id, r) -> copy.put(id, new TeamRating(r.rating, r.played)));
+            return copy;
+        }
+
+        private void rate(RatedMatch rated) {
+            Match m = rated.match;
+            TeamRating home = ratings.computeIfAbsent(m.getHomeTeamId(), id -> new TeamRating(initialRating, 0));
+            TeamRating away = ratings.computeIfAbsent(m.getAwayTeamId(), id -> new TeamRating(initialRating, 0));
+            rated.homeBefore = home.rating;
+            rated.awayBefore = away.rating;
+            double expected = expectedScore(home.rating, away.rating);
+            int diff = Integer.compare(m.getHomeScore(), m.getAwayScore());
+            double actual = diff > 0 ? 1 : diff == 0 ? 0.5 : 0;
+            double delta = kFactor * (actual - expected);
+            home.rating += delta;
+            away.rating -= delta;
+            home.played++;
+            away.played++;
+        }
+
+        private void rollBack(RatedMatch rated) {
+            TeamRating home = ratings.get(rated.match.getHomeTeamId());
+            TeamRating away = ratings.get(rated.match.getAwayTeamId());
+            home.rating = rated.homeBefore;
+            away.rating = rated.awayBefore;
+            home.played--;
+            away.played--;
+        }
+    }
+}
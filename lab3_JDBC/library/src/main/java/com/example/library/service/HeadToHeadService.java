@@ -0,0 +1,276 @@
+package com.example.library.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.library.dto.HeadToHeadDTO;
+import com.example.library.dto.MatchDTO;
+import com.example.library.event.MatchChangedEvent;
+import com.example.library.model.Match;
+import com.example.library.repository.MatchRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory index of head-to-head records, keyed by the unordered pair of teams.
+ * The pair is packed into a single {@code long} (lower ID in the high half, higher ID
+ * in the low half), so a lookup is one probe in a primitive-keyed hash table.
+ * The index is built from all matches on startup and kept current from committed match changes.
+ * A pair keeps its counters and its meetings as primitive columns (ID, date, scores), not
+ * as match objects, so the index costs a few dozen bytes per match.
+ */
+@Service
+public class HeadToHeadService {
+    /**
+     * Largest team ID that fits into one half of a pair key.
+     */
+    private static final long MAX_PACKED_ID = 0xFFFFFFFFL;
+
+    private final MatchRepository matchRepository;
+    private final TeamDirectory teamDirectory;
+    private final int defaultLast;
+    private final int maxLast;
+
+    private final LongMap<PairRecord> pairs = new LongMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a HeadToHeadService.
+     *
+     * @param matchRepository Repository used to build the index from all matches.
+     * @param teamDirectory   Directory used to check that both teams exist.
+     * @param defaultLast     Number of recent meetings returned when none is requested.
+     * @param maxLast         Largest number of recent meetings a client may request.
+     */
+    public HeadToHeadService(MatchRepository matchRepository,
+                             TeamDirectory teamDirectory,
+                             @Value("${library.head-to-head.default-last:5}") int defaultLast,
+                             @Value("${library.head-to-head.max-last:50}") int maxLast) {
+        this.matchRepository = matchRepository;
+        this.teamDirectory = teamDirectory;
+        this.defaultLast = defaultLast;
+        this.maxLast = maxLast;
+    }
+
+    /**
+     * Builds the index from all matches in the database.
+     */
+    @PostConstruct
+    void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pairs.clear();
+            matchRepository.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the head-to-head record of two teams, seen from the first one.
+     *
+     * @param teamId     The ID of the team the record is seen from.
+     * @param opponentId The ID of the opponent.
+     * @param last       The number of recent meetings to include, or null for the default.
+     * @return The head-to-head record; all counts are zero if the teams never met.
+     * @throws NotFoundException   if either team is not found.
+     * @throws BadRequestException if both IDs are equal or {@code last} is out of range.
+     */
+    public HeadToHeadDTO find(Long teamId, Long opponentId, Integer last) {
+        requireTeam(teamId);
+        requireTeam(opponentId);
+        if (teamId.equals(opponentId)) {
+            throw new BadRequestException("A team has no head-to-head record with itself");
+        }
+        int count = last == null ? defaultLast : last;
+        if (count < 0 || count > maxLast) {
+            throw new BadRequestException("last must be between 0 and " + maxLast);
+        }
+
+        HeadToHeadDTO dto = new HeadToHeadDTO();
+        dto.setTeamId(teamId);
+        dto.setOpponentId(opponentId);
+        dto.setLastMeetings(new ArrayList<>(count));
+        boolean low = teamId < opponentId;
+        lock.readLock().lock();
+        try {
+            PairRecord r = pairs.get(pairKey(teamId, opponentId));
+            if (r == null) {
+                return dto;
+            }
+            dto.setPlayed(r.size);
+            dto.setWins(low ? r.lowWins : r.highWins);
+            dto.setDraws(r.draws);
+            dto.setLosses(low ? r.highWins : r.lowWins);
+            dto.setGoalsFor(low ? r.lowGoals : r.highGoals);
+            dto.setGoalsAgainst(low ? r.highGoals : r.lowGoals);
+            for (int i = r.size - 1; i >= Math.max(0, r.size - count); i--) {
+                dto.getLastMeetings().add(r.toDTO(i, teamId, opponentId));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return dto;
+    }
+
+    /**
+     * Removes the old state of a committed match change from the index and adds the new one.
+     *
+     * @param event The match change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchChanged(MatchChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getPrevious() != null) {
+                remove(event.getPrevious());
+            }
+            if (event.getCurrent() != null) {
+                add(event.getCurrent());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Match match) {
+        if (!indexable(match)) {
+            return;
+        }
+        PairRecord r = pairs.computeIfAbsent(pairKey(match.getHomeTeamId(), match.getAwayTeamId()),
+                key -> new PairRecord());
+        boolean homeIsLow = match.getHomeTeamId() < match.getAwayTeamId();
+        r.insert(match, homeIsLow);
+        r.count(match, homeIsLow, 1);
+    }
+
+    private void remove(Match match) {
+        if (!indexable(match)) {
+            return;
+        }
+        long key = pairKey(match.getHomeTeamId(), match.getAwayTeamId());
+        PairRecord r = pairs.get(key);
+        if (r == null || !r.delete(match.getId())) {
+            return;
+        }
+        r.count(match, match.getHomeTeamId() < match.getAwayTeamId(), -1);
+        if (r.size == 0) {
+            pairs.remove(key);
+        }
+    }
+
+    private static boolean indexable(Match match) {
+        long home = match.getHomeTeamId();
+        long away = match.getAwayTeamId();
+        return home != away && home > 0 && away > 0 && home <= MAX_PACKED_ID && away <= MAX_PACKED_ID;
+    }
+
+    private static long pairKey(long a, long b) {
+        return a < b ? (a << 32) | b : (b << 32) | a;
+    }
+
+    private void requireTeam(Long teamId) {
+        if (teamDirectory.nameOf(teamId) == null) {
+            throw new NotFoundException("Team not found with id " + teamId);
+        }
+    }
+
+    /**
+     * Aggregated meetings of one pair, seen from the team with the lower ID;
+     * guarded by the service's lock.
+     * The meetings are kept as parallel columns ordered by match date and ID, so that the
+     * usual change, a meeting newer than all others, is an append. Dates are kept to the
+     * second, the precision of the {@code match_date} column.
+     */
+    private static final class PairRecord {
+        int size;
+        long[] ids = new long[4];
+        long[] dates = new long[4];
+        int[] lowScores = new int[4];
+        int[] highScores = new int[4];
+        boolean[] homeIsLow = new boolean[4];
+        int lowWins;
+        int highWins;
+        int draws;
+        int lowGoals;
+        int highGoals;
+
+        void count(Match match, boolean homeIsLow, int sign) {
+            int lowScore = homeIsLow ? match.getHomeScore() : match.getAwayScore();
+            int highScore = homeIsLow ? match.getAwayScore() : match.getHomeScore();
+            lowGoals += sign * lowScore;
+            highGoals += sign * highScore;
+            if (lowScore > highScore) {
+                lowWins += sign;
+            } else if (lowScore < highScore) {
+                highWins += sign;
+            } else {
+                draws += sign;
+            }
+        }
+
+        void insert(Match match, boolean homeLow) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                dates = Arrays.copyOf(dates, capacity);
+                lowScores = Arrays.copyOf(lowScores, capacity);
+                highScores = Arrays.copyOf(highScores, capacity);
+                homeIsLow = Arrays.copyOf(homeIsLow, capacity);
+            }
+            long id = match.getId();
+            long date = match.getMatchDate().toEpochSecond(ZoneOffset.UTC);
+            int pos = size;
+            while (pos > 0 && (dates[pos - 1] > date || dates[pos - 1] == date && ids[pos - 1] > id)) {
+                pos--;
+            }
+            shift(pos, pos + 1, size - pos);
+            ids[pos] = id;
+            dates[pos] = date;
+            lowScores[pos] = homeLow ? match.getHomeScore() : match.getAwayScore();
+            highScores[pos] = homeLow ? match.getAwayScore() : match.getHomeScore();
+            homeIsLow[pos] = homeLow;
+            size++;
+        }
+
+        boolean delete(long id) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (ids[i] == id) {
+                    shift(i + 1, i, size - i - 1);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void shift(int from, int to, int length) {
+            System.arraycopy(ids, from, ids, to, length);
+            System.arraycopy(dates, from, dates, to, length);
+            System.arraycopy(lowScores, from, lowScores, to, length);
+            System.arraycopy(highScores, from, highScores, to, length);
+            System.arraycopy(homeIsLow, from, homeIsLow, to, length);
+        }
+
+        MatchDTO toDTO(int i, long teamA, long teamB) {
+            long low = Math.min(teamA, teamB);
+            long high = Math.max(teamA, teamB);
+            MatchDTO dto = new MatchDTO();
+            dto.setId(ids[i]);
+            dto.setHomeTeamId(homeIsLow[i] ? low : high);
+            dto.setAwayTeamId(homeIsLow[i] ? high : low);
+            dto.setMatchDate(LocalDateTime.ofEpochSecond(dates[i], 0, ZoneOffset.UTC));
+            dto.setHomeScore(homeIsLow[i] ? lowScores[i] : highScores[i]);
+            dto.setAwayScore(homeIsLow[i] ? highScores[i] : lowScores[i]);
+            return dto;
+        }
+    }
+}
@@ -3,11 +3,13 @@ package com.example.library.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 
 import com.example.library.dto.LeagueCreateUpdateDTO;
 import com.example.library.dto.LeagueDTO;
+import com.example.library.event.LeagueChangedEvent;
 import com.example.library.model.League;
 import com.example.library.repository.LeagueRepository;
 
@@ -18,25 +20,51 @@ import com.example.library.repository.LeagueRepository;
 @Service
 public class LeagueService {
     private final LeagueRepository repo;
+    private final PageLimits pageLimits;
+    private final ApplicationEventPublisher events;
 
     /**
      * Constructs a LeagueService with the LeagueRepository.
      *
-     * @param repo Repository for league data access.
+     * @param repo       Repository for league data access.
+     * @param pageLimits Page size limits for list requests.
+     * @param events     Publisher for league change events.
      */
-    public LeagueService(LeagueRepository repo) {
+    public LeagueService(LeagueRepository repo, PageLimits pageLimits, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.pageLimits = pageLimits;
+        this.events = events;
     }
 
     /**
-     * Retrieves all leagues and converts them to DTOs.
+     * Retrieves one page of leagues ordered by ID and converts them to DTOs.
      *
-     * @return A list of LeagueDTOs.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit  The requested page size, or null for the default size.
+     * @return The page of LeagueDTOs together with the cursor of the next page.
+     * @throws BadRequestException if the cursor or the limit is invalid.
      */
-    public List<LeagueDTO> findAll() {
-        return repo.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public CursorPage<LeagueDTO> findPage(String cursor, Integer limit) {
+        PageCursor after = PageCursor.decodeId(cursor);
+        int size = pageLimits.resolve(limit);
+        List<League> rows = repo.findPage(after == null ? null : after.getId(), size + 1);
+        return CursorPage.of(rows, size,
+                page -> page.stream().map(this::toDTO).collect(Collectors.toList()),
+                row -> PageCursor.encode(row.getId()));
+    }
+
+    /**
+     * Finds many leagues by ID with one query per chunk of IDs and converts them to DTOs.
+     * IDs that do not exist are reported in the result instead of failing the request.
+     *
+     * @param ids The IDs of the leagues to find.
+     * @return The found LeagueDTOs in request order, together with the missing IDs.
+     * @throws BadRequestException if no IDs or too many IDs are requested.
+     */
+    public MultiGet<LeagueDTO> findByIds(List<Long> ids) {
+        pageLimits.checkIds(ids);
+        return MultiGet.of(ids, repo.findByIds(ids), League::getId,
+                page -> page.stream().map(this::toDTO).collect(Collectors.toList()));
     }
 
     /**
@@ -63,13 +91,14 @@ public class LeagueService {
     public LeagueDTO create(LeagueCreateUpdateDTO dto) {
         League l = new League();
         l.setName(dto.getName());
-        long id = repo.create(l);
-        return toDTO(repo.findById(id));
+        l.setId(repo.create(l));
+        return toDTO(l);
     }
 
     /**
      * Updates an existing league with the data from the provided DTO.
-     * Validates the existence of the league.
+     * A missing league is detected from the affected-row count; the response is built
+     * from the written data without reading the row back.
      *
      * @param id  The ID of the league to update.
      * @param dto The DTO containing the updated data.
@@ -77,26 +106,28 @@ public class LeagueService {
      * @throws NotFoundException if the league with the given ID is not found.
      */
     public LeagueDTO update(Long id, LeagueCreateUpdateDTO dto) {
-        // проверяем, что лига есть
-        findById(id);
         League l = new League();
         l.setId(id);
         l.setName(dto.getName());
-        repo.update(l);
-        return toDTO(repo.findById(id));
+        if (repo.update(l) == 0) {
+            throw new NotFoundException("League not found with id " + id);
+        }
+        events.publishEvent(new LeagueChangedEvent(id));
+        return toDTO(l);
     }
 
     /**
      * Deletes a league by its ID.
-     * Validates the existence of the league before deletion.
+     * A missing league is detected from the affected-row count.
      *
      * @param id The ID of the league to delete.
      * @throws NotFoundException if the league with the given ID is not found.
      */
     public void delete(Long id) {
-        // проверяем, что лига есть
-        findById(id);
-        repo.delete(id);
+        if (repo.delete(id) == 0) {
+            throw new NotFoundException("League not found with id " + id);
+        }
+        events.publishEvent(new LeagueChangedEvent(id));
     }
 
     /**
@@ -0,0 +1,551 @@
+package com.example.library.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.library.dto.MatchDTO;
+import com.example.library.event.LiveScoreRecordedEvent;
+import com.example.library.event.MatchChangedEvent;
+import com.example.library.model.Match;
+import com.example.library.repository.MatchRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Write-behind buffer for live score updates.
+ * Every match has at most one pending score; a newer update replaces it (latest wins) under
+ * a per-match lock, which also orders its journal append. A scheduled flusher writes all
+ * pending scores with one JDBC batch every {@code library.live-scores.flush-interval} ms
+ * and publishes a {@link MatchChangedEvent} per match, so the read models and caches
+ * follow on every flush. Match and team reads overlay the pending score, so they see it at once;
+ * a {@link LiveScoreRecordedEvent} per accepted score lets caches of such reads drop them.
+ * <p>
+ * Durability: every accepted update is appended to a journal file, forced to disk by default,
+ * before it becomes visible or is acknowledged; an update that cannot be journaled is not
+ * accepted. Forcing is a group commit: appends only write to the file, and the first update
+ * waiting for the disk forces everything appended so far, for itself and for all updates
+ * that arrived meanwhile, so concurrent updates share one force instead of queuing behind
+ * one each. After each flush the journal is rewritten with the scores that
+ * are still pending. On startup the journal is replayed and flushed, and on shutdown,
+ * after the web server has stopped, everything pending is flushed.
+ * <p>
+ * Publishes {@code library.live-scores.pending} (queue depth), {@code library.live-scores.flush}
+ * (flush latency) and {@code library.live-scores.coalesced} (updates replaced before a flush).
+ * <p>
+ * A direct write or delete of a match holds its pending score back from flushes until the
+ * transaction completes, and drops it once it commits (see {@link #discardOnCommit}). Every
+ * such drop advances the match's generation: an update that read the committed match before
+ * the drop reads it again, so no pending score is based on a state the write replaced.
+ */
+@Component
+public class LiveScoreBuffer implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(LiveScoreBuffer.class);
+
+    /**
+     * A pending score and the committed state of the match it will be written over.
+     */
+    private static final class Pending {
+        final Match committed;
+        final int homeScore;
+        final int awayScore;
+
+        Pending(Match committed, int homeScore, int awayScore) {
+            this.committed = committed;
+            this.homeScore = homeScore;
+            this.awayScore = awayScore;
+        }
+
+        Match toMatch() {
+            Match match = new Match();
+            match.setId(committed.getId());
+            match.setHomeTeamId(committed.getHomeTeamId());
+            match.setAwayTeamId(committed.getAwayTeamId());
+            match.setMatchDate(committed.getMatchDate());
+            match.setHomeScore(homeScore);
+            match.setAwayScore(awayScore);
+            return match;
+        }
+    }
+
+    private final MatchRepository matchRepository;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactions;
+    private final Path journalPath;
+    private final boolean journalSync;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> held = new ConcurrentHashMap<>();
+    /**
+     * Orders the changes of the pending score of a match, including its journal append;
+     * matches may share a lock. Locks rather than monitors, for the same reason as the journal lock.
+     */
+    private final ReentrantLock[] matchLocks = new ReentrantLock[64];
+    /**
+     * Advanced, under the match lock, whenever a direct write or a flush changes the committed state of a match.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(matchLocks.length);
+    private final ReentrantLock flushLock = new ReentrantLock();
+    /**
+     * Guards the journal channel. A lock rather than a monitor: appends block on disk writes,
+     * which must not pin the carrier of a virtual request thread.
+     */
+    private final ReentrantLock journalLock = new ReentrantLock();
+    /**
+     * Held while the journal is forced to disk, so that one caller forces for all waiting ones.
+     * Taken before the journal lock, never after it.
+     */
+    private final ReentrantLock syncLock = new ReentrantLock();
+    /**
+     * Number of journal appends so far; guarded by the journal lock.
+     */
+    private long appended;
+    /**
+     * Number of journal appends known to be on disk.
+     */
+    private final AtomicLong synced = new AtomicLong();
+    private final Timer flushTimer;
+    private final Counter coalesced;
+
+    private FileChannel journal;
+    private volatile boolean running;
+
+    /**
+     * Constructs the buffer and registers its metrics.
+     *
+     * @param matchRepository Repository for match data access.
+     * @param events          Publisher for match change events.
+     * @param transactions    Template running each flush in one transaction.
+     * @param journalPath     Path of the journal file; blank disables the journal.
+     * @param journalSync     Whether every journal append is forced to disk, by group commit, before it is acknowledged.
+     * @param registry        The registry for the metrics.
+     */
+    public LiveScoreBuffer(MatchRepository matchRepository,
+                           ApplicationEventPublisher events,
+                           TransactionTemplate transactions,
+                           @Value("${library.live-scores.journal:}") String journalPath,
+                           @Value("${library.live-scores.journal-sync:true}") boolean journalSync,
+                           MeterRegistry registry) {
+        this.matchRepository = matchRepository;
+        this.events = events;
+        this.transactions = transactions;
+        this.journalPath = journalPath.isBlank() ? null : Paths.get(journalPath);
+        this.journalSync = journalSync;
+        for (int i = 0; i < matchLocks.length; i++) {
+            matchLocks[i] = new ReentrantLock();
+        }
+        Gauge.builder("library.live-scores.pending", pending, Map::size)
+            .description("Matches with a live score not yet written to the database")
+            .register(registry);
+        this.flushTimer = Timer.builder("library.live-scores.flush")
+            .description("Time to write all pending live scores")
+            .register(registry);
+        this.coalesced = Counter.builder("library.live-scores.coalesced")
+            .description("Live score updates replaced by a newer one before being written")
+            .register(registry);
+    }
+
+    /**
+     * Accepts a live score. The match is read only if it has no pending score yet.
+     * The score is journaled before it becomes visible; if that fails, nothing changes.
+     * Once it is visible, it is published as a {@link LiveScoreRecordedEvent}.
+     *
+     * @param matchId   The ID of the match.
+     * @param homeScore The current score of the home team.
+     * @param awayScore The current score of the away team.
+     * @return The match with the accepted score.
+     * @throws NotFoundException if the match is not found.
+     * @throws UncheckedIOException if the score cannot be journaled.
+     */
+    public Match record(Long matchId, int homeScore, int awayScore) {
+        int stripe = stripe(matchId);
+        long generation = generations.get(stripe);
+        Match committed = pending.containsKey(matchId) ? null : loadCommitted(matchId);
+        Match accepted;
+        ReentrantLock lock = matchLocks[stripe];
+        lock.lock();
+        try {
+            Pending current = pending.get(matchId);
+            if (current != null) {
+                committed = current.committed;
+            } else if (committed == null || generations.get(stripe) != generation) {
+                // a direct write committed since the match was read, or a flush wrote the score pending then
+                committed = loadCommitted(matchId);
+            }
+            Pending next = new Pending(committed, homeScore, awayScore);
+            awaitDurable(append("S " + matchId + " " + homeScore + " " + awayScore + "\n"));
+            pending.put(matchId, next);
+            if (current != null) {
+                coalesced.increment();
+            }
+            accepted = next.toMatch();
+        } finally {
+            lock.unlock();
+        }
+        events.publishEvent(new LiveScoreRecordedEvent(accepted));
+        return accepted;
+    }
+
+    /**
+     * Replaces the scores of a MatchDTO with the pending live score, if there is one.
+     *
+     * @param dto The MatchDTO to update in place.
+     * @return The same MatchDTO.
+     */
+    public MatchDTO overlay(MatchDTO dto) {
+        Pending p = pending.get(dto.getId());
+        if (p != null) {
+            dto.setHomeScore(p.homeScore);
+            dto.setAwayScore(p.awayScore);
+        }
+        return dto;
+    }
+
+    /**
+     * Holds the pending score of a match back from flushes while the current transaction
+     * writes or deletes the match directly, and drops it once the transaction commits.
+     * If the transaction rolls back, the score stays pending.
+     * Waits for a running flush, so that it cannot overwrite the direct write afterwards.
+     *
+     * @param matchId The ID of the match.
+     */
+    public void discardOnCommit(Long matchId) {
+        flushLock.lock();
+        try {
+            held.merge(matchId, 1, Integer::sum);
+        } finally {
+            flushLock.unlock();
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(matchId, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(matchId, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void release(Long matchId, boolean discard) {
+        if (discard) {
+            ReentrantLock lock = matchLocks[stripe(matchId)];
+            lock.lock();
+            try {
+                generations.incrementAndGet(stripe(matchId));
+                if (pending.remove(matchId) != null) {
+                    awaitDurable(append("D " + matchId + "\n"));
+                }
+            } finally {
+                held.computeIfPresent(matchId, (id, count) -> count == 1 ? null : count - 1);
+                lock.unlock();
+            }
+        } else {
+            held.computeIfPresent(matchId, (id, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    /**
+     * Writes all pending scores with one JDBC batch in one transaction.
+     * Scores that were replaced while the batch ran stay pending for the next flush, as do
+     * scores of matches being written directly. A failed flush keeps every score pending and is retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${library.live-scores.flush-interval:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Long> ids = new ArrayList<>(pending.size());
+            List<Pending> batch = new ArrayList<>(pending.size());
+            pending.forEach((id, p) -> {
+                if (!held.containsKey(id)) {
+                    ids.add(id);
+                    batch.add(p);
+                }
+            });
+            if (ids.isEmpty()) {
+                return;
+            }
+            flushTimer.record(() -> write(ids, batch));
+            compactJournal();
+        } catch (RuntimeException e) {
+            log.warn("Flushing {} live scores failed, will retry", pending.size(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<Long> ids, List<Pending> batch) {
+        List<Match> written = new ArrayList<>(batch.size());
+        batch.forEach(p -> written.add(p.toMatch()));
+        boolean[] updated = transactions.execute(status -> {
+            boolean[] rows = matchRepository.updateScores(written);
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i]) {
+                    events.publishEvent(new MatchChangedEvent(batch.get(i).committed, written.get(i)));
+                }
+            }
+            return rows;
+        });
+        for (int i = 0; i < batch.size(); i++) {
+            Pending flushed = batch.get(i);
+            Match match = written.get(i);
+            boolean exists = updated[i];
+            ReentrantLock lock = matchLocks[stripe(ids.get(i))];
+            lock.lock();
+            try {
+                // a score recorded during the flush stays pending, now on top of the written state
+                pending.computeIfPresent(ids.get(i), (id, current) -> current == flushed || !exists
+                        ? null
+                        : new Pending(match, current.homeScore, current.awayScore));
+                generations.incrementAndGet(stripe(ids.get(i)));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int stripe(Long matchId) {
+        return (int) (matchId & (matchLocks.length - 1));
+    }
+
+    private Match loadCommitted(Long matchId) {
+        try {
+            return matchRepository.findById(matchId);
+        } catch (EmptyResultDataAccessException e) {
+            throw new NotFoundException("Match not found with id " + matchId);
+        }
+    }
+
+    /**
+     * Opens the journal and replays the scores left pending by the previous run.
+     */
+    @Override
+    public void start() {
+        if (journalPath != null) {
+            replayJournal();
+            flush();
+        }
+        running = true;
+    }
+
+    /**
+     * Flushes everything pending and closes the journal.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+        try {
+            compactJournal();
+        } catch (UncheckedIOException e) {
+            log.warn("Cannot compact live score journal {}", journalPath, e);
+        }
+        journalLock.lock();
+        try {
+            closeJournal();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so no update arrives after the final flush.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void replayJournal() {
+        Map<Long, int[]> scores = new LinkedHashMap<>();
+        try {
+            if (Files.exists(journalPath)) {
+                for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+                    String[] parts = line.trim().split(" ");
+                    if (parts.length == 4 && parts[0].equals("S")) {
+                        scores.put(Long.valueOf(parts[1]),
+                                new int[] {Integer.parseInt(parts[2]), Integer.parseInt(parts[3])});
+                    } else if (parts.length == 2 && parts[0].equals("D")) {
+                        scores.remove(Long.valueOf(parts[1]));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read live score journal " + journalPath, e);
+        }
+        if (!scores.isEmpty()) {
+            for (Match match : matchRepository.findByIds(scores.keySet())) {
+                int[] score = scores.get(match.getId());
+                pending.put(match.getId(), new Pending(match, score[0], score[1]));
+            }
+            log.info("Replayed {} live scores from {}", pending.size(), journalPath);
+        }
+        journalLock.lock();
+        try {
+            openJournal();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Writes a line to the journal without forcing it to disk.
+     *
+     * @return The sequence number of the append, to be passed to {@link #awaitDurable}; 0 without a journal.
+     */
+    private long append(String line) {
+        if (journalPath == null) {
+            return 0;
+        }
+        journalLock.lock();
+        try {
+            if (journal == null) {
+                openJournal();
+            }
+            journal.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+            return ++appended;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write live score journal " + journalPath, e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Returns once the given append is on disk, if appends are to be forced (group commit).
+     * Callers queue for the sync lock while a force runs; the next one forces every line
+     * appended by then, and the callers it covered return without forcing again.
+     *
+     * @param sequence The sequence number returned by {@link #append}.
+     */
+    private void awaitDurable(long sequence) {
+        if (!journalSync || sequence == 0 || synced.get() >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced.get() >= sequence) {
+                return;
+            }
+            long upTo;
+            FileChannel channel;
+            journalLock.lock();
+            try {
+                upTo = appended;
+                channel = journal;
+            } finally {
+                journalLock.unlock();
+            }
+            // appends go on while the disk is busy; the channel cannot be replaced meanwhile,
+            // since compaction takes the sync lock as well
+            if (channel != null) {
+                channel.force(false);
+            }
+            synced.accumulateAndGet(upTo, Math::max);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write live score journal " + journalPath, e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites the journal with the scores that are still pending.
+     * Runs under the journal lock, so an update recorded meanwhile is either part of the
+     * snapshot or appended to the new journal afterwards. The new journal is on disk as a
+     * whole, so updates still waiting for a force are durable once it is in place.
+     */
+    private void compactJournal() {
+        if (journalPath == null) {
+            return;
+        }
+        syncLock.lock();
+        journalLock.lock();
+        try {
+            StringBuilder content = new StringBuilder();
+            pending.forEach((id, p) -> content.append("S ").append(id).append(' ')
+                    .append(p.homeScore).append(' ').append(p.awayScore).append('\n'));
+            Path tmp = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+                out.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write live score journal " + tmp, e);
+            }
+            closeJournal();
+            try {
+                Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot replace live score journal " + journalPath, e);
+            }
+            openJournal();
+            synced.accumulateAndGet(appended, Math::max);
+        } finally {
+            journalLock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    private void openJournal() {
+        try {
+            Path parent = journalPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open live score journal " + journalPath, e);
+        }
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Cannot close live score journal {}", journalPath, e);
+            }
+            journal = null;
+        }
+    }
+}
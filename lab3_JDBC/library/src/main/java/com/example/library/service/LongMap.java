@@ -0,0 +1,126 @@
+package com.example.library.service;
+
+import java.util.function.LongFunction;
+
+/**
+ * Hash map with primitive {@code long} keys, using open addressing with linear probing.
+ * Lookups neither box the key nor allocate entry objects. Not thread-safe; callers guard it.
+ *
+ * @param <V> The value type.
+ */
+final class LongMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * Constructs an empty map.
+     */
+    LongMap() {
+        keys = new long[MIN_CAPACITY];
+        values = new Object[MIN_CAPACITY];
+    }
+
+    /**
+     * Returns the value stored for a key.
+     *
+     * @param key The key.
+     * @return The value, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value stored for a key, creating and storing it first if the key is absent.
+     *
+     * @param key     The key.
+     * @param factory Creates the value for an absent key; must not return null.
+     * @return The existing or created value.
+     */
+    V computeIfAbsent(long key, LongFunction<V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key);
+            if (2 * (size + 1) > keys.length) {
+                resize(keys.length * 2);
+            }
+            insert(key, value);
+            size++;
+        }
+        return value;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key The key to remove.
+     */
+    void remove(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == null) {
+            return;
+        }
+        // backward-shift deletion keeps probe chains intact without tombstones
+        int gap = i;
+        for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        values[gap] = null;
+        size--;
+    }
+
+    /**
+     * Removes all keys.
+     */
+    void clear() {
+        keys = new long[MIN_CAPACITY];
+        values = new Object[MIN_CAPACITY];
+        size = 0;
+    }
+
+    private void insert(long key, Object value) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.library.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.library.dto.MatchStatsDTO;
+import com.example.library.dto.ScorelineDTO;
+import com.example.library.event.MatchChangedEvent;
+import com.example.library.event.TeamLeagueChangedEvent;
+import com.example.library.model.Match;
+import com.example.library.repository.LeagueRepository;
+import com.example.library.repository.MatchRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Columnar in-memory copy of the {@code matches} table for aggregate queries.
+ * Every column is a primitive array indexed by row: ID, match date as epoch day,
+ * home and away team, both scores as shorts and the league both teams play in
+ * (0 if they play in different leagues, as for the league tables). A row takes
+ * 40 bytes and no objects, and a query is one or two passes over the arrays it needs.
+ * <p>
+ * Rows are kept in ID order, so new matches are appended and a match is found by
+ * binary search; a deleted row is closed by shifting the rows after it.
+ * The store is built from all matches on startup and kept current from committed
+ * match changes and league moves of teams.
+ * Publishes {@code library.match-columns.rows}.
+ */
+@Service
+public class MatchColumnStore {
+    private static final int MIN_CAPACITY = 1024;
+    /**
+     * League column value of a match between teams of different leagues.
+     */
+    private static final long NO_LEAGUE = 0;
+    /**
+     * League filter value that accepts every row, including those without a league.
+     */
+    private static final long ANY_LEAGUE = -1;
+
+    // bucket layout of the aggregating queries
+    private static final int MATCHES = 0;
+    private static final int GOALS = 1;
+    private static final int HOME_WINS = 2;
+    private static final int DRAWS = 3;
+    private static final int AWAY_WINS = 4;
+    private static final int BUCKET = 5;
+
+    private static final Comparator<ScorelineDTO> SCORELINE_ORDER =
+        Comparator.comparingInt(ScorelineDTO::getMatches).reversed()
+            .thenComparingInt(ScorelineDTO::getHomeScore)
+            .thenComparingInt(ScorelineDTO::getAwayScore);
+
+    private final MatchRepository matchRepository;
+    private final LeagueRepository leagueRepository;
+    private final TeamDirectory teamDirectory;
+
+    private long[] ids = new long[MIN_CAPACITY];
+    private int[] days = new int[MIN_CAPACITY];
+    private long[] homeTeams = new long[MIN_CAPACITY];
+    private long[] awayTeams = new long[MIN_CAPACITY];
+    private short[] homeScores = new short[MIN_CAPACITY];
+    private short[] awayScores = new short[MIN_CAPACITY];
+    private long[] leagues = new long[MIN_CAPACITY];
+    private int size;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a MatchColumnStore.
+     *
+     * @param matchRepository  Repository used to build the store from all matches.
+     * @param leagueRepository Repository used to tell an empty league from a missing one.
+     * @param teamDirectory    Directory resolving the league of each team.
+     * @param registry         The registry for the row count metric.
+     */
+    public MatchColumnStore(MatchRepository matchRepository,
+                            LeagueRepository leagueRepository,
+                            TeamDirectory teamDirectory,
+                            MeterRegistry registry) {
+        this.matchRepository = matchRepository;
+        this.leagueRepository = leagueRepository;
+        this.teamDirectory = teamDirectory;
+        Gauge.builder("library.match-columns.rows", this, MatchColumnStore::rows)
+            .description("Matches held by the columnar analytics store")
+            .register(registry);
+    }
+
+    /**
+     * Builds the store from all matches in the database.
+     */
+    @PostConstruct
+    void rebuild() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            matchRepository.forEach(this::upsert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aggregates the matches of a date window.
+     *
+     * @param leagueId Only matches between teams of this league count, or null for all matches.
+     * @param from     Inclusive lower bound of the match date, or null for no lower bound.
+     * @param to       Exclusive upper bound of the match date, or null for no upper bound.
+     * @return The number of matches, goals and results.
+     * @throws NotFoundException if the league with the given ID is not found.
+     */
+    public MatchStatsDTO summary(Long leagueId, LocalDate from, LocalDate to) {
+        long league = leagueFilter(leagueId);
+        int fromDay = fromDay(from);
+        int toDay = toDay(to);
+        long[] bucket = new long[BUCKET];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (days[i] >= fromDay && days[i] < toDay && (league == ANY_LEAGUE || leagues[i] == league)) {
+                    count(bucket, 0, i);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        MatchStatsDTO dto = toDTO(bucket, 0);
+        dto.setLeagueId(leagueId);
+        return dto;
+    }
+
+    /**
+     * Aggregates the matches of a date window per matchday.
+     *
+     * @param leagueId Only matches between teams of this league count, or null for all matches.
+     * @param from     Inclusive lower bound of the match date, or null for no lower bound.
+     * @param to       Exclusive upper bound of the match date, or null for no upper bound.
+     * @return One row per day with at least one match, in date order.
+     * @throws NotFoundException if the league with the given ID is not found.
+     */
+    public List<MatchStatsDTO> byMatchday(Long leagueId, LocalDate from, LocalDate to) {
+        long league = leagueFilter(leagueId);
+        int fromDay = fromDay(from);
+        int toDay = toDay(to);
+        LongMap<long[]> buckets = new LongMap<>();
+        List<Long> seen = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (days[i] >= fromDay && days[i] < toDay && (league == ANY_LEAGUE || leagues[i] == league)) {
+                    long[] bucket = buckets.get(days[i]);
+                    if (bucket == null) {
+                        bucket = buckets.computeIfAbsent(days[i], day -> new long[BUCKET]);
+                        seen.add((long) days[i]);
+                    }
+                    count(bucket, 0, i);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        seen.sort(Comparator.naturalOrder());
+        List<MatchStatsDTO> result = new ArrayList<>(seen.size());
+        for (Long day : seen) {
+            MatchStatsDTO dto = toDTO(buckets.get(day), 0);
+            dto.setLeagueId(leagueId);
+            dto.setDate(LocalDate.ofEpochDay(day));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * Aggregates the matches of a date window per league, counting only matches between
+     * teams of the same league.
+     *
+     * @param from Inclusive lower bound of the match date, or null for no lower bound.
+     * @param to   Exclusive upper bound of the match date, or null for no upper bound.
+     * @return One row per league with at least one match, ordered by league ID.
+     */
+    public List<MatchStatsDTO> byLeague(LocalDate from, LocalDate to) {
+        int fromDay = fromDay(from);
+        int toDay = toDay(to);
+        LongMap<long[]> buckets = new LongMap<>();
+        List<Long> seen = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (days[i] >= fromDay && days[i] < toDay && leagues[i] != NO_LEAGUE) {
+                    long[] bucket = buckets.get(leagues[i]);
+                    if (bucket == null) {
+                        bucket = buckets.computeIfAbsent(leagues[i], id -> new long[BUCKET]);
+                        seen.add(leagues[i]);
+                    }
+                    count(bucket, 0, i);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        seen.sort(Comparator.naturalOrder());
+        List<MatchStatsDTO> result = new ArrayList<>(seen.size());
+        for (Long id : seen) {
+            MatchStatsDTO dto = toDTO(buckets.get(id), 0);
+            dto.setLeagueId(id);
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the final scores of the matches of a date window.
+     *
+     * @param leagueId Only matches between teams of this league count, or null for all matches.
+     * @param from     Inclusive lower bound of the match date, or null for no lower bound.
+     * @param to       Exclusive upper bound of the match date, or null for no upper bound.
+     * @return One row per score that occurred, most frequent first.
+     * @throws NotFoundException if the league with the given ID is not found.
+     */
+    public List<ScorelineDTO> scorelines(Long leagueId, LocalDate from, LocalDate to) {
+        long league = leagueFilter(leagueId);
+        int fromDay = fromDay(from);
+        int toDay = toDay(to);
+        LongMap<int[]> counts = new LongMap<>();
+        List<Long> seen = new ArrayList<>();
+        int total = 0;
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (days[i] >= fromDay && days[i] < toDay && (league == ANY_LEAGUE || leagues[i] == league)) {
+                    long score = (long) homeScores[i] << 16 | awayScores[i];
+                    int[] count = counts.get(score);
+                    if (count == null) {
+                        count = counts.computeIfAbsent(score, key -> new int[1]);
+                        seen.add(score);
+                    }
+                    count[0]++;
+                    total++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<ScorelineDTO> result = new ArrayList<>(seen.size());
+        for (Long score : seen) {
+            int matches = counts.get(score)[0];
+            ScorelineDTO dto = new ScorelineDTO();
+            dto.setHomeScore((int) (score >>> 16));
+            dto.setAwayScore((int) (score & 0xFFFF));
+            dto.setMatches(matches);
+            dto.setPercentage(Math.round(matches * 1000.0 / total) / 10.0);
+            result.add(dto);
+        }
+        result.sort(SCORELINE_ORDER);
+        return result;
+    }
+
+    /**
+     * Applies a committed match change.
+     *
+     * @param event The match change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchChanged(MatchChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getCurrent() != null) {
+                upsert(event.getCurrent());
+            } else {
+                remove(event.getPrevious().getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recomputes the league column of the matches of a team that changed its league.
+     *
+     * @param event The league membership change.
+     */
+    @EventListener
+    public void onTeamLeagueChanged(TeamLeagueChangedEvent event) {
+        long teamId = event.getTeamId();
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (homeTeams[i] == teamId || awayTeams[i] == teamId) {
+                    leagues[i] = leagueOf(homeTeams[i], awayTeams[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int rows() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void count(long[] buckets, int offset, int row) {
+        int home = homeScores[row];
+        int away = awayScores[row];
+        buckets[offset + MATCHES]++;
+        buckets[offset + GOALS] += home + away;
+        buckets[offset + (home > away ? HOME_WINS : home == away ? DRAWS : AWAY_WINS)]++;
+    }
+
+    private static MatchStatsDTO toDTO(long[] buckets, int offset) {
+        MatchStatsDTO dto = new MatchStatsDTO();
+        int matches = (int) buckets[offset + MATCHES];
+        dto.setMatches(matches);
+        dto.setGoals(buckets[offset + GOALS]);
+        dto.setHomeWins((int) buckets[offset + HOME_WINS]);
+        dto.setDraws((int) buckets[offset + DRAWS]);
+        dto.setAwayWins((int) buckets[offset + AWAY_WINS]);
+        dto.setHomeWinPercentage(matches == 0 ? 0
+                : Math.round(buckets[offset + HOME_WINS] * 1000.0 / matches) / 10.0);
+        return dto;
+    }
+
+    /**
+     * Inserts a match or overwrites the row with its ID. Callers hold the write lock.
+     */
+    private void upsert(Match match) {
+        int row = Arrays.binarySearch(ids, 0, size, match.getId());
+        if (row < 0) {
+            row = -row - 1;
+            if (size == ids.length) {
+                grow();
+            }
+            if (row < size) {
+                shift(row, row + 1, size - row);
+            }
+            size++;
+        }
+        ids[row] = match.getId();
+        days[row] = (int) match.getMatchDate().toLocalDate().toEpochDay();
+        homeTeams[row] = match.getHomeTeamId();
+        awayTeams[row] = match.getAwayTeamId();
+        homeScores[row] = toShort(match.getHomeScore());
+        awayScores[row] = toShort(match.getAwayScore());
+        leagues[row] = leagueOf(match.getHomeTeamId(), match.getAwayTeamId());
+    }
+
+    /**
+     * Removes the row of a match, if present. Callers hold the write lock.
+     */
+    private void remove(long id) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row >= 0) {
+            shift(row + 1, row, size - row - 1);
+            size--;
+        }
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(days, from, days, to, length);
+        System.arraycopy(homeTeams, from, homeTeams, to, length);
+        System.arraycopy(awayTeams, from, awayTeams, to, length);
+        System.arraycopy(homeScores, from, homeScores, to, length);
+        System.arraycopy(awayScores, from, awayScores, to, length);
+        System.arraycopy(leagues, from, leagues, to, length);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        days = Arrays.copyOf(days, capacity);
+        homeTeams = Arrays.copyOf(homeTeams, capacity);
+        awayTeams = Arrays.copyOf(awayTeams, capacity);
+        homeScores = Arrays.copyOf(homeScores, capacity);
+        awayScores = Arrays.copyOf(awayScores, capacity);
+        leagues = Arrays.copyOf(leagues, capacity);
+    }
+
+    /**
+     * Narrows a score to a short. The API rejects larger scores; rows written to the
+     * database directly are saturated rather than wrapped around.
+     */
+    private static short toShort(int score) {
+        return (short) Math.max(0, Math.min(Short.MAX_VALUE, score));
+    }
+
+    private long leagueOf(long homeTeamId, long awayTeamId) {
+        Long league = teamDirectory.leagueOf(homeTeamId);
+        if (league != null && homeTeamId != awayTeamId
+                && Objects.equals(league, teamDirectory.leagueOf(awayTeamId))) {
+            return league;
+        }
+        return NO_LEAGUE;
+    }
+
+    private long leagueFilter(Long leagueId) {
+        if (leagueId == null) {
+            return ANY_LEAGUE;
+        }
+        if (teamDirectory.teamsOf(leagueId).isEmpty()) {
+            try {
+                leagueRepository.findById(leagueId);
+            } catch (EmptyResultDataAccessException e) {
+                throw new NotFoundException("League not found with id " + leagueId);
+            }
+        }
+        return leagueId;
+    }
+
+    private static int fromDay(LocalDate from) {
+        return from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+    }
+
+    private static int toDay(LocalDate to) {
+        return to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+    }
+}
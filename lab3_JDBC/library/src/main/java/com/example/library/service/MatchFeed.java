@@ -0,0 +1,200 @@
+package com.example.library.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.library.dto.MatchDTO;
+import com.example.library.dto.MatchFeedEventDTO;
+import com.example.library.event.MatchChangedEvent;
+import com.example.library.model.Match;
+
+/**
+ * Bounded ring buffer of the most recent committed match changes.
+ * Every change gets the next sequence number; readers keep their own position and
+ * read forward from it, so a writer only stores one entry and notifies the listeners,
+ * and never waits for a reader. A reader that falls behind by more than the capacity
+ * of the ring is told so and must resynchronize.
+ * <p>
+ * Sequence numbers start at the boot time in microseconds, so they keep increasing
+ * across restarts and a position from before a restart is recognized as lost.
+ */
+@Component
+public class MatchFeed {
+    /**
+     * One change in the feed, with the teams and leagues it concerns for filtering.
+     */
+    public static final class Entry {
+        private final MatchFeedEventDTO event;
+        private final Long homeTeamId;
+        private final Long awayTeamId;
+        private final Long homeLeagueId;
+        private final Long awayLeagueId;
+
+        private Entry(MatchFeedEventDTO event, Long homeLeagueId, Long awayLeagueId) {
+            this.event = event;
+            this.homeTeamId = event.getMatch().getHomeTeamId();
+            this.awayTeamId = event.getMatch().getAwayTeamId();
+            this.homeLeagueId = homeLeagueId;
+            this.awayLeagueId = awayLeagueId;
+        }
+
+        public long getSequence() {
+            return event.getSequence();
+        }
+
+        public MatchFeedEventDTO getEvent() {
+            return event;
+        }
+
+        /**
+         * Tells whether the change concerns the given league and team.
+         *
+         * @param leagueId The league a team of the match must play in, or null for any.
+         * @param teamId   The team that must play in the match, or null for any.
+         * @return True if the change passes both filters.
+         */
+        public boolean matches(Long leagueId, Long teamId) {
+            return (leagueId == null || leagueId.equals(homeLeagueId) || leagueId.equals(awayLeagueId))
+                && (teamId == null || teamId.equals(homeTeamId) || teamId.equals(awayTeamId));
+        }
+    }
+
+    /**
+     * The result of reading the feed from a position.
+     */
+    public static final class Slice {
+        private final List<Entry> entries;
+        private final boolean gap;
+        private final long head;
+
+        private Slice(List<Entry> entries, boolean gap, long head) {
+            this.entries = entries;
+            this.gap = gap;
+            this.head = head;
+        }
+
+        /**
+         * Returns the entries after the position, in sequence order; empty if there is a gap.
+         *
+         * @return The entries.
+         */
+        public List<Entry> getEntries() {
+            return entries;
+        }
+
+        /**
+         * Tells whether entries after the position are no longer, or never were, in the ring.
+         *
+         * @return True if the reader must resynchronize.
+         */
+        public boolean isGap() {
+            return gap;
+        }
+
+        /**
+         * Returns the sequence number of the latest change when the slice was read.
+         *
+         * @return The head of the feed.
+         */
+        public long getHead() {
+            return head;
+        }
+    }
+
+    private final TeamDirectory teamDirectory;
+    private final Entry[] ring;
+    private final long start;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private long head;
+
+    /**
+     * Constructs an empty feed.
+     *
+     * @param teamDirectory The directory resolving the leagues of the teams of a match.
+     * @param capacity      The number of recent changes kept in the ring.
+     */
+    public MatchFeed(TeamDirectory teamDirectory,
+                     @Value("${library.match-feed.buffer-size:1024}") int capacity) {
+        this.teamDirectory = teamDirectory;
+        this.ring = new Entry[capacity];
+        this.start = System.currentTimeMillis() * 1000;
+        this.head = start;
+    }
+
+    /**
+     * Registers a listener notified after every appended change.
+     * Listeners run on the writing thread and must only schedule work.
+     *
+     * @param listener The listener.
+     */
+    public void onAppend(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Appends a committed match change to the feed.
+     *
+     * @param event The match change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchChanged(MatchChangedEvent event) {
+        Match match = event.getCurrent() != null ? event.getCurrent() : event.getPrevious();
+        MatchFeedEventDTO dto = new MatchFeedEventDTO();
+        dto.setType(event.getPrevious() == null ? "created" : event.getCurrent() == null ? "deleted" : "updated");
+        dto.setMatch(toDTO(match));
+        Long homeLeague = teamDirectory.leagueOf(match.getHomeTeamId());
+        Long awayLeague = teamDirectory.leagueOf(match.getAwayTeamId());
+        synchronized (this) {
+            head++;
+            dto.setSequence(head);
+            ring[(int) (head % ring.length)] = new Entry(dto, homeLeague, awayLeague);
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Returns the sequence number of the latest change.
+     *
+     * @return The head of the feed.
+     */
+    public synchronized long head() {
+        return head;
+    }
+
+    /**
+     * Reads the changes after the given position.
+     *
+     * @param after The sequence number of the last change the reader has seen.
+     * @param max   The maximum number of entries to return.
+     * @return The next entries, or a gap if the position is older than the ring or unknown.
+     */
+    public synchronized Slice readAfter(long after, int max) {
+        long oldest = Math.max(start + 1, head - ring.length + 1);
+        if (after < oldest - 1 || after > head) {
+            return new Slice(Collections.emptyList(), true, head);
+        }
+        int count = (int) Math.min(max, head - after);
+        List<Entry> entries = new ArrayList<>(count);
+        for (long seq = after + 1; seq <= after + count; seq++) {
+            entries.add(ring[(int) (seq % ring.length)]);
+        }
+        return new Slice(entries, false, head);
+    }
+
+    private static MatchDTO toDTO(Match match) {
+        MatchDTO dto = new MatchDTO();
+        dto.setId(match.getId());
+        dto.setHomeTeamId(match.getHomeTeamId());
+        dto.setAwayTeamId(match.getAwayTeamId());
+        dto.setMatchDate(match.getMatchDate());
+        dto.setHomeScore(match.getHomeScore());
+        dto.setAwayScore(match.getAwayScore());
+        return dto;
+    }
+}
@@ -1,85 +1,214 @@
 package com.example.library.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.library.dto.MatchCreateUpdateDTO;
 import com.example.library.dto.MatchDTO;
+import com.example.library.dto.ScoreUpdateDTO;
+import com.example.library.event.MatchChangedEvent;
 import com.example.library.model.Match;
 import com.example.library.repository.MatchRepository;
 import com.example.library.repository.TeamRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Service layer for managing Match entities.
  * Handles business logic related to matches, including CRUD operations and data transformation.
+ * Every change is published as a {@link MatchChangedEvent} for the in-memory read models.
+ * Concurrent reads of the same match share one query (see {@link SingleFlight}).
  */
 @Service
 @Transactional
 public class MatchService {
     private final MatchRepository matchRepository;
     private final TeamRepository teamRepository;
+    private final ReferenceValidator referenceValidator;
+    private final LiveScoreBuffer liveScores;
+    private final PageLimits pageLimits;
+    private final ApplicationEventPublisher events;
+    private final SingleFlight<Long, MatchDTO> reads;
 
     /**
      * Constructs a MatchService with necessary repositories.
      *
-     * @param matchRepository Repository for match data access.
-     * @param teamRepository  Repository for team data access (to validate team existence).
+     * @param matchRepository    Repository for match data access.
+     * @param teamRepository     Repository for team data access (to validate team existence).
+     * @param referenceValidator Validator for the teams a match references.
+     * @param liveScores         Write-behind buffer for live score updates.
+     * @param pageLimits         Page size limits for list requests.
+     * @param events             Publisher for match change events.
+     * @param registry           The registry for the read coalescing metrics.
      */
     public MatchService(MatchRepository matchRepository,
-                        TeamRepository teamRepository) {
+                        TeamRepository teamRepository,
+                        ReferenceValidator referenceValidator,
+                        LiveScoreBuffer liveScores,
+                        PageLimits pageLimits,
+                        ApplicationEventPublisher events,
+                        MeterRegistry registry) {
         this.matchRepository = matchRepository;
         this.teamRepository = teamRepository;
+        this.referenceValidator = referenceValidator;
+        this.liveScores = liveScores;
+        this.pageLimits = pageLimits;
+        this.events = events;
+        this.reads = new SingleFlight<>("matches", registry);
     }
 
     /**
-     * Retrieves all matches and converts them to DTOs.
+     * Retrieves one page of matches ordered by match date and ID, optionally within a date window,
+     * and converts them to DTOs.
      *
-     * @return A list of MatchDTOs.
+     * @param from   Inclusive lower bound of the match date, or null for no lower bound.
+     * @param to     Exclusive upper bound of the match date, or null for no upper bound.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit  The requested page size, or null for the default size.
+     * @return The page of MatchDTOs together with the cursor of the next page.
+     * @throws BadRequestException if the cursor or the limit is invalid.
      */
-    public List<MatchDTO> findAll() {
-        return matchRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<MatchDTO> findPage(LocalDateTime from, LocalDateTime to, String cursor, Integer limit) {
+        PageCursor after = PageCursor.decodeDateId(cursor);
+        int size = pageLimits.resolve(limit);
+        List<Match> rows = matchRepository.findPage(from, to,
+                after == null ? null : after.getDate(),
+                after == null ? null : after.getId(),
+                size + 1);
+        return CursorPage.of(rows, size,
+                page -> page.stream().map(this::toDTO).collect(Collectors.toList()),
+                row -> PageCursor.encode(row.getMatchDate(), row.getId()));
+    }
+
+    /**
+     * Finds many matches by ID with one query per chunk of IDs and converts them to DTOs.
+     * IDs that do not exist are reported in the result instead of failing the request.
+     *
+     * @param ids The IDs of the matches to find.
+     * @return The found MatchDTOs in request order, together with the missing IDs.
+     * @throws BadRequestException if no IDs or too many IDs are requested.
+     */
+    @Transactional(readOnly = true)
+    public MultiGet<MatchDTO> findByIds(List<Long> ids) {
+        pageLimits.checkIds(ids);
+        return MultiGet.of(ids, matchRepository.findByIds(ids), Match::getId,
+                page -> page.stream().map(this::toDTO).collect(Collectors.toList()));
+    }
+
+    /**
+     * Streams all matches, ordered by ID, as DTOs to the given sink.
+     * Each match is converted and handed over while the database cursor is read;
+     * no list of matches is built.
+     *
+     * @param sink The consumer receiving every MatchDTO.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<MatchDTO> sink) {
+        matchRepository.forEach(match -> sink.accept(toDTO(match)));
     }
 
     /**
      * Finds a match by its ID and converts it to a DTO.
+     * Concurrent calls for the same match share one query and one DTO.
      *
      * @param id The ID of the match to find.
      * @return The MatchDTO corresponding to the found match.
      * @throws NotFoundException if the match with the given ID is not found.
      */
+    @Transactional(readOnly = true)
     public MatchDTO findById(Long id) {
-        return toDTO(findMatchOrThrow(id));
+        return reads.load(id, () -> toDTO(findMatchOrThrow(id)));
+    }
+
+    /**
+     * Retrieves the matches of a team, home or away, optionally limited to a date window.
+     *
+     * @param teamId The ID of the team.
+     * @param from   Inclusive lower bound of the match date, or null for no lower bound.
+     * @param to     Exclusive upper bound of the match date, or null for no upper bound.
+     * @return A list of MatchDTOs, ordered by match date.
+     * @throws NotFoundException if the team with the given ID is not found.
+     */
+    @Transactional(readOnly = true)
+    public List<MatchDTO> findByTeam(Long teamId, LocalDateTime from, LocalDateTime to) {
+        requireTeam(teamId);
+        return matchRepository.findByTeamId(teamId, from, to).stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
     }
 
     /**
      * Creates a new match based on the provided DTO.
-     * Validates the existence of the home and away teams.
+     * The home and away teams are enforced by foreign keys; only if one is violated are
+     * the teams checked, to report which is missing. The response is built from the input
+     * and the generated key without reading the row back.
      *
      * @param dto The DTO containing data for the new match.
      * @return The DTO of the newly created match.
      * @throws NotFoundException if the home or away team is not found.
      */
     public MatchDTO create(MatchCreateUpdateDTO dto) {
-        teamRepository.findById(dto.getHomeTeamId());
-        teamRepository.findById(dto.getAwayTeamId());
-        Match match = new Match();
-        match.setHomeTeamId(dto.getHomeTeamId());
-        match.setAwayTeamId(dto.getAwayTeamId());
-        match.setMatchDate(dto.getMatchDate());
-        match.setHomeScore(dto.getHomeScore());
-        match.setAwayScore(dto.getAwayScore());
-        Long id = matchRepository.create(match);
-        return findById(id);
+        Match match = toEntity(dto);
+        try {
+            match.setId(matchRepository.create(match));
+        } catch (DataIntegrityViolationException e) {
+            throw referenceValidator.check().team(dto.getHomeTeamId()).team(dto.getAwayTeamId()).explain(e);
+        }
+        events.publishEvent(new MatchChangedEvent(null, match));
+        return toDTO(match);
+    }
+
+    /**
+     * Creates many matches at once.
+     * All referenced teams are checked with one query before anything is inserted; the matches
+     * are then inserted with JDBC batches, and the response is built from the input and the
+     * generated keys without reading the rows back. A team deleted meanwhile is caught by the
+     * foreign keys, and the transaction rolls back every chunk inserted so far.
+     *
+     * @param dtos The DTOs containing data for the new matches.
+     * @return The DTOs of the created matches, in input order.
+     * @throws NotFoundException if any referenced team is not found; nothing is inserted then.
+     */
+    public List<MatchDTO> createAll(List<MatchCreateUpdateDTO> dtos) {
+        List<Match> matches = new ArrayList<>(dtos.size());
+        ReferenceValidator.Check references = referenceValidator.check();
+        for (MatchCreateUpdateDTO dto : dtos) {
+            matches.add(toEntity(dto));
+            references.team(dto.getHomeTeamId()).team(dto.getAwayTeamId());
+        }
+        references.validate();
+        List<Long> ids;
+        try {
+            ids = matchRepository.createAll(matches);
+        } catch (DataIntegrityViolationException e) {
+            throw references.explain(e);
+        }
+        List<MatchDTO> created = new ArrayList<>(matches.size());
+        for (int i = 0; i < matches.size(); i++) {
+            matches.get(i).setId(ids.get(i));
+            events.publishEvent(new MatchChangedEvent(null, matches.get(i)));
+            created.add(toDTO(matches.get(i)));
+        }
+        return created;
     }
 
     /**
      * Updates an existing match with the data from the provided DTO.
-     * Validates the existence of the match, home team, and away team.
+     * Costs two statements: the previous state is read with a row lock, because it is published
+     * with the change and must be the state the change replaced, then the row is updated; the
+     * teams are enforced by foreign keys, and the row is not read back.
+     * A pending live score of the match is dropped once this update commits, as it supersedes it.
      *
      * @param id  The ID of the match to update.
      * @param dto The DTO containing the updated data.
@@ -87,29 +216,51 @@ public class MatchService {
      * @throws NotFoundException if the match, home team, or away team is not found.
      */
     public MatchDTO update(Long id, MatchCreateUpdateDTO dto) {
-        Match existing = findMatchOrThrow(id);
-        teamRepository.findById(dto.getHomeTeamId());
-        teamRepository.findById(dto.getAwayTeamId());
-        existing.setHomeTeamId(dto.getHomeTeamId());
-        existing.setAwayTeamId(dto.getAwayTeamId());
-        existing.setMatchDate(dto.getMatchDate());
-        existing.setHomeScore(dto.getHomeScore());
-        existing.setAwayScore(dto.getAwayScore());
-        matchRepository.update(existing);
-        return findById(id);
+        reads.forgetOnCompletion(id);
+        liveScores.discardOnCommit(id);
+        Match previous = lockMatchOrThrow(id);
+        Match match = toEntity(dto);
+        match.setId(id);
+        try {
+            // the locked row cannot have gone, so the update always affects it
+            matchRepository.update(match);
+        } catch (DataIntegrityViolationException e) {
+            throw referenceValidator.check().team(dto.getHomeTeamId()).team(dto.getAwayTeamId()).explain(e);
+        }
+        events.publishEvent(new MatchChangedEvent(previous, match));
+        return toDTO(match);
+    }
+
+    /**
+     * Accepts a live score for a match in progress without writing it to the database.
+     * The score is buffered, replacing any pending score of the match, and written by the
+     * next flush of the {@link LiveScoreBuffer}; match reads return it immediately.
+     * Runs outside a transaction: it changes the buffer and its journal, not the database.
+     *
+     * @param id  The ID of the match.
+     * @param dto The DTO containing the current scores.
+     * @return The DTO of the match with the accepted scores.
+     * @throws NotFoundException if the match is not found.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MatchDTO updateScore(Long id, ScoreUpdateDTO dto) {
+        reads.forgetOnCompletion(id);
+        return toDTO(liveScores.record(id, dto.getHomeScore(), dto.getAwayScore()));
     }
 
     /**
      * Deletes a match by its ID.
+     * Costs two statements: the previous state is read with a row lock, as for an update, then the row is deleted.
      *
      * @param id The ID of the match to delete.
      * @throws NotFoundException if the match with the given ID is not found.
      */
     public void delete(Long id) {
-        int deleted = matchRepository.delete(id);
-        if (deleted == 0) {
-            throw new NotFoundException("Match not found with id " + id);
-        }
+        reads.forgetOnCompletion(id);
+        liveScores.discardOnCommit(id);
+        Match previous = lockMatchOrThrow(id);
+        matchRepository.delete(id);
+        events.publishEvent(new MatchChangedEvent(previous, null));
     }
 
     /**
@@ -128,7 +279,53 @@ public class MatchService {
     }
 
     /**
-     * Converts a Match entity to a MatchDTO.
+     * Finds a match by ID and locks its row until the transaction ends, so that the previous
+     * state published with a change is the one the change replaced.
+     *
+     * @param id The ID of the match to lock.
+     * @return The found Match entity.
+     * @throws NotFoundException if the match is not found.
+     */
+    private Match lockMatchOrThrow(Long id) {
+        try {
+            return matchRepository.findByIdForUpdate(id);
+        } catch (EmptyResultDataAccessException e) {
+            throw new NotFoundException("Match not found with id " + id);
+        }
+    }
+
+    /**
+     * Ensures that a team with the given ID exists.
+     *
+     * @param teamId The ID of the team.
+     * @throws NotFoundException if the team is not found.
+     */
+    private void requireTeam(Long teamId) {
+        try {
+            teamRepository.findById(teamId);
+        } catch (EmptyResultDataAccessException e) {
+            throw new NotFoundException("Team not found with id " + teamId);
+        }
+    }
+
+    /**
+     * Creates a Match entity from the DTO.
+     *
+     * @param dto The DTO with the match data.
+     * @return The Match entity, without ID.
+     */
+    private static Match toEntity(MatchCreateUpdateDTO dto) {
+        Match match = new Match();
+        match.setHomeTeamId(dto.getHomeTeamId());
+        match.setAwayTeamId(dto.getAwayTeamId());
+        match.setMatchDate(dto.getMatchDate());
+        match.setHomeScore(dto.getHomeScore());
+        match.setAwayScore(dto.getAwayScore());
+        return match;
+    }
+
+    /**
+     * Converts a Match entity to a MatchDTO, with its pending live score if there is one.
      *
      * @param match The Match entity to convert.
      * @return The corresponding MatchDTO.
@@ -141,6 +338,6 @@ public class MatchService {
         dto.setMatchDate(match.getMatchDate());
         dto.setHomeScore(match.getHomeScore());
         dto.setAwayScore(match.getAwayScore());
-        return dto;
+        return liveScores.overlay(dto);
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.example.library.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Result of looking up many entities by ID at once.
+ * Carries the found items in request order and the requested IDs that do not exist.
+ *
+ * @param <T> The type of the items.
+ */
+public class MultiGet<T> {
+    /**
+     * The found items, in the order of the requested IDs.
+     */
+    private final List<T> items;
+    /**
+     * The requested IDs that were not found, in request order.
+     */
+    private final List<Long> missingIds;
+
+    /**
+     * Constructs a multi-get result.
+     *
+     * @param items      The found items, in request order.
+     * @param missingIds The requested IDs that were not found.
+     */
+    public MultiGet(List<T> items, List<Long> missingIds) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    /**
+     * Builds a result by matching the fetched rows to the requested IDs.
+     * Duplicate IDs are answered once, at their first position.
+     *
+     * @param ids       The requested IDs, in request order.
+     * @param rows      The rows fetched for these IDs, in any order.
+     * @param idOf      Extracts the ID of a row.
+     * @param converter Converts the found rows, already in request order, to DTOs.
+     * @param <E>       The row type.
+     * @param <T>       The DTO type.
+     * @return The result.
+     */
+    public static <E, T> MultiGet<T> of(Collection<Long> ids, Collection<E> rows,
+                                        Function<E, Long> idOf,
+                                        Function<List<E>, List<T>> converter) {
+        Map<Long, E> byId = new HashMap<>();
+        for (E row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<E> found = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            E row = byId.get(id);
+            if (row != null) {
+                found.add(row);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new MultiGet<>(converter.apply(found), missing);
+    }
+}
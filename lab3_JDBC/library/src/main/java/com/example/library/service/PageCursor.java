@@ -0,0 +1,111 @@
+package com.example.library.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination.
+ * A cursor holds the sort key of the last item of a page: the ID, and for matches
+ * also the match date. Clients must treat the encoded form as opaque.
+ */
+public final class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * The match date of the last item, or null for resources ordered by ID only.
+     */
+    private final LocalDateTime date;
+    /**
+     * The ID of the last item.
+     */
+    private final Long id;
+
+    private PageCursor(LocalDateTime date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Encodes a cursor for a resource ordered by ID.
+     *
+     * @param id The ID of the last item of the page.
+     * @return The opaque token.
+     */
+    public static String encode(Long id) {
+        return toToken(String.valueOf(id));
+    }
+
+    /**
+     * Encodes a cursor for a resource ordered by (date, ID).
+     *
+     * @param date The date of the last item of the page.
+     * @param id   The ID of the last item of the page.
+     * @return The opaque token.
+     */
+    public static String encode(LocalDateTime date, Long id) {
+        return toToken(date + SEPARATOR + id);
+    }
+
+    /**
+     * Decodes a cursor of a resource ordered by ID.
+     *
+     * @param token The token, or null for the first page.
+     * @return The decoded cursor, or null for the first page.
+     * @throws BadRequestException if the token is malformed.
+     */
+    public static PageCursor decodeId(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            return new PageCursor(null, Long.valueOf(fromToken(token)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor '" + token + "'");
+        }
+    }
+
+    /**
+     * Decodes a cursor of a resource ordered by (date, ID).
+     *
+     * @param token The token, or null for the first page.
+     * @return The decoded cursor, or null for the first page.
+     * @throws BadRequestException if the token is malformed.
+     */
+    public static PageCursor decodeDateId(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = fromToken(token);
+            int sep = raw.indexOf(SEPARATOR);
+            if (sep < 0) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            return new PageCursor(
+                LocalDateTime.parse(raw.substring(0, sep)),
+                Long.valueOf(raw.substring(sep + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor '" + token + "'");
+        }
+    }
+
+    private static String toToken(String raw) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromToken(String token) {
+        return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.library.service;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the page size of list requests and the size of multi-get requests
+ * against the configured limits.
+ */
+@Component
+public class PageLimits {
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    /**
+     * Constructs PageLimits from the application properties.
+     *
+     * @param defaultLimit Page size used when the client does not ask for one.
+     * @param maxLimit     Largest page size a client may ask for.
+     */
+    public PageLimits(@Value("${library.pagination.default-limit:50}") int defaultLimit,
+                      @Value("${library.pagination.max-limit:500}") int maxLimit) {
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Resolves the effective page size.
+     * Requests above the maximum are capped to the maximum.
+     *
+     * @param requested The page size requested by the client, or null.
+     * @return The page size to use.
+     * @throws BadRequestException if the requested size is not positive.
+     */
+    public int resolve(Integer requested) {
+        if (requested == null) {
+            return defaultLimit;
+        }
+        if (requested < 1) {
+            throw new BadRequestException("Page limit must be positive, got " + requested);
+        }
+        return Math.min(requested, maxLimit);
+    }
+
+    /**
+     * Checks the number of IDs of a multi-get request.
+     * Unlike page sizes, oversized ID lists are rejected rather than silently truncated.
+     *
+     * @param ids The requested IDs.
+     * @throws BadRequestException if the list is empty or longer than the maximum page size.
+     */
+    public void checkIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new BadRequestException("At least one id is required");
+        }
+        if (ids.size() > maxLimit) {
+            throw new BadRequestException("At most " + maxLimit + " ids may be requested at once, got " + ids.size());
+        }
+    }
+}
@@ -3,11 +3,15 @@ package com.example.library.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.library.dto.PlayerCreateUpdateDTO;
 import com.example.library.dto.PlayerDTO;
+import com.example.library.event.PlayerChangedEvent;
 import com.example.library.model.Player;
 import com.example.library.repository.PlayerRepository;
 import com.example.library.repository.TeamRepository;
@@ -21,27 +25,60 @@ import com.example.library.repository.TeamRepository;
 public class PlayerService {
     private final PlayerRepository playerRepository;
     private final TeamRepository teamRepository;
+    private final ReferenceValidator referenceValidator;
+    private final PageLimits pageLimits;
+    private final ApplicationEventPublisher events;
 
     /**
      * Constructs a PlayerService with necessary repositories.
      *
-     * @param playerRepository Repository for player data access.
-     * @param teamRepository   Repository for team data access (to validate team existence).
+     * @param playerRepository   Repository for player data access.
+     * @param teamRepository     Repository for team data access (to validate team existence).
+     * @param referenceValidator Validator for the team a player references.
+     * @param pageLimits         Page size limits for list requests.
+     * @param events             Publisher for player change events.
      */
-    public PlayerService(PlayerRepository playerRepository, TeamRepository teamRepository) {
+    public PlayerService(PlayerRepository playerRepository, TeamRepository teamRepository,
+                         ReferenceValidator referenceValidator, PageLimits pageLimits,
+                         ApplicationEventPublisher events) {
         this.playerRepository = playerRepository;
         this.teamRepository = teamRepository;
+        this.referenceValidator = referenceValidator;
+        this.pageLimits = pageLimits;
+        this.events = events;
     }
 
     /**
-     * Retrieves all players and converts them to DTOs.
+     * Retrieves one page of players ordered by ID and converts them to DTOs.
      *
-     * @return A list of PlayerDTOs.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit  The requested page size, or null for the default size.
+     * @return The page of PlayerDTOs together with the cursor of the next page.
+     * @throws BadRequestException if the cursor or the limit is invalid.
      */
-    public List<PlayerDTO> findAll() {
-        return playerRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<PlayerDTO> findPage(String cursor, Integer limit) {
+        PageCursor after = PageCursor.decodeId(cursor);
+        int size = pageLimits.resolve(limit);
+        List<Player> rows = playerRepository.findPage(after == null ? null : after.getId(), size + 1);
+        return CursorPage.of(rows, size,
+                page -> page.stream().map(this::toDTO).collect(Collectors.toList()),
+                row -> PageCursor.encode(row.getId()));
+    }
+
+    /**
+     * Finds many players by ID with one query per chunk of IDs and converts them to DTOs.
+     * IDs that do not exist are reported in the result instead of failing the request.
+     *
+     * @param ids The IDs of the players to find.
+     * @return The found PlayerDTOs in request order, together with the missing IDs.
+     * @throws BadRequestException if no IDs or too many IDs are requested.
+     */
+    @Transactional(readOnly = true)
+    public MultiGet<PlayerDTO> findByIds(List<Long> ids) {
+        pageLimits.checkIds(ids);
+        return MultiGet.of(ids, playerRepository.findByIds(ids), Player::getId,
+                page -> page.stream().map(this::toDTO).collect(Collectors.toList()));
     }
 
     /**
@@ -51,30 +88,52 @@ public class PlayerService {
      * @return The PlayerDTO corresponding to the found player.
      * @throws NotFoundException if the player with the given ID is not found.
      */
+    @Transactional(readOnly = true)
     public PlayerDTO findById(Long id) {
         return toDTO(findPlayerOrThrow(id));
     }
 
+    /**
+     * Retrieves the players of a team and converts them to DTOs.
+     *
+     * @param teamId The ID of the team.
+     * @return A list of PlayerDTOs, ordered by ID.
+     * @throws NotFoundException if the team with the given ID is not found.
+     */
+    @Transactional(readOnly = true)
+    public List<PlayerDTO> findByTeam(Long teamId) {
+        requireTeam(teamId);
+        return playerRepository.findByTeamId(teamId).stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Creates a new player based on the provided DTO.
-     * Validates the existence of the associated team.
+     * The team reference is enforced by the foreign key; only if it is violated are
+     * the references checked, to report the missing team.
      *
      * @param dto The DTO containing data for the new player.
      * @return The DTO of the newly created player.
      * @throws NotFoundException if the associated team is not found.
      */
     public PlayerDTO create(PlayerCreateUpdateDTO dto) {
-        teamRepository.findById(dto.getTeamId());
         Player player = new Player();
         player.setName(dto.getName());
         player.setTeamId(dto.getTeamId());
-        Long id = playerRepository.create(player);
-        return findById(id);
+        try {
+            player.setId(playerRepository.create(player));
+        } catch (DataIntegrityViolationException e) {
+            throw referenceValidator.check().team(dto.getTeamId()).explain(e);
+        }
+        events.publishEvent(new PlayerChangedEvent(player.getId(), null, player.getTeamId()));
+        return toDTO(player);
     }
 
     /**
      * Updates an existing player with the data from the provided DTO.
-     * Validates the existence of the player and the associated team.
+     * A missing player is detected from the affected-row count and a missing team from
+     * the foreign key; the response is built from the written data without reading it back.
      *
      * @param id  The ID of the player to update.
      * @param dto The DTO containing the updated data.
@@ -82,12 +141,21 @@ public class PlayerService {
      * @throws NotFoundException if the player or the associated team is not found.
      */
     public PlayerDTO update(Long id, PlayerCreateUpdateDTO dto) {
-        Player existing = findPlayerOrThrow(id);
-        teamRepository.findById(dto.getTeamId());
-        existing.setName(dto.getName());
-        existing.setTeamId(dto.getTeamId());
-        playerRepository.update(existing);
-        return findById(id);
+        Player player = new Player();
+        player.setId(id);
+        player.setName(dto.getName());
+        player.setTeamId(dto.getTeamId());
+        int updated;
+        try {
+            updated = playerRepository.update(player);
+        } catch (DataIntegrityViolationException e) {
+            throw referenceValidator.check().team(dto.getTeamId()).explain(e);
+        }
+        if (updated == 0) {
+            throw new NotFoundException("Player not found with id " + id);
+        }
+        events.publishEvent(new PlayerChangedEvent(id, null, player.getTeamId()));
+        return toDTO(player);
     }
 
     /**
@@ -101,6 +169,7 @@ public class PlayerService {
         if (deleted == 0) {
             throw new NotFoundException("Player not found with id " + id);
         }
+        events.publishEvent(new PlayerChangedEvent(id, null, null));
     }
 
     /**
@@ -118,6 +187,20 @@ public class PlayerService {
         }
     }
 
+    /**
+     * Ensures that a team with the given ID exists.
+     *
+     * @param teamId The ID of the team.
+     * @throws NotFoundException if the team is not found.
+     */
+    private void requireTeam(Long teamId) {
+        try {
+            teamRepository.findById(teamId);
+        } catch (EmptyResultDataAccessException e) {
+            throw new NotFoundException("Team not found with id " + teamId);
+        }
+    }
+
     /**
      * Converts a Player entity to a PlayerDTO.
      *
@@ -0,0 +1,176 @@
+package com.example.library.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.example.library.repository.CoachRepository;
+import com.example.library.repository.LeagueRepository;
+import com.example.library.repository.PlayerRepository;
+import com.example.library.repository.TeamRepository;
+
+/**
+ * Checks that the entities referenced by a write request exist.
+ * All IDs of one kind are checked with a single {@code SELECT id ... IN (...)} query,
+ * and every missing ID of every kind is reported in one NotFoundException:
+ * <pre>
+ * referenceValidator.check()
+ *         .coach(dto.getCoachId())
+ *         .league(dto.getLeagueId())
+ *         .players(dto.getPlayerIds())
+ *         .validate();
+ * </pre>
+ * Writes that rely on the database's foreign keys run the check only after a
+ * constraint violation, to turn it into a precise 404:
+ * <pre>
+ * catch (DataIntegrityViolationException e) {
+ *     throw referenceValidator.check().team(dto.getTeamId()).explain(e);
+ * }
+ * </pre>
+ */
+@Component
+public class ReferenceValidator {
+    private final CoachRepository coachRepository;
+    private final LeagueRepository leagueRepository;
+    private final PlayerRepository playerRepository;
+    private final TeamRepository teamRepository;
+
+    /**
+     * Constructs a ReferenceValidator with the repositories of all referenceable entities.
+     *
+     * @param coachRepository  Repository for coach data access.
+     * @param leagueRepository Repository for league data access.
+     * @param playerRepository Repository for player data access.
+     * @param teamRepository   Repository for team data access.
+     */
+    public ReferenceValidator(CoachRepository coachRepository,
+                              LeagueRepository leagueRepository,
+                              PlayerRepository playerRepository,
+                              TeamRepository teamRepository) {
+        this.coachRepository = coachRepository;
+        this.leagueRepository = leagueRepository;
+        this.playerRepository = playerRepository;
+        this.teamRepository = teamRepository;
+    }
+
+    /**
+     * Starts collecting the references of one request.
+     *
+     * @return An empty check.
+     */
+    public Check check() {
+        return new Check();
+    }
+
+    /**
+     * The references of one request, collected per entity kind.
+     */
+    public final class Check {
+        private final Set<Long> coachIds = new TreeSet<>();
+        private final Set<Long> leagueIds = new TreeSet<>();
+        private final Set<Long> playerIds = new TreeSet<>();
+        private final Set<Long> teamIds = new TreeSet<>();
+
+        private Check() {
+        }
+
+        /**
+         * Adds a referenced coach.
+         *
+         * @param id The ID of the coach.
+         * @return This check.
+         */
+        public Check coach(Long id) {
+            addNonNull(coachIds, id);
+            return this;
+        }
+
+        /**
+         * Adds a referenced league.
+         *
+         * @param id The ID of the league.
+         * @return This check.
+         */
+        public Check league(Long id) {
+            addNonNull(leagueIds, id);
+            return this;
+        }
+
+        /**
+         * Adds referenced players.
+         *
+         * @param ids The IDs of the players; may be null.
+         * @return This check.
+         */
+        public Check players(Collection<Long> ids) {
+            if (ids != null) {
+                ids.forEach(id -> addNonNull(playerIds, id));
+            }
+            return this;
+        }
+
+        /**
+         * Adds a referenced team.
+         *
+         * @param id The ID of the team.
+         * @return This check.
+         */
+        public Check team(Long id) {
+            addNonNull(teamIds, id);
+            return this;
+        }
+
+        /**
+         * Runs one existence query per entity kind that has references.
+         *
+         * @throws NotFoundException listing every missing ID if any reference does not exist.
+         */
+        public void validate() {
+            List<String> problems = new ArrayList<>(4);
+            missing("Coach", "Coaches", coachIds, coachRepository::findExistingIds, problems);
+            missing("League", "Leagues", leagueIds, leagueRepository::findExistingIds, problems);
+            missing("Player", "Players", playerIds, playerRepository::findExistingIds, problems);
+            missing("Team", "Teams", teamIds, teamRepository::findExistingIds, problems);
+            if (!problems.isEmpty()) {
+                throw new NotFoundException(String.join("; ", problems));
+            }
+        }
+
+        /**
+         * Explains a failed write: reports the missing references, if any, as a NotFoundException.
+         *
+         * @param cause The failure of the write, typically a foreign key violation.
+         * @return The given cause, to be rethrown, if all references exist.
+         * @throws NotFoundException listing every missing ID if any reference does not exist.
+         */
+        public RuntimeException explain(RuntimeException cause) {
+            validate();
+            return cause;
+        }
+
+        private void addNonNull(Set<Long> ids, Long id) {
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+
+        private void missing(String singular, String plural, Set<Long> ids,
+                             Function<Collection<Long>, Set<Long>> existing, List<String> problems) {
+            if (ids.isEmpty()) {
+                return;
+            }
+            Set<Long> absent = new TreeSet<>(ids);
+            absent.removeAll(existing.apply(ids));
+            if (absent.size() == 1) {
+                problems.add(singular + " not found with id " + absent.iterator().next());
+            } else if (!absent.isEmpty()) {
+                problems.add(plural + " not found with ids " + absent);
+            }
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package com.example.library.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.example.library.dto.LeagueProjectionDTO;
+import com.example.library.dto.ProjectionDTO;
+import com.example.library.model.Match;
+import com.example.library.repository.LeagueRepository;
+import com.example.library.repository.MatchRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Projects the end of season of a league by Monte Carlo simulation.
+ * A season is a double round robin: every team hosts every other team of the league once.
+ * The matches played so far count as they are, as for the league tables; every home/away
+ * pairing without a match yet is a remaining fixture. Each simulated season draws a result
+ * for every remaining fixture from the current {@link EloRatingService Elo ratings}: the draw
+ * takes the configured share of the probability and the rest is split so that the expected
+ * score of the home team equals its Elo expectation. Teams level on points are ordered by
+ * the current table (goal difference, goals scored), since goals are not simulated.
+ * <p>
+ * The seasons are split evenly over one fork/join task per core. Every task has its own
+ * {@link SplittableRandom} split off a common root and allocates its int tables and counters
+ * once, so the simulation loop itself allocates nothing. A projection is cached until the
+ * ratings of its league change, that is until the next committed match change in the league
+ * or change of its teams. Concurrent requests for the same league and ratings version share
+ * one simulation: the first runs it and the others wait for its result, so a burst of requests
+ * after a match change costs one simulation, not one per request. Simulation time is published
+ * as {@code library.projections.simulation}.
+ */
+@Service
+public class SeasonSimulator {
+    /**
+     * The fewest seasons worth a task of their own.
+     */
+    private static final int MIN_SEASONS_PER_TASK = 1000;
+
+    /**
+     * Projection order: expected points and title chance descending, then team name and ID.
+     */
+    private static final Comparator<ProjectionDTO> PROJECTION_ORDER =
+        Comparator.comparingDouble(ProjectionDTO::getExpectedPoints).reversed()
+            .thenComparing(Comparator.comparingDouble(ProjectionDTO::getTitleProbability).reversed())
+            .thenComparing(ProjectionDTO::getTeamName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ProjectionDTO::getTeamId);
+
+    private final MatchRepository matchRepository;
+    private final LeagueRepository leagueRepository;
+    private final TeamDirectory teamDirectory;
+    private final EloRatingService ratingService;
+    private final int simulations;
+    private final double drawProbability;
+    private final int relegationPlaces;
+    private final Timer simulationTimer;
+
+    /**
+     * The latest projection of each league, finished or still being simulated.
+     */
+    private final Map<Long, Projection> projections = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a SeasonSimulator.
+     *
+     * @param matchRepository  Repository used to read the matches played in a league.
+     * @param leagueRepository Repository used to tell an empty league from a missing one.
+     * @param teamDirectory    Directory resolving the teams of a league and their names.
+     * @param ratingService    The service providing the ratings the results are drawn from.
+     * @param simulations      The number of seasons simulated per projection.
+     * @param drawProbability  The probability of a draw between equally rated teams.
+     * @param relegationPlaces The number of bottom places that are relegated.
+     * @param registry         The registry for the simulation metric.
+     */
+    public SeasonSimulator(MatchRepository matchRepository,
+                           LeagueRepository leagueRepository,
+                           TeamDirectory teamDirectory,
+                           EloRatingService ratingService,
+                           @Value("${library.projections.simulations:100000}") int simulations,
+                           @Value("${library.projections.draw-probability:0.25}") double drawProbability,
+                           @Value("${library.projections.relegation-places:3}") int relegationPlaces,
+                           MeterRegistry registry) {
+        this.matchRepository = matchRepository;
+        this.leagueRepository = leagueRepository;
+        this.teamDirectory = teamDirectory;
+        this.ratingService = ratingService;
+        this.simulations = simulations;
+        this.drawProbability = drawProbability;
+        this.relegationPlaces = relegationPlaces;
+        this.simulationTimer = Timer.builder("library.projections.simulation")
+            .description("Time to simulate the remaining season of a league")
+            .register(registry);
+    }
+
+    /**
+     * Returns the projected end of season of a league, simulating it unless the cached
+     * projection is still current or a simulation of the current ratings is in flight.
+     *
+     * @param leagueId The ID of the league.
+     * @return The projection of every team of the league, with the cost of the simulation.
+     * @throws NotFoundException if the league with the given ID is not found.
+     */
+    public LeagueProjectionDTO findByLeague(Long leagueId) {
+        // read before the matches and ratings, so a change racing with the simulation
+        // leaves the result stored under an outdated version
+        long version = ratingService.versionOf(leagueId);
+        Set<Long> teamIds = teamDirectory.teamsOf(leagueId);
+        if (teamIds.isEmpty()) {
+            requireLeague(leagueId);
+        }
+        Projection fresh = new Projection(version);
+        Projection projection = projections.compute(leagueId,
+            (id, current) -> current != null && current.version == version ? current : fresh);
+        if (projection != fresh) {
+            try {
+                return toDTO(leagueId, projection.season.join());
+            } catch (CompletionException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+        try {
+            Season season = simulate(leagueId, teamIds, version);
+            fresh.season.complete(season);
+            return toDTO(leagueId, season);
+        } catch (RuntimeException | Error e) {
+            // waiting callers get the failure, later ones simulate again
+            fresh.season.completeExceptionally(e);
+            projections.remove(leagueId, fresh);
+            throw e;
+        }
+    }
+
+    private Season simulate(Long leagueId, Set<Long> teamIds, long version) {
+        int n = teamIds.size();
+        long[] teams = teamIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        Map<Long, Integer> index = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            index.put(teams[i], i);
+        }
+        int[] points = new int[n];
+        int[] goalDifference = new int[n];
+        int[] goalsFor = new int[n];
+        boolean[] played = new boolean[n * n];
+        if (n > 0) {
+            for (Match m : matchRepository.findByTeamIds(teamIds)) {
+                Integer home = index.get(m.getHomeTeamId());
+                Integer away = index.get(m.getAwayTeamId());
+                if (home == null || away == null || home.equals(away)) {
+                    continue;
+                }
+                int diff = m.getHomeScore() - m.getAwayScore();
+                points[home] += diff > 0 ? 3 : diff == 0 ? 1 : 0;
+                points[away] += diff < 0 ? 3 : diff == 0 ? 1 : 0;
+                goalDifference[home] += diff;
+                goalDifference[away] -= diff;
+                goalsFor[home] += m.getHomeScore();
+                goalsFor[away] += m.getAwayScore();
+                played[home * n + away] = true;
+            }
+        }
+
+        Map<Long, Double> ratings = ratingService.ratingsOf(leagueId, teamIds);
+        Fixtures fixtures = new Fixtures(n, points, tableRanks(teams, points, goalDifference, goalsFor));
+        for (int home = 0; home < n; home++) {
+            for (int away = 0; away < n; away++) {
+                if (home != away && !played[home * n + away]) {
+                    double expected = ratingService.expectedScore(ratings.get(teams[home]), ratings.get(teams[away]));
+                    double homeWin = Math.max(0, expected - drawProbability / 2);
+                    double awayWin = Math.max(0, 1 - expected - drawProbability / 2);
+                    fixtures.add(home, away, homeWin, 1 - awayWin);
+                }
+            }
+        }
+
+        int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                simulations / MIN_SEASONS_PER_TASK));
+        SplittableRandom root = new SplittableRandom();
+        List<Callable<long[]>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int seasons = simulations / workers + (w < simulations % workers ? 1 : 0);
+            SplittableRandom random = root.split();
+            tasks.add(() -> fixtures.simulate(seasons, random));
+        }
+        long start = System.nanoTime();
+        List<Future<long[]>> results = ForkJoinPool.commonPool().invokeAll(tasks);
+        long[] totals = new long[n * n + n];
+        try {
+            for (Future<long[]> result : results) {
+                long[] counts = result.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += counts[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating league " + leagueId, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulating league " + leagueId + " failed", e.getCause());
+        }
+        long elapsed = System.nanoTime() - start;
+        simulationTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return new Season(version, teams, points, fixtures.size, workers, elapsed, totals);
+    }
+
+    /**
+     * Ranks the teams by the current table: points, goal difference and goals scored, then ID.
+     */
+    private static int[] tableRanks(long[] teams, int[] points, int[] goalDifference, int[] goalsFor) {
+        int n = teams.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> -points[i])
+            .thenComparingInt(i -> -goalDifference[i])
+            .thenComparingInt(i -> -goalsFor[i])
+            .thenComparingLong(i -> teams[i]));
+        int[] rank = new int[n];
+        for (int r = 0; r < n; r++) {
+            rank[order[r]] = r;
+        }
+        return rank;
+    }
+
+    private LeagueProjectionDTO toDTO(Long leagueId, Season season) {
+        int n = season.teams.length;
+        int relegated = Math.max(0, Math.min(relegationPlaces, n - 1));
+        List<ProjectionDTO> rows = new ArrayList<>(n);
+        for (int t = 0; t < n; t++) {
+            double[] positions = new double[n];
+            double relegation = 0;
+            for (int p = 0; p < n; p++) {
+                double share = (double) season.totals[t * n + p] / simulations;
+                positions[p] = round(share, 4);
+                if (p >= n - relegated) {
+                    relegation += share;
+                }
+            }
+            ProjectionDTO dto = new ProjectionDTO();
+            dto.setTeamId(season.teams[t]);
+            dto.setTeamName(teamDirectory.nameOf(season.teams[t]));
+            dto.setPoints(season.points[t]);
+            dto.setExpectedPoints(round((double) season.totals[n * n + t] / simulations, 1));
+            dto.setTitleProbability(positions[0]);
+            dto.setRelegationProbability(round(relegation, 4));
+            dto.setPositionProbabilities(positions);
+            rows.add(dto);
+        }
+        rows.sort(PROJECTION_ORDER);
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setPosition(i + 1);
+        }
+        LeagueProjectionDTO dto = new LeagueProjectionDTO();
+        dto.setLeagueId(leagueId);
+        dto.setSimulations(simulations);
+        dto.setRemainingFixtures(season.remainingFixtures);
+        dto.setWorkers(season.workers);
+        dto.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(season.elapsedNanos));
+        dto.setSimulationsPerSecond(season.elapsedNanos == 0 ? 0
+                : Math.round(simulations * 1e9 / season.elapsedNanos));
+        dto.setTeams(rows);
+        return dto;
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private void requireLeague(Long leagueId) {
+        try {
+            leagueRepository.findById(leagueId);
+        } catch (EmptyResultDataAccessException e) {
+            throw new NotFoundException("League not found with id " + leagueId);
+        }
+    }
+
+    /**
+     * The remaining fixtures of a league as parallel arrays, with the probabilities of their results.
+     * Read-only once built, so all tasks share one instance.
+     */
+    private static final class Fixtures {
+        final int teams;
+        final int[] basePoints;
+        final int[] tableRank;
+        int[] home = new int[16];
+        int[] away = new int[16];
+        /**
+         * A uniform draw below this is a home win.
+         */
+        double[] homeWinBelow = new double[16];
+        /**
+         * A uniform draw below this, and not below {@link #homeWinBelow}, is a draw; otherwise an away win.
+         */
+        double[] drawBelow = new double[16];
+        int size;
+
+        Fixtures(int teams, int[] basePoints, int[] tableRank) {
+            this.teams = teams;
+            this.basePoints = basePoints;
+            this.tableRank = tableRank;
+        }
+
+        void add(int homeTeam, int awayTeam, double homeWin, double homeWinOrDraw) {
+            if (size == home.length) {
+                home = Arrays.copyOf(home, size * 2);
+                away = Arrays.copyOf(away, size * 2);
+                homeWinBelow = Arrays.copyOf(homeWinBelow, size * 2);
+                drawBelow = Arrays.copyOf(drawBelow, size * 2);
+            }
+            home[size] = homeTeam;
+            away[size] = awayTeam;
+            homeWinBelow[size] = homeWin;
+            drawBelow[size] = homeWinOrDraw;
+            size++;
+        }
+
+        /**
+         * Simulates the given number of seasons.
+         *
+         * @return The number of seasons each team finished in each position, at {@code team * teams + position},
+         *         followed by the total final points of each team.
+         */
+        long[] simulate(int seasons, SplittableRandom random) {
+            int n = teams;
+            int[] table = new int[n];
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            long[] counts = new long[n * n + n];
+            for (int s = 0; s < seasons; s++) {
+                System.arraycopy(basePoints, 0, table, 0, n);
+                for (int f = 0; f < size; f++) {
+                    double x = random.nextDouble();
+                    if (x < homeWinBelow[f]) {
+                        table[home[f]] += 3;
+                    } else if (x < drawBelow[f]) {
+                        table[home[f]]++;
+                        table[away[f]]++;
+                    } else {
+                        table[away[f]] += 3;
+                    }
+                }
+                // insertion sort, starting from the previous season's order
+                for (int i = 1; i < n; i++) {
+                    int t = order[i];
+                    int j = i - 1;
+                    while (j >= 0 && (table[t] > table[order[j]]
+                            || (table[t] == table[order[j]] && tableRank[t] < tableRank[order[j]]))) {
+                        order[j + 1] = order[j];
+                        j--;
+                    }
+                    order[j + 1] = t;
+                }
+                for (int p = 0; p < n; p++) {
+                    counts[order[p] * n + p]++;
+                }
+                for (int t = 0; t < n; t++) {
+                    counts[n * n + t] += table[t];
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * The simulation of a league for one ratings version, completed once it finishes.
+     */
+    private static final class Projection {
+        final long version;
+        final CompletableFuture<Season> season = new CompletableFuture<>();
+
+        Projection(long version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * A finished simulation of a league, valid while the league's ratings have the same version.
+     */
+    private static final class Season {
+        final long version;
+        final long[] teams;
+        final int[] points;
+        final int remainingFixtures;
+        final int workers;
+        final long elapsedNanos;
+        final long[] totals;
+
+        Season(long version, long[] teams, int[] points, int remainingFixtures,
+               int workers, long elapsedNanos, long[] totals) {
+            this.version = version;
+            this.teams = teams;
+            this.points = points;
+            this.remainingFixtures = remainingFixtures;
+            this.workers = workers;
+            this.elapsedNanos = elapsedNanos;
+            this.totals = totals;
+        }
+    }
+}
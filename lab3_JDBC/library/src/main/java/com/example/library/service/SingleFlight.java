@@ -0,0 +1,126 @@
+package com.example.library.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent identical reads: while a load for a key is in flight, further callers
+ * for that key wait for it and share its result, or its exception, instead of loading again.
+ * The first caller runs the load on its own thread; nothing is kept once it completes.
+ * <p>
+ * A write to a key must {@link #forget} it, which lets callers arriving after the write start
+ * a new load instead of joining one that may have read the state before it. Callers that
+ * joined before the write still get the older result, as if they had loaded it themselves.
+ * Inside read-write transactions loads are never shared, so uncommitted state stays private.
+ * Shared results must not be modified.
+ * <p>
+ * Publishes {@code library.single-flight.requests}, tagged with the name and the role
+ * (leader: ran the load, follower: shared it); followers / all is the collapse ratio.
+ *
+ * @param <K> The key type.
+ * @param <V> The result type.
+ */
+final class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    /**
+     * Constructs a coalescer and registers its metrics.
+     *
+     * @param name     The name of the coalesced reads, used as metric tag.
+     * @param registry The registry for the metrics.
+     */
+    SingleFlight(String name, MeterRegistry registry) {
+        this.leaders = Counter.builder("library.single-flight.requests")
+            .tag("name", name)
+            .tag("role", "leader")
+            .description("Reads by whether they ran a load or shared one already in flight")
+            .register(registry);
+        this.followers = Counter.builder("library.single-flight.requests")
+            .tag("name", name)
+            .tag("role", "follower")
+            .description("Reads by whether they ran a load or shared one already in flight")
+            .register(registry);
+    }
+
+    /**
+     * Returns the result of the load in flight for the key, or runs the given load.
+     *
+     * @param key  The key of the read.
+     * @param load The load, run on the calling thread if no load for the key is in flight.
+     * @return The result of the load.
+     */
+    V load(K key, Supplier<V> load) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return load.get();
+        }
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            followers.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+        leaders.increment();
+        try {
+            V result = load.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Detaches the load in flight for a key, so that later callers start a new one.
+     *
+     * @param key The key that was written.
+     */
+    void forget(K key) {
+        flights.remove(key);
+    }
+
+    /**
+     * Detaches the load in flight for a key now and again when the current transaction
+     * completes, so that no load that read the state before the commit is shared afterwards.
+     *
+     * @param key The key being written.
+     */
+    void forgetOnCompletion(K key) {
+        forget(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    forget(key);
+                }
+            });
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.library.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.library.dto.StandingDTO;
+import com.example.library.event.MatchChangedEvent;
+import com.example.library.event.TeamLeagueChangedEvent;
+import com.example.library.model.Match;
+import com.example.library.repository.LeagueRepository;
+import com.example.library.repository.MatchRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Maintains the league tables in memory.
+ * The tables are built from all matches on startup and then updated incrementally:
+ * every committed match change reverts the old result and applies the new one, so
+ * reading a table never touches the database and costs O(teams in the league).
+ * A match counts for the table only while both teams play in the same league.
+ */
+@Service
+public class StandingsService {
+    /**
+     * Table order: points, goal difference, goals scored and wins, all descending,
+     * then team name and ID so that the order is total.
+     */
+    private static final Comparator<StandingDTO> TABLE_ORDER =
+        Comparator.comparingInt(StandingDTO::getPoints).reversed()
+            .thenComparing(Comparator.comparingInt(StandingDTO::getGoalDifference).reversed())
+            .thenComparing(Comparator.comparingInt(StandingDTO::getGoalsFor).reversed())
+            .thenComparing(Comparator.comparingInt(StandingDTO::getWon).reversed())
+            .thenComparing(StandingDTO::getTeamName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(StandingDTO::getTeamId);
+
+    private final MatchRepository matchRepository;
+    private final LeagueRepository leagueRepository;
+    private final TeamDirectory teamDirectory;
+
+    private final Map<Long, TeamRecord> records = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a StandingsService.
+     *
+     * @param matchRepository  Repository used to rebuild the tables from all matches.
+     * @param leagueRepository Repository used to tell an empty league from a missing one.
+     * @param teamDirectory    Directory resolving the league of each team.
+     */
+    public StandingsService(MatchRepository matchRepository,
+                            LeagueRepository leagueRepository,
+                            TeamDirectory teamDirectory) {
+        this.matchRepository = matchRepository;
+        this.leagueRepository = leagueRepository;
+        this.teamDirectory = teamDirectory;
+    }
+
+    /**
+     * Builds the tables from all matches in the database.
+     */
+    @PostConstruct
+    void rebuild() {
+        lock.writeLock().lock();
+        try {
+            records.clear();
+            matchRepository.forEach(match -> applyIfSameLeague(match, 1));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the current table of a league.
+     * Every team of the league is listed, including teams that have not played yet.
+     *
+     * @param leagueId The ID of the league.
+     * @return The table rows, ordered by position.
+     * @throws NotFoundException if the league with the given ID is not found.
+     */
+    public List<StandingDTO> findByLeague(Long leagueId) {
+        Set<Long> teamIds = teamDirectory.teamsOf(leagueId);
+        if (teamIds.isEmpty()) {
+            requireLeague(leagueId);
+            return new ArrayList<>();
+        }
+        List<StandingDTO> table = new ArrayList<>(teamIds.size());
+        lock.readLock().lock();
+        try {
+            for (Long teamId : teamIds) {
+                table.add(toDTO(teamId, records.get(teamId)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        table.sort(TABLE_ORDER);
+        for (int i = 0; i < table.size(); i++) {
+            table.get(i).setPosition(i + 1);
+        }
+        return table;
+    }
+
+    /**
+     * Reverts the old result of a committed match change and applies the new one.
+     *
+     * @param event The match change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchChanged(MatchChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getPrevious() != null) {
+                applyIfSameLeague(event.getPrevious(), -1);
+            }
+            if (event.getCurrent() != null) {
+                applyIfSameLeague(event.getCurrent(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the matches of a team that changed its league between the tables:
+     * matches against teams of the old league stop counting, matches against
+     * teams of the new league start counting.
+     *
+     * @param event The league membership change.
+     */
+    @EventListener
+    public void onTeamLeagueChanged(TeamLeagueChangedEvent event) {
+        Long teamId = event.getTeamId();
+        List<Match> matches = event.getPreviousLeagueId() == null && event.getCurrentLeagueId() == null
+            ? List.of()
+            : matchRepository.findByTeamId(teamId, null, null);
+        lock.writeLock().lock();
+        try {
+            for (Match match : matches) {
+                Long opponent = teamId.equals(match.getHomeTeamId()) ? match.getAwayTeamId() : match.getHomeTeamId();
+                if (opponent.equals(teamId)) {
+                    continue;
+                }
+                Long opponentLeague = teamDirectory.leagueOf(opponent);
+                if (opponentLeague == null) {
+                    continue;
+                }
+                if (opponentLeague.equals(event.getPreviousLeagueId())) {
+                    apply(match, -1);
+                }
+                if (opponentLeague.equals(event.getCurrentLeagueId())) {
+                    apply(match, 1);
+                }
+            }
+            if (event.getCurrentLeagueId() == null) {
+                records.remove(teamId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyIfSameLeague(Match match, int sign) {
+        Long league = teamDirectory.leagueOf(match.getHomeTeamId());
+        if (league != null
+                && !match.getHomeTeamId().equals(match.getAwayTeamId())
+                && Objects.equals(league, teamDirectory.leagueOf(match.getAwayTeamId()))) {
+            apply(match, sign);
+        }
+    }
+
+    private void apply(Match match, int sign) {
+        int home = match.getHomeScore();
+        int away = match.getAwayScore();
+        records.computeIfAbsent(match.getHomeTeamId(), id -> new TeamRecord()).add(home, away, sign);
+        records.computeIfAbsent(match.getAwayTeamId(), id -> new TeamRecord()).add(away, home, sign);
+    }
+
+    private void requireLeague(Long leagueId) {
+        try {
+            leagueRepository.findById(leagueId);
+        } catch (EmptyResultDataAccessException e) {
+            throw new NotFoundException("League not found with id " + leagueId);
+        }
+    }
+
+    private StandingDTO toDTO(Long teamId, TeamRecord r) {
+        StandingDTO dto = new StandingDTO();
+        dto.setTeamId(teamId);
+        dto.setTeamName(teamDirectory.nameOf(teamId));
+        if (r != null) {
+            dto.setPlayed(r.won + r.drawn + r.lost);
+            dto.setWon(r.won);
+            dto.setDrawn(r.drawn);
+            dto.setLost(r.lost);
+            dto.setGoalsFor(r.goalsFor);
+            dto.setGoalsAgainst(r.goalsAgainst);
+            dto.setGoalDifference(r.goalsFor - r.goalsAgainst);
+            dto.setPoints(3 * r.won + r.drawn);
+        }
+        return dto;
+    }
+
+    /**
+     * Running totals of one team; guarded by the service's lock.
+     */
+    private static final class TeamRecord {
+        int won;
+        int drawn;
+        int lost;
+        int goalsFor;
+        int goalsAgainst;
+
+        void add(int scored, int conceded, int sign) {
+            goalsFor += sign * scored;
+            goalsAgainst += sign * conceded;
+            if (scored > conceded) {
+                won += sign;
+            } else if (scored == conceded) {
+                drawn += sign;
+            } else {
+                lost += sign;
+            }
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.example.library.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.library.dto.CoachDTO;
+import com.example.library.dto.LeagueDTO;
+import com.example.library.dto.MatchDTO;
+import com.example.library.dto.PlayerDTO;
+import com.example.library.dto.TeamDTO;
+import com.example.library.model.Coach;
+import com.example.library.model.League;
+import com.example.library.model.Match;
+import com.example.library.model.Player;
+import com.example.library.model.Team;
+import com.example.library.repository.CoachRepository;
+import com.example.library.repository.LeagueRepository;
+import com.example.library.repository.MatchRepository;
+import com.example.library.repository.PlayerRepository;
+import com.example.library.repository.impl.ConcurrencyLimit;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Assembles TeamDTO graphs for a whole set of teams at once.
+ * Coaches, leagues, players and matches are each fetched with one set-based query
+ * for all requested teams and stitched together in memory, so the number of
+ * queries does not depend on the number of teams. Associations left out of the
+ * requested {@link TeamView} are not fetched at all. Matches show their pending live
+ * score, as match reads do (see {@link LiveScoreBuffer#overlay}).
+ * <p>
+ * Players and matches are independent database round trips: when both are requested they
+ * are fetched concurrently on a small bounded pool (virtual threads in the virtual-thread
+ * mode) while the caller resolves coaches and leagues, so the latency is that of the slowest
+ * query rather than their sum. The loader fans out only when the extra connections are idle and
+ * the read limit has permits for them, so under load a request neither waits for connections
+ * held by requests waiting for it nor is rejected for the extra queries: it fetches sequentially
+ * instead. It never fans out inside a read-write transaction, whose uncommitted writes other
+ * connections cannot see.
+ * A fan-out that does not finish within the deadline fails with {@link QueryTimeoutException};
+ * errors of the queries themselves reach the caller unchanged. Each fanned-out query runs in a
+ * read-only transaction that times out at the deadline, which JdbcTemplate applies as the
+ * statement's query timeout: a query the caller gave up on is cancelled by the driver rather
+ * than holding its connection until it completes.
+ * <p>
+ * Publishes {@code library.team-loader.loads}, tagged with the mode (concurrent, sequential).
+ */
+@Component
+public class TeamAggregateLoader {
+    private final CoachRepository coachRepository;
+    private final LeagueRepository leagueRepository;
+    private final PlayerRepository playerRepository;
+    private final MatchRepository matchRepository;
+    private final LiveScoreBuffer liveScores;
+    private final HikariDataSource pool;
+    private final PlatformTransactionManager transactionManager;
+    private final ConcurrencyLimit readLimit;
+    private final Executor executor;
+    private final long timeout;
+    private final Counter concurrentLoads;
+    private final Counter sequentialLoads;
+
+    /**
+     * Constructs a TeamAggregateLoader with the repositories of the team associations.
+     *
+     * @param coachRepository    Repository for coach data access.
+     * @param leagueRepository   Repository for league data access.
+     * @param playerRepository   Repository for player data access.
+     * @param matchRepository    Repository for match data access.
+     * @param liveScores         Write-behind buffer whose pending scores the matches show.
+     * @param connectionPool     The connection pool; without one nothing is fetched concurrently.
+     * @param readLimit          The limit of concurrent database reads, absent in the {@code inmemory} profile.
+     * @param transactionManager The transaction manager, to bound the fanned-out queries by the deadline.
+     * @param threads            Number of threads fetching associations; when all are busy, the caller fetches itself.
+     * @param timeout            Deadline in milliseconds for the concurrently fetched associations.
+     * @param virtualThreads     Whether to fetch on virtual threads instead of the pool (Java 21).
+     * @param registry           The registry for the metrics.
+     */
+    public TeamAggregateLoader(CoachRepository coachRepository,
+                               LeagueRepository leagueRepository,
+                               PlayerRepository playerRepository,
+                               MatchRepository matchRepository,
+                               LiveScoreBuffer liveScores,
+                               ObjectProvider<HikariDataSource> connectionPool,
+                               @Qualifier("readLimit") ObjectProvider<ConcurrencyLimit> readLimit,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${library.team-loader.threads:4}") int threads,
+                               @Value("${library.team-loader.timeout:5000}") long timeout,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               MeterRegistry registry) {
+        this.coachRepository = coachRepository;
+        this.leagueRepository = leagueRepository;
+        this.playerRepository = playerRepository;
+        this.matchRepository = matchRepository;
+        this.liveScores = liveScores;
+        this.pool = connectionPool.getIfAvailable();
+        this.readLimit = readLimit.getIfAvailable();
+        this.transactionManager = transactionManager;
+        this.timeout = timeout;
+        if (virtualThreads && Runtime.version().feature() >= 21) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("team-loader-");
+            virtual.setVirtualThreads(true);
+            virtual.setConcurrencyLimit(threads);
+            this.executor = virtual;
+        } else {
+            AtomicInteger count = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), r -> {
+                    Thread t = new Thread(r, "team-loader-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        this.concurrentLoads = Counter.builder("library.team-loader.loads")
+            .tag("mode", "concurrent")
+            .description("TeamDTO loads, by whether players and matches were fetched concurrently")
+            .register(registry);
+        this.sequentialLoads = Counter.builder("library.team-loader.loads")
+            .tag("mode", "sequential")
+            .description("TeamDTO loads, by whether players and matches were fetched concurrently")
+            .register(registry);
+    }
+
+    /**
+     * Stops the fetching threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ThreadPoolExecutor threads) {
+            threads.shutdown();
+        }
+    }
+
+    /**
+     * Converts a single Team entity to a fully populated TeamDTO.
+     *
+     * @param team The Team entity to convert.
+     * @return The corresponding TeamDTO.
+     */
+    public TeamDTO load(Team team) {
+        return load(List.of(team)).get(0);
+    }
+
+    /**
+     * Converts the given Team entities to fully populated TeamDTOs.
+     *
+     * @param teams The Team entities to convert.
+     * @return The TeamDTOs, in the same order as the given teams.
+     */
+    public List<TeamDTO> load(List<Team> teams) {
+        return load(teams, TeamView.FULL);
+    }
+
+    /**
+     * Converts the given Team entities to TeamDTOs holding only the requested parts.
+     * Associations that are not requested are not queried at all and stay null.
+     *
+     * @param teams The Team entities to convert.
+     * @param view  The parts to load.
+     * @return The TeamDTOs, in the same order as the given teams.
+     */
+    public List<TeamDTO> load(List<Team> teams, TeamView view) {
+        if (teams.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, TeamDTO> byTeam = new LinkedHashMap<>();
+        for (Team team : teams) {
+            TeamDTO dto = new TeamDTO();
+            dto.setId(team.getId());
+            if (view.has(TeamView.Part.NAME)) {
+                dto.setName(team.getName());
+            }
+            if (view.has(TeamView.Part.PLAYERS)) {
+                dto.setPlayers(new ArrayList<>());
+            }
+            if (view.has(TeamView.Part.MATCHES)) {
+                dto.setMatches(new ArrayList<>());
+            }
+            byTeam.put(team.getId(), dto);
+        }
+
+        // players and matches are independent round trips: start them first
+        boolean concurrent = view.has(TeamView.Part.PLAYERS) && view.has(TeamView.Part.MATCHES) && canFanOut(2);
+        (concurrent ? concurrentLoads : sequentialLoads).increment();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        List<Long> teamIds = new ArrayList<>(byTeam.keySet());
+        CompletableFuture<List<Player>> players = view.has(TeamView.Part.PLAYERS)
+            ? fetch(() -> playerRepository.findByTeamIds(teamIds), concurrent, deadline) : null;
+        CompletableFuture<List<Match>> matches = view.has(TeamView.Part.MATCHES)
+            ? fetch(() -> matchRepository.findByTeamIds(teamIds), concurrent, deadline) : null;
+
+        // coaches and leagues
+        if (view.has(TeamView.Part.COACH)) {
+            Map<Long, CoachDTO> coaches = coachRepository.findByIds(
+                    teams.stream().map(Team::getCoachId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Coach::getId, this::toCoachDTO));
+            for (Team team : teams) {
+                byTeam.get(team.getId()).setCoach(coaches.get(team.getCoachId()));
+            }
+        }
+        if (view.has(TeamView.Part.LEAGUE)) {
+            Map<Long, LeagueDTO> leagues = leagueRepository.findByIds(
+                    teams.stream().map(Team::getLeagueId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(League::getId, this::toLeagueDTO));
+            for (Team team : teams) {
+                byTeam.get(team.getId()).setLeague(leagues.get(team.getLeagueId()));
+            }
+        }
+
+        // players
+        if (players != null) {
+            for (Player p : await(players, deadline, matches)) {
+                TeamDTO dto = byTeam.get(p.getTeamId());
+                if (dto != null) {
+                    dto.getPlayers().add(toPlayerDTO(p));
+                }
+            }
+        }
+
+        if (matches == null) {
+            return new ArrayList<>(byTeam.values());
+        }
+        // matches: a match between two requested teams belongs to both of them
+        Map<Long, MatchDTO> matchDTOs = new HashMap<>();
+        for (Match m : await(matches, deadline, null)) {
+            MatchDTO md = matchDTOs.computeIfAbsent(m.getId(), id -> toMatchDTO(m));
+            TeamDTO home = byTeam.get(m.getHomeTeamId());
+            if (home != null) {
+                home.getMatches().add(md);
+            }
+            TeamDTO away = byTeam.get(m.getAwayTeamId());
+            if (away != null && away != home) {
+                away.getMatches().add(md);
+            }
+        }
+
+        return new ArrayList<>(byTeam.values());
+    }
+
+    /**
+     * Tells whether queries may run on other connections than the caller's: outside read-write
+     * transactions, and only while the pool has enough idle connections and the read limit
+     * enough free permits for them.
+     *
+     * @param queries The number of queries to run concurrently.
+     */
+    private boolean canFanOut(int queries) {
+        if (pool == null || pool.getHikariPoolMXBean() == null) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        return pool.getHikariPoolMXBean().getIdleConnections() >= queries
+            && (readLimit == null || readLimit.available() >= queries);
+    }
+
+    /**
+     * Starts a query on the fetching threads, in a read-only transaction timing out at the
+     * deadline, or runs it right away on the caller's thread.
+     */
+    private <T> CompletableFuture<T> fetch(Supplier<T> query, boolean concurrent, long deadline) {
+        if (!concurrent) {
+            return CompletableFuture.completedFuture(query.get());
+        }
+        TransactionTemplate bounded = new TransactionTemplate(transactionManager);
+        bounded.setReadOnly(true);
+        bounded.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime() + 999_999_999L)));
+        return CompletableFuture.supplyAsync(() -> bounded.execute(status -> query.get()), executor);
+    }
+
+    /**
+     * Waits for a query until the deadline. Its exception, if any, is rethrown as is.
+     *
+     * @param result   The query.
+     * @param deadline The deadline, in {@link System#nanoTime()}.
+     * @param sibling  A query to cancel if this one fails, or null.
+     * @return The result of the query.
+     * @throws QueryTimeoutException if the deadline passes first.
+     */
+    private <T> T await(CompletableFuture<T> result, long deadline, CompletableFuture<?> sibling) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            cancel(sibling);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            result.cancel(false);
+            cancel(sibling);
+            throw new QueryTimeoutException("Loading team associations exceeded " + timeout + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(sibling);
+            throw new QueryTimeoutException("Interrupted while loading team associations");
+        }
+    }
+
+    private static void cancel(CompletableFuture<?> query) {
+        if (query != null) {
+            query.cancel(false);
+        }
+    }
+
+    private CoachDTO toCoachDTO(Coach coach) {
+        CoachDTO cd = new CoachDTO();
+        cd.setId(coach.getId());
+        cd.setName(coach.getName());
+        return cd;
+    }
+
+    private LeagueDTO toLeagueDTO(League league) {
+        LeagueDTO ld = new LeagueDTO();
+        ld.setId(league.getId());
+        ld.setName(league.getName());
+        return ld;
+    }
+
+    private PlayerDTO toPlayerDTO(Player p) {
+        PlayerDTO pd = new PlayerDTO();
+        pd.setId(p.getId());
+        pd.setName(p.getName());
+        return pd;
+    }
+
+    private MatchDTO toMatchDTO(Match m) {
+        MatchDTO md = new MatchDTO();
+        md.setId(m.getId());
+        md.setHomeTeamId(m.getHomeTeamId());
+        md.setAwayTeamId(m.getAwayTeamId());
+        md.setMatchDate(m.getMatchDate());
+        md.setHomeScore(m.getHomeScore());
+        md.setAwayScore(m.getAwayScore());
+        return liveScores.overlay(md);
+    }
+}
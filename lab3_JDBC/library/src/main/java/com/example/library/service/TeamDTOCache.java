@@ -0,0 +1,347 @@
+package com.example.library.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.library.dto.MatchDTO;
+import com.example.library.dto.PlayerDTO;
+import com.example.library.dto.TeamDTO;
+import com.example.library.event.CoachChangedEvent;
+import com.example.library.event.LeagueChangedEvent;
+import com.example.library.event.LiveScoreRecordedEvent;
+import com.example.library.event.MatchChangedEvent;
+import com.example.library.event.PlayerChangedEvent;
+import com.example.library.event.TeamChangedEvent;
+import com.example.library.model.Match;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of fully assembled TeamDTOs.
+ * Eviction is Caffeine's W-TinyLFU, weighted by the number of players and matches of an entry.
+ * Every entry records the coach, league, players and matches it was built from; committed
+ * changes of any of these rows, or of the team itself, invalidate exactly the affected entries.
+ * There is no expiry.
+ * <p>
+ * A global epoch, bumped by every invalidation, fences concurrent rebuilds: a DTO whose
+ * build started before an invalidation is returned to its caller but not cached.
+ * Concurrent misses of the same team share one build (see {@link SingleFlight}); an
+ * invalidation also detaches a build in flight, so later misses do not join it.
+ * Inside read-write transactions the cache is bypassed, so uncommitted state is never cached.
+ * Cached DTOs are shared between requests and must not be modified.
+ */
+@Component
+public class TeamDTOCache {
+    /**
+     * The kinds of rows a cached TeamDTO depends on, besides its own team row.
+     */
+    private enum Dependency { COACH, LEAGUE, PLAYER, MATCH }
+
+    private final Cache<Long, TeamDTO> cache;
+    private final Map<Dependency, Map<Long, Set<Long>>> dependents = new EnumMap<>(Dependency.class);
+    private final AtomicLong epoch = new AtomicLong();
+    private final SingleFlight<Long, TeamDTO> builds;
+    private final Timer loadTimer;
+
+    /**
+     * Constructs the cache and registers its metrics.
+     *
+     * @param maxWeight Maximum total weight; one unit per team, player and match.
+     * @param registry  The registry for the cache metrics.
+     */
+    public TeamDTOCache(@Value("${library.team-cache.max-weight:100000}") long maxWeight,
+                        MeterRegistry registry) {
+        for (Dependency d : Dependency.values()) {
+            dependents.put(d, new ConcurrentHashMap<>());
+        }
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeight)
+            .weigher((Long id, TeamDTO dto) -> 1 + dto.getPlayers().size() + dto.getMatches().size())
+            .executor(Runnable::run)
+            .removalListener((Long id, TeamDTO dto, RemovalCause cause) -> {
+                // a newer entry for the same team may already have linked itself; keep its links
+                if (id != null && dto != null && !cache().asMap().containsKey(id)) {
+                    unindex(id, dto);
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "teams");
+        this.builds = new SingleFlight<>("teams", registry);
+        this.loadTimer = Timer.builder("library.team-cache.load")
+            .description("Time to assemble TeamDTOs on a cache miss")
+            .register(registry);
+    }
+
+    /**
+     * Returns the cached TeamDTO of a team, building and caching it on a miss.
+     * Concurrent misses of the same team wait for the first one's build.
+     *
+     * @param teamId The ID of the team.
+     * @param loader Builds the TeamDTO from the database.
+     * @return The TeamDTO.
+     */
+    public TeamDTO get(Long teamId, Supplier<TeamDTO> loader) {
+        if (bypass()) {
+            return loader.get();
+        }
+        TeamDTO cached = cache.getIfPresent(teamId);
+        if (cached != null) {
+            return cached;
+        }
+        return builds.load(teamId, () -> {
+            long started = epoch.get();
+            TeamDTO dto = loadTimer.record(loader);
+            store(teamId, dto, started);
+            return dto;
+        });
+    }
+
+    /**
+     * Returns the cached TeamDTO of a team without building it on a miss.
+     *
+     * @param teamId The ID of the team.
+     * @return The cached TeamDTO, or null if there is none.
+     */
+    public TeamDTO peek(Long teamId) {
+        return bypass() ? null : cache.getIfPresent(teamId);
+    }
+
+    /**
+     * Returns the cached TeamDTOs of many teams without building missing ones.
+     *
+     * @param teamIds The IDs of the teams.
+     * @return The cached TeamDTOs by team ID; teams without an entry are absent.
+     */
+    public Map<Long, TeamDTO> peekAll(List<Long> teamIds) {
+        return bypass() ? new HashMap<>() : cache.getAllPresent(teamIds);
+    }
+
+    /**
+     * Returns the current epoch, to be taken before reading team rows that {@link #getAll}
+     * is then given to build from.
+     *
+     * @return The epoch.
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Returns the cached TeamDTOs of many teams, building all missing ones with one loader call.
+     * The loader may build from team rows read before the call; the built DTOs are then only
+     * cached if nothing was invalidated since those rows were read.
+     *
+     * @param teamIds The IDs of the teams, in the desired order.
+     * @param started The {@link #epoch} taken before the team rows used by the loader were read.
+     * @param loader  Builds the TeamDTOs of the given missing teams, in the given order.
+     * @return The TeamDTOs, in the order of the IDs.
+     */
+    public List<TeamDTO> getAll(List<Long> teamIds, long started, Function<List<Long>, List<TeamDTO>> loader) {
+        if (bypass()) {
+            return loader.apply(teamIds);
+        }
+        Map<Long, TeamDTO> found = new HashMap<>(cache.getAllPresent(teamIds));
+        List<Long> missing = new ArrayList<>();
+        for (Long id : teamIds) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<TeamDTO> loaded = loadTimer.record(() -> loader.apply(missing));
+            for (TeamDTO dto : loaded) {
+                store(dto.getId(), dto, started);
+                found.put(dto.getId(), dto);
+            }
+        }
+        List<TeamDTO> result = new ArrayList<>(teamIds.size());
+        for (Long id : teamIds) {
+            TeamDTO dto = found.get(id);
+            if (dto != null) {
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Invalidates a team whose own row changed.
+     *
+     * @param event The team change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamChanged(TeamChangedEvent event) {
+        invalidate(event.getTeamId());
+    }
+
+    /**
+     * Invalidates the teams that played, or now play, in a changed match.
+     *
+     * @param event The match change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchChanged(MatchChangedEvent event) {
+        epoch.incrementAndGet();
+        for (Match m : new Match[] {event.getPrevious(), event.getCurrent()}) {
+            if (m != null) {
+                invalidateTeam(m.getHomeTeamId());
+                invalidateTeam(m.getAwayTeamId());
+                invalidateDependents(Dependency.MATCH, m.getId());
+            }
+        }
+    }
+
+    /**
+     * Invalidates the teams of a match with a new live score, whose cached DTOs carry the
+     * score pending before it.
+     *
+     * @param event The accepted live score.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLiveScoreRecorded(LiveScoreRecordedEvent event) {
+        epoch.incrementAndGet();
+        invalidateTeam(event.getMatch().getHomeTeamId());
+        invalidateTeam(event.getMatch().getAwayTeamId());
+    }
+
+    /**
+     * Invalidates the teams a changed player left or joined.
+     * The team a player left is found through the dependency index when the event does not name it.
+     *
+     * @param event The player change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        epoch.incrementAndGet();
+        invalidateTeam(event.getPreviousTeamId());
+        invalidateTeam(event.getCurrentTeamId());
+        invalidateDependents(Dependency.PLAYER, event.getPlayerId());
+    }
+
+    /**
+     * Invalidates the teams coached by a changed coach.
+     *
+     * @param event The coach change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoachChanged(CoachChangedEvent event) {
+        epoch.incrementAndGet();
+        invalidateDependents(Dependency.COACH, event.getCoachId());
+    }
+
+    /**
+     * Invalidates the teams of a changed league.
+     *
+     * @param event The league change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeagueChanged(LeagueChangedEvent event) {
+        epoch.incrementAndGet();
+        invalidateDependents(Dependency.LEAGUE, event.getLeagueId());
+    }
+
+    private void invalidate(Long teamId) {
+        epoch.incrementAndGet();
+        invalidateTeam(teamId);
+    }
+
+    private void invalidateTeam(Long teamId) {
+        if (teamId != null) {
+            builds.forget(teamId);
+            cache.asMap().remove(teamId);
+        }
+    }
+
+    private void invalidateDependents(Dependency kind, Long rowId) {
+        Set<Long> teams = dependents.get(kind).get(rowId);
+        if (teams != null) {
+            for (Long teamId : new ArrayList<>(teams)) {
+                invalidateTeam(teamId);
+            }
+        }
+    }
+
+    /**
+     * Caches a freshly built DTO unless an invalidation happened since its build started.
+     * The check runs inside the entry's compute, which serializes it with the removal
+     * done by a concurrent invalidation of the same team.
+     */
+    private void store(Long teamId, TeamDTO dto, long started) {
+        cache.asMap().compute(teamId, (id, current) -> {
+            if (current != null || epoch.get() != started) {
+                return current;
+            }
+            index(id, dto);
+            return dto;
+        });
+    }
+
+    private void index(Long teamId, TeamDTO dto) {
+        if (dto.getCoach() != null) {
+            link(Dependency.COACH, dto.getCoach().getId(), teamId);
+        }
+        if (dto.getLeague() != null) {
+            link(Dependency.LEAGUE, dto.getLeague().getId(), teamId);
+        }
+        for (PlayerDTO p : dto.getPlayers()) {
+            link(Dependency.PLAYER, p.getId(), teamId);
+        }
+        for (MatchDTO m : dto.getMatches()) {
+            link(Dependency.MATCH, m.getId(), teamId);
+        }
+    }
+
+    private void unindex(Long teamId, TeamDTO dto) {
+        if (dto.getCoach() != null) {
+            unlink(Dependency.COACH, dto.getCoach().getId(), teamId);
+        }
+        if (dto.getLeague() != null) {
+            unlink(Dependency.LEAGUE, dto.getLeague().getId(), teamId);
+        }
+        for (PlayerDTO p : dto.getPlayers()) {
+            unlink(Dependency.PLAYER, p.getId(), teamId);
+        }
+        for (MatchDTO m : dto.getMatches()) {
+            unlink(Dependency.MATCH, m.getId(), teamId);
+        }
+    }
+
+    private void link(Dependency kind, Long rowId, Long teamId) {
+        dependents.get(kind).computeIfAbsent(rowId, id -> ConcurrentHashMap.newKeySet()).add(teamId);
+    }
+
+    private void unlink(Dependency kind, Long rowId, Long teamId) {
+        dependents.get(kind).computeIfPresent(rowId, (id, teams) -> {
+            teams.remove(teamId);
+            return teams.isEmpty() ? null : teams;
+        });
+    }
+
+    private Cache<Long, TeamDTO> cache() {
+        return cache;
+    }
+
+    private static boolean bypass() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
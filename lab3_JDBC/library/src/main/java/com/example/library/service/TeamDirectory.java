@@ -0,0 +1,127 @@
+package com.example.library.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.library.event.TeamChangedEvent;
+import com.example.library.event.TeamLeagueChangedEvent;
+import com.example.library.model.Team;
+import com.example.library.repository.TeamRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory directory of all teams: their names and the league each team plays in.
+ * Loaded from the database on startup and kept current from committed team changes,
+ * so that in-memory read models can resolve a team's league without SQL.
+ * Changes of league membership are re-published as {@link TeamLeagueChangedEvent}s.
+ */
+@Component
+public class TeamDirectory {
+    private final TeamRepository teamRepository;
+    private final ApplicationEventPublisher events;
+
+    private final Map<Long, Team> teams = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> leagueTeams = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a TeamDirectory.
+     *
+     * @param teamRepository Repository used to load all teams on startup.
+     * @param events         Publisher for league membership changes.
+     */
+    public TeamDirectory(TeamRepository teamRepository, ApplicationEventPublisher events) {
+        this.teamRepository = teamRepository;
+        this.events = events;
+    }
+
+    /**
+     * Loads all teams from the database.
+     */
+    @PostConstruct
+    void load() {
+        for (Team team : teamRepository.findAll()) {
+            put(team);
+        }
+    }
+
+    /**
+     * Returns the league of a team.
+     *
+     * @param teamId The ID of the team.
+     * @return The ID of the team's league, or null if the team is unknown.
+     */
+    public Long leagueOf(Long teamId) {
+        Team team = teams.get(teamId);
+        return team == null ? null : team.getLeagueId();
+    }
+
+    /**
+     * Returns the name of a team.
+     *
+     * @param teamId The ID of the team.
+     * @return The team's name, or null if the team is unknown.
+     */
+    public String nameOf(Long teamId) {
+        Team team = teams.get(teamId);
+        return team == null ? null : team.getName();
+    }
+
+    /**
+     * Returns the teams that currently play in a league.
+     *
+     * @param leagueId The ID of the league.
+     * @return A snapshot of the IDs of the league's teams; empty if the league has none.
+     */
+    public Set<Long> teamsOf(Long leagueId) {
+        Set<Long> ids = leagueTeams.get(leagueId);
+        return ids == null ? Collections.emptySet() : new HashSet<>(ids);
+    }
+
+    /**
+     * Applies a committed team change.
+     *
+     * @param event The team change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamChanged(TeamChangedEvent event) {
+        Team previous = event.getCurrent() == null
+                ? teams.remove(event.getTeamId())
+                : put(copyOf(event.getCurrent()));
+        if (previous != null) {
+            Set<Long> old = leagueTeams.get(previous.getLeagueId());
+            if (old != null && (event.getCurrent() == null
+                    || !previous.getLeagueId().equals(event.getCurrent().getLeagueId()))) {
+                old.remove(event.getTeamId());
+            }
+        }
+        Long previousLeague = previous == null ? null : previous.getLeagueId();
+        Long currentLeague = event.getCurrent() == null ? null : event.getCurrent().getLeagueId();
+        if (!Objects.equals(previousLeague, currentLeague)) {
+            events.publishEvent(new TeamLeagueChangedEvent(event.getTeamId(), previousLeague, currentLeague));
+        }
+    }
+
+    private Team put(Team team) {
+        Team previous = teams.put(team.getId(), team);
+        leagueTeams.computeIfAbsent(team.getLeagueId(), id -> ConcurrentHashMap.newKeySet()).add(team.getId());
+        return previous;
+    }
+
+    private static Team copyOf(Team team) {
+        Team copy = new Team();
+        copy.setId(team.getId());
+        copy.setName(team.getName());
+        copy.setCoachId(team.getCoachId());
+        copy.setLeagueId(team.getLeagueId());
+        return copy;
+    }
+}
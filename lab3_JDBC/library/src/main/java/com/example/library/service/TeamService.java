@@ -1,108 +1,190 @@
 package com.example.library.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.example.library.dto.CoachDTO;
-import com.example.library.dto.LeagueDTO;
-import com.example.library.dto.MatchDTO;
-import com.example.library.dto.PlayerDTO;
 import com.example.library.dto.TeamCreateUpdateDTO;
 import com.example.library.dto.TeamDTO;
-import com.example.library.model.Coach;
-import com.example.library.model.League;
+import com.example.library.event.PlayerChangedEvent;
+import com.example.library.event.TeamChangedEvent;
+import com.example.library.model.Player;
 import com.example.library.model.Team;
-import com.example.library.repository.CoachRepository;
-import com.example.library.repository.LeagueRepository;
-import com.example.library.repository.MatchRepository;
 import com.example.library.repository.PlayerRepository;
 import com.example.library.repository.TeamRepository;
 
 /**
  * Service layer for managing Team entities.
  * Handles business logic related to teams, including CRUD operations and data transformation.
+ * Every change is published as a {@link TeamChangedEvent}, and every roster move as a
+ * {@link PlayerChangedEvent}, for the in-memory read models.
  */
 @Service
 @Transactional
 public class TeamService {
+    /**
+     * The parts of a newly written team that are loaded for the response: coach and league,
+     * plus the players if a roster was applied. A new team has no matches to read.
+     */
+    private static final TeamView WRITTEN_PARTS = TeamView.of(null, "coach,league");
+    private static final TeamView WRITTEN_PARTS_WITH_PLAYERS = TeamView.of(null, "coach,league,players");
+
     private final TeamRepository teamRepository;
-    private final CoachRepository coachRepository;
-    private final LeagueRepository leagueRepository;
     private final PlayerRepository playerRepository;
-    private final MatchRepository matchRepository;
+    private final ReferenceValidator referenceValidator;
+    private final TeamAggregateLoader aggregateLoader;
+    private final TeamDTOCache teamCache;
+    private final PageLimits pageLimits;
+    private final ApplicationEventPublisher events;
 
     /**
      * Constructs a TeamService with necessary repositories.
      *
-     * @param teamRepository   Repository for team data access.
-     * @param coachRepository  Repository for coach data access.
-     * @param leagueRepository Repository for league data access.
-     * @param playerRepository Repository for player data access.
-     * @param matchRepository  Repository for match data access.
+     * @param teamRepository     Repository for team data access.
+     * @param playerRepository   Repository for player data access, to apply team rosters.
+     * @param referenceValidator Validator for the coach, league and players a team references.
+     * @param aggregateLoader    Loader that assembles TeamDTOs with their associations.
+     * @param teamCache          Cache of assembled TeamDTOs.
+     * @param pageLimits         Page size limits for list requests.
+     * @param events             Publisher for team change events.
      */
     public TeamService(TeamRepository teamRepository,
-                       CoachRepository coachRepository,
-                       LeagueRepository leagueRepository,
                        PlayerRepository playerRepository,
-                       MatchRepository matchRepository) {
+                       ReferenceValidator referenceValidator,
+                       TeamAggregateLoader aggregateLoader,
+                       TeamDTOCache teamCache,
+                       PageLimits pageLimits,
+                       ApplicationEventPublisher events) {
         this.teamRepository = teamRepository;
-        this.coachRepository = coachRepository;
-        this.leagueRepository = leagueRepository;
         this.playerRepository = playerRepository;
-        this.matchRepository = matchRepository;
+        this.referenceValidator = referenceValidator;
+        this.aggregateLoader = aggregateLoader;
+        this.teamCache = teamCache;
+        this.pageLimits = pageLimits;
+        this.events = events;
     }
 
     /**
-     * Retrieves all teams and converts them to DTOs.
+     * Retrieves one page of teams ordered by ID and converts them to DTOs.
+     * The requested associations of all teams of the page are loaded with a fixed number of queries.
      *
-     * @return A list of TeamDTOs.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit  The requested page size, or null for the default size.
+     * @param view   The parts of the TeamDTOs to load.
+     * @return The page of TeamDTOs together with the cursor of the next page.
+     * @throws BadRequestException if the cursor or the limit is invalid.
      */
-    public List<TeamDTO> findAll() {
-        return teamRepository.findAll()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<TeamDTO> findPage(String cursor, Integer limit, TeamView view) {
+        PageCursor after = PageCursor.decodeId(cursor);
+        int size = pageLimits.resolve(limit);
+        long epoch = teamCache.epoch();
+        List<Team> rows = teamRepository.findPage(after == null ? null : after.getId(), size + 1);
+        return CursorPage.of(rows, size, page -> toDTOs(page, view, epoch),
+                row -> PageCursor.encode(row.getId()));
+    }
+
+    /**
+     * Finds many teams by ID with one query per chunk of IDs and converts them to DTOs.
+     * The requested associations of all found teams are loaded with a fixed number of queries.
+     * IDs that do not exist are reported in the result instead of failing the request.
+     *
+     * @param ids  The IDs of the teams to find.
+     * @param view The parts of the TeamDTOs to load.
+     * @return The found TeamDTOs in request order, together with the missing IDs.
+     * @throws BadRequestException if no IDs or too many IDs are requested.
+     */
+    @Transactional(readOnly = true)
+    public MultiGet<TeamDTO> findByIds(List<Long> ids, TeamView view) {
+        pageLimits.checkIds(ids);
+        long epoch = teamCache.epoch();
+        return MultiGet.of(ids, teamRepository.findByIds(ids), Team::getId, rows -> toDTOs(rows, view, epoch));
     }
 
     /**
      * Finds a team by its ID and converts it to a DTO.
+     * Served from the TeamDTO cache; the team is only read and assembled on a miss.
      *
      * @param id The ID of the team to find.
      * @return The TeamDTO corresponding to the found team.
      * @throws NotFoundException if the team with the given ID is not found.
      */
+    @Transactional(readOnly = true)
     public TeamDTO findById(Long id) {
-        return toDTO(findTeamOrThrow(id));
+        return teamCache.get(id, () -> aggregateLoader.load(findTeamOrThrow(id)));
+    }
+
+    /**
+     * Finds a team by its ID and converts it to a DTO holding only the requested parts.
+     * A partial DTO is cut from the cached full DTO if there is one; otherwise only the
+     * requested parts are loaded, and the result is not cached.
+     *
+     * @param id   The ID of the team to find.
+     * @param view The parts of the TeamDTO to load.
+     * @return The TeamDTO corresponding to the found team.
+     * @throws NotFoundException if the team with the given ID is not found.
+     */
+    @Transactional(readOnly = true)
+    public TeamDTO findById(Long id, TeamView view) {
+        if (view.isFull()) {
+            return findById(id);
+        }
+        TeamDTO cached = teamCache.peek(id);
+        if (cached != null) {
+            return project(cached, view);
+        }
+        return aggregateLoader.load(List.of(findTeamOrThrow(id)), view).get(0);
     }
 
     /**
-     * Creates a new team based on the provided DTO.
-     * Validates the existence of related entities (coach, league, players).
+     * Creates a new team based on the provided DTO, together with its roster.
+     * The coach and league references are enforced by foreign keys; only if one is violated
+     * are the references checked, to report what is missing. The listed players are moved
+     * to the new team with set-based updates. The response is built from the written data:
+     * coach and league come from the dictionary, and a new team has no matches.
      *
      * @param dto The DTO containing data for the new team.
      * @return The DTO of the newly created team.
      * @throws NotFoundException if any related entity (coach, league, player) is not found.
      */
     public TeamDTO create(TeamCreateUpdateDTO dto) {
-        // проверяем, что связанные сущности существуют
-        coachRepository.findById(dto.getCoachId());
-        leagueRepository.findById(dto.getLeagueId());
-        dto.getPlayerIds().forEach(playerRepository::findById);
-
-        Team team = new Team();
-        team.setName(dto.getName());
-        team.setCoachId(dto.getCoachId());
-        team.setLeagueId(dto.getLeagueId());
-        Long id = teamRepository.create(team);
-        return findById(id);
+        List<Player> roster = findRoster(dto, null);
+        Team team = toEntity(dto);
+        try {
+            team.setId(teamRepository.create(team));
+        } catch (DataIntegrityViolationException e) {
+            throw references(dto).explain(e);
+        }
+        events.publishEvent(new TeamChangedEvent(team.getId(), team));
+        if (roster != null) {
+            syncRoster(team.getId(), dto.getPlayerIds(), roster);
+        }
+        TeamDTO created = aggregateLoader.load(List.of(team),
+                roster == null || roster.isEmpty() ? WRITTEN_PARTS : WRITTEN_PARTS_WITH_PLAYERS).get(0);
+        if (created.getPlayers() == null) {
+            created.setPlayers(new ArrayList<>());
+        }
+        created.setMatches(new ArrayList<>());
+        return created;
     }
 
     /**
-     * Updates an existing team with the data from the provided DTO.
-     * Validates the existence of the team and related entities.
+     * Updates an existing team with the data from the provided DTO and, if the DTO lists
+     * players, replaces its roster.
+     * A missing team is detected from the affected-row count and missing coach or league
+     * from the foreign keys. The roster is compared with the current assignment, and only
+     * players that join or leave the team are updated, with a fixed number of set-based
+     * statements. The team row is not read back; only its players and matches are loaded
+     * for the response.
      *
      * @param id  The ID of the team to update.
      * @param dto The DTO containing the updated data.
@@ -110,16 +192,23 @@ public class TeamService {
      * @throws NotFoundException if the team or any related entity is not found.
      */
     public TeamDTO update(Long id, TeamCreateUpdateDTO dto) {
-        Team existing = findTeamOrThrow(id);
-        coachRepository.findById(dto.getCoachId());
-        leagueRepository.findById(dto.getLeagueId());
-        dto.getPlayerIds().forEach(playerRepository::findById);
-
-        existing.setName(dto.getName());
-        existing.setCoachId(dto.getCoachId());
-        existing.setLeagueId(dto.getLeagueId());
-        teamRepository.update(existing);
-        return findById(id);
+        List<Player> roster = findRoster(dto, id);
+        Team team = toEntity(dto);
+        team.setId(id);
+        int updated;
+        try {
+            updated = teamRepository.update(team);
+        } catch (DataIntegrityViolationException e) {
+            throw references(dto).explain(e);
+        }
+        if (updated == 0) {
+            throw new NotFoundException("Team not found with id " + id);
+        }
+        events.publishEvent(new TeamChangedEvent(id, team));
+        if (roster != null) {
+            syncRoster(id, dto.getPlayerIds(), roster);
+        }
+        return aggregateLoader.load(team);
     }
 
     /**
@@ -133,6 +222,152 @@ public class TeamService {
         if (deleted == 0) {
             throw new NotFoundException("Team not found with id " + id);
         }
+        events.publishEvent(new TeamChangedEvent(id, null));
+    }
+
+    /**
+     * Reads and locks the players listed in the DTO and the current players of the team,
+     * with one query each. The rows stay locked until the transaction ends, so the roster
+     * cannot change between this read and the updates of {@link #syncRoster}.
+     * Players are only referenced by ID in the request, and a roster update writes the
+     * player rows, not the team row, so no constraint reports a missing player; missing
+     * players are detected here, and the coach and league are then checked along, so that
+     * all missing references are reported together.
+     *
+     * @param dto    The DTO whose roster to read.
+     * @param teamId The ID of the team whose players to read as well, or null for a new team.
+     * @return The listed and the current players with their current team, or null if the DTO
+     *         lists no roster.
+     * @throws NotFoundException listing every missing reference.
+     */
+    private List<Player> findRoster(TeamCreateUpdateDTO dto, Long teamId) {
+        if (dto.getPlayerIds() == null) {
+            return null;
+        }
+        Set<Long> listed = new HashSet<>(dto.getPlayerIds());
+        listed.remove(null);
+        List<Player> roster = playerRepository.findRosterForUpdate(listed, teamId);
+        long found = roster.stream().filter(p -> listed.contains(p.getId())).count();
+        if (found < listed.size()) {
+            references(dto).players(dto.getPlayerIds()).validate();
+        }
+        return roster;
+    }
+
+    /**
+     * Moves the listed players that play elsewhere to the team and releases the current
+     * players that are not listed, with one set-based update each.
+     * Every moved player is published as a {@link PlayerChangedEvent}; the players are
+     * locked by {@link #findRoster}, so every published move is one that was written.
+     *
+     * @param teamId    The ID of the team.
+     * @param playerIds The IDs of the players of the new roster.
+     * @param players   The listed and the current players, locked, with their current team.
+     */
+    private void syncRoster(Long teamId, List<Long> playerIds, List<Player> players) {
+        Set<Long> keep = new HashSet<>(playerIds);
+        List<Player> joining = new ArrayList<>();
+        List<Long> leaving = new ArrayList<>();
+        for (Player p : players) {
+            if (keep.contains(p.getId())) {
+                if (!teamId.equals(p.getTeamId())) {
+                    joining.add(p);
+                }
+            } else if (teamId.equals(p.getTeamId())) {
+                leaving.add(p.getId());
+            }
+        }
+        if (!joining.isEmpty()) {
+            playerRepository.assignTeam(joining.stream().map(Player::getId).collect(Collectors.toList()), teamId);
+            joining.forEach(p -> events.publishEvent(new PlayerChangedEvent(p.getId(), p.getTeamId(), teamId)));
+        }
+        if (!leaving.isEmpty()) {
+            playerRepository.assignTeam(leaving, null);
+            leaving.forEach(playerId -> events.publishEvent(new PlayerChangedEvent(playerId, teamId, null)));
+        }
+    }
+
+    /**
+     * Collects the coach and league referenced by the DTO, to explain a failed write.
+     *
+     * @param dto The DTO whose references to collect.
+     * @return The reference check.
+     */
+    private ReferenceValidator.Check references(TeamCreateUpdateDTO dto) {
+        return referenceValidator.check().coach(dto.getCoachId()).league(dto.getLeagueId());
+    }
+
+    /**
+     * Creates a Team entity from the DTO.
+     *
+     * @param dto The DTO with the team data.
+     * @return The Team entity, without ID.
+     */
+    private static Team toEntity(TeamCreateUpdateDTO dto) {
+        Team team = new Team();
+        team.setName(dto.getName());
+        team.setCoachId(dto.getCoachId());
+        team.setLeagueId(dto.getLeagueId());
+        return team;
+    }
+
+    /**
+     * Converts Team entities to TeamDTOs, taking cached DTOs where available and
+     * assembling the others together.
+     * Full DTOs go through the cache; partial DTOs are cut from cached full DTOs
+     * where possible and otherwise loaded with only the requested parts, without caching.
+     *
+     * @param teams The Team entities to convert.
+     * @param view  The parts of the TeamDTOs to load.
+     * @param epoch The cache epoch taken before the Team entities were read.
+     * @return The TeamDTOs, in the same order as the given teams.
+     */
+    private List<TeamDTO> toDTOs(List<Team> teams, TeamView view, long epoch) {
+        Map<Long, Team> byId = new HashMap<>();
+        teams.forEach(t -> byId.put(t.getId(), t));
+        List<Long> ids = teams.stream().map(Team::getId).collect(Collectors.toList());
+        if (view.isFull()) {
+            return teamCache.getAll(ids, epoch,
+                    missing -> aggregateLoader.load(missing.stream().map(byId::get).collect(Collectors.toList())));
+        }
+        Map<Long, TeamDTO> cached = teamCache.peekAll(ids);
+        List<Team> missing = teams.stream().filter(t -> !cached.containsKey(t.getId())).collect(Collectors.toList());
+        Map<Long, TeamDTO> loaded = new HashMap<>();
+        aggregateLoader.load(missing, view).forEach(dto -> loaded.put(dto.getId(), dto));
+        List<TeamDTO> result = new ArrayList<>(teams.size());
+        for (Long id : ids) {
+            TeamDTO full = cached.get(id);
+            result.add(full != null ? project(full, view) : loaded.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Copies the requested parts of a full TeamDTO into a new DTO.
+     *
+     * @param full The full TeamDTO; it is not modified.
+     * @param view The parts to copy.
+     * @return The partial TeamDTO.
+     */
+    private static TeamDTO project(TeamDTO full, TeamView view) {
+        TeamDTO dto = new TeamDTO();
+        dto.setId(full.getId());
+        if (view.has(TeamView.Part.NAME)) {
+            dto.setName(full.getName());
+        }
+        if (view.has(TeamView.Part.COACH)) {
+            dto.setCoach(full.getCoach());
+        }
+        if (view.has(TeamView.Part.LEAGUE)) {
+            dto.setLeague(full.getLeague());
+        }
+        if (view.has(TeamView.Part.PLAYERS)) {
+            dto.setPlayers(full.getPlayers());
+        }
+        if (view.has(TeamView.Part.MATCHES)) {
+            dto.setMatches(full.getMatches());
+        }
+        return dto;
     }
 
     /**
@@ -149,61 +384,4 @@ public class TeamService {
             throw new NotFoundException("Team not found with id " + id);
         }
     }
-
-    /**
-     * Converts a Team entity to a TeamDTO, fetching related entities.
-     *
-     * @param team The Team entity to convert.
-     * @return The corresponding TeamDTO.
-     */
-    private TeamDTO toDTO(Team team) {
-        TeamDTO dto = new TeamDTO();
-        dto.setId(team.getId());
-        dto.setName(team.getName());
-
-        // coach
-        Coach coach = coachRepository.findById(team.getCoachId());
-        CoachDTO cd = new CoachDTO();
-        cd.setId(coach.getId());
-        cd.setName(coach.getName());
-        dto.setCoach(cd);
-
-        // league
-        League league = leagueRepository.findById(team.getLeagueId());
-        LeagueDTO ld = new LeagueDTO();
-        ld.setId(league.getId());
-        ld.setName(league.getName());
-        dto.setLeague(ld);
-
-        // players
-        List<PlayerDTO> players = playerRepository.findAll().stream()
-            .filter(p -> p.getTeamId().equals(team.getId()))
-            .map(p -> {
-                PlayerDTO pd = new PlayerDTO();
-                pd.setId(p.getId());
-                pd.setName(p.getName());
-                return pd;
-            })
-            .collect(Collectors.toList());
-        dto.setPlayers(players);
-
-        // matches
-        List<MatchDTO> matches = matchRepository.findAll().stream()
-            .filter(m -> m.getHomeTeamId().equals(team.getId())
-                      || m.getAwayTeamId().equals(team.getId()))
-            .map(m -> {
-                MatchDTO md = new MatchDTO();
-                md.setId(m.getId());
-                md.setHomeTeamId(m.getHomeTeamId());
-                md.setAwayTeamId(m.getAwayTeamId());
-                md.setMatchDate(m.getMatchDate());
-                md.setHomeScore(m.getHomeScore());
-                md.setAwayScore(m.getAwayScore());
-                return md;
-            })
-            .collect(Collectors.toList());
-        dto.setMatches(matches);
-
-        return dto;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.example.library.service;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The parts of a TeamDTO a client asked for with {@code ?fields=} and {@code ?include=}.
+ * {@code fields} lists the top-level fields to return ({@code id} is always returned);
+ * {@code include} lists the associations to load. Omitting a parameter means "all",
+ * so a request without either gets the full TeamDTO as before.
+ */
+public final class TeamView {
+    /**
+     * The parts of a TeamDTO that can be left out.
+     */
+    public enum Part { NAME, COACH, LEAGUE, PLAYERS, MATCHES }
+
+    /**
+     * The view with every part; used when the client asks for nothing specific.
+     */
+    public static final TeamView FULL = new TeamView(EnumSet.allOf(Part.class));
+
+    private static final Set<Part> ASSOCIATIONS = EnumSet.of(Part.COACH, Part.LEAGUE, Part.PLAYERS, Part.MATCHES);
+
+    private final Set<Part> parts;
+
+    private TeamView(Set<Part> parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Parses the {@code fields} and {@code include} request parameters.
+     *
+     * @param fields  Comma-separated top-level fields, or null for all.
+     * @param include Comma-separated associations, or null for all.
+     * @return The requested view.
+     * @throws BadRequestException if a name is unknown or {@code include} names a non-association.
+     */
+    public static TeamView of(String fields, String include) {
+        if (fields == null && include == null) {
+            return FULL;
+        }
+        Set<Part> parts = EnumSet.allOf(Part.class);
+        if (fields != null) {
+            parts.retainAll(parse(fields, "fields", EnumSet.allOf(Part.class)));
+        }
+        if (include != null) {
+            Set<Part> included = parse(include, "include", ASSOCIATIONS);
+            included.add(Part.NAME);
+            parts.retainAll(included);
+        }
+        return new TeamView(parts);
+    }
+
+    /**
+     * Tells whether a part is requested.
+     *
+     * @param part The part.
+     * @return True if the part must be loaded and returned.
+     */
+    public boolean has(Part part) {
+        return parts.contains(part);
+    }
+
+    /**
+     * Tells whether this is the full view, i.e. whether a fully assembled TeamDTO is wanted.
+     *
+     * @return True if every part is requested.
+     */
+    public boolean isFull() {
+        return parts.size() == Part.values().length;
+    }
+
+    private static Set<Part> parse(String value, String param, Set<Part> allowed) {
+        Set<Part> result = EnumSet.noneOf(Part.class);
+        for (String token : value.split(",")) {
+            String name = token.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty() || name.equals("ID")) {
+                continue;
+            }
+            Part part;
+            try {
+                part = Part.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown " + param + " value '" + token.trim() + "'");
+            }
+            if (!allowed.contains(part)) {
+                throw new BadRequestException("Unknown " + param + " value '" + token.trim() + "'");
+            }
+            result.add(part);
+        }
+        return result;
+    }
+}
@@ -28,7 +28,10 @@ CREATE TABLE teams (
 CREATE TABLE players (
                          id BIGINT AUTO_INCREMENT PRIMARY KEY,
                          name VARCHAR(255) NOT NULL,
-                         team_id BIGINT NOT NULL,
+                         -- NULL: игрок исключён из состава команды и пока свободен
+                         team_id BIGINT NULL,
+                         -- состав команды: поиск игроков по team_id без полного сканирования
+                         INDEX idx_players_team (team_id, id),
                          FOREIGN KEY (team_id) REFERENCES teams(id)
 );
 
@@ -39,6 +42,11 @@ CREATE TABLE matches (
                          match_date DATETIME NOT NULL,
                          home_score INT NOT NULL,
                          away_score INT NOT NULL,
+                         -- матчи команды (дома / в гостях) в хронологическом порядке
+                         INDEX idx_matches_home_date (home_team_id, match_date, id),
+                         INDEX idx_matches_away_date (away_team_id, match_date, id),
+                         -- выборка матчей по диапазону дат
+                         INDEX idx_matches_date (match_date, id),
                          FOREIGN KEY (home_team_id) REFERENCES teams(id),
                          FOREIGN KEY (away_team_id) REFERENCES teams(id)
 );
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.example.library;
+
+import com.example.library.controller.GlobalExceptionHandler;
+import com.example.library.repository.impl.ConcurrencyLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the adaptive database {@link ConcurrencyLimit}, without an application context.
+ */
+class ConcurrencyLimitTests {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * Tests that a statement slower than the target latency, or a dropped one,
+     * shrinks the limit by the backoff factor, but never below the minimum.
+     */
+    @Test
+    void slowStatementsShrinkTheLimit() {
+        ConcurrencyLimit limit = new ConcurrencyLimit("reads", 10, 2, 20, 250, 0.5, 0);
+        limit.onSample(SLOW);
+        Assertions.assertEquals(5, limit.available());
+        limit.onDropped();
+        Assertions.assertEquals(2, limit.available());
+        limit.onSample(SLOW);
+        Assertions.assertEquals(2, limit.available(), "The limit must not drop below the minimum");
+    }
+
+    /**
+     * Tests that fast statements grow the limit while it is at least half used,
+     * and leave it alone while it is mostly idle.
+     */
+    @Test
+    void fastStatementsGrowTheBusyLimit() {
+        ConcurrencyLimit limit = new ConcurrencyLimit("reads", 2, 1, 3, 250, 0.9, 0);
+        limit.acquire();
+        limit.acquire();
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(FAST);
+        }
+        Assertions.assertEquals(1, limit.available(), "A busy limit must grow up to the maximum");
+        limit.release();
+        limit.release();
+
+        ConcurrencyLimit idle = new ConcurrencyLimit("reads", 4, 1, 10, 250, 0.9, 0);
+        idle.acquire();
+        for (int i = 0; i < 20; i++) {
+            idle.onSample(FAST);
+        }
+        Assertions.assertEquals(3, idle.available(), "A mostly idle limit must not grow");
+    }
+
+    /**
+     * Tests that a caller over the limit is rejected after the maximum wait, counted,
+     * and admitted again once a permit is returned.
+     */
+    @Test
+    void callersOverTheLimitAreRejected() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConcurrencyLimit limit = new ConcurrencyLimit("writes", 1, 1, 1, 250, 0.9, 20);
+        limit.bindTo(registry);
+        limit.acquire();
+        Assertions.assertThrows(TransientDataAccessResourceException.class, limit::acquire);
+        Assertions.assertEquals(1.0, registry.get("library.db-limit.rejected").tag("kind", "writes").counter().count());
+        Assertions.assertEquals(1.0, registry.get("library.db-limit.in-flight").tag("kind", "writes").gauge().value());
+        limit.release();
+        limit.acquire();
+        limit.release();
+    }
+
+    /**
+     * Tests that a rejection by the limit is answered with 503 and a Retry-After header.
+     */
+    @Test
+    void rejectionIsServiceUnavailableWithRetryAfter() {
+        ConcurrencyLimit limit = new ConcurrencyLimit("reads", 1, 1, 1, 250, 0.9, 0);
+        limit.acquire();
+        TransientDataAccessResourceException rejection =
+            Assertions.assertThrows(TransientDataAccessResourceException.class, limit::acquire);
+        ResponseEntity<Map<String, String>> response = new GlobalExceptionHandler().handleOverloaded(rejection);
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        Assertions.assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
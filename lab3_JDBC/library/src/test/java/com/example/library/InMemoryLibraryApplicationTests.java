@@ -0,0 +1,106 @@
+package com.example.library;
+
+import com.example.library.dto.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Runs all integration tests of {@link LibraryApplicationTests} against the in-memory
+ * repositories of the {@code inmemory} profile, without a database.
+ */
+@ActiveProfiles("inmemory")
+class InMemoryLibraryApplicationTests extends LibraryApplicationTests {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    /**
+     * The in-memory profile has no dictionary cache in front of the repositories;
+     * coach writes must still be visible right away.
+     */
+    @Test
+    @Override
+    void dictionaryCacheFollowsWrites() {
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Stored Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        coachDTO.setName("Renamed Coach");
+        restTemplate.put("/api/coaches/{id}", coachDTO, coach.getId());
+        Assertions.assertEquals("Renamed Coach", restTemplate.getForObject("/api/coaches/{id}", CoachDTO.class, coach.getId()).getName());
+
+        restTemplate.delete("/api/coaches/{id}", coach.getId());
+        ResponseEntity<String> deleted = restTemplate.getForEntity("/api/coaches/{id}", String.class, coach.getId());
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, deleted.getStatusCode());
+    }
+
+    /**
+     * The in-memory profile has no database to protect, so there are no database limits.
+     */
+    @Test
+    @Override
+    void databaseLimitsArePublished() {
+        ResponseEntity<String> metric = restTemplate.getForEntity("/actuator/metrics/library.db-limit.limit", String.class);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, metric.getStatusCode());
+    }
+
+    /**
+     * Without a connection pool the team loader has nothing to gain from fetching concurrently.
+     */
+    @Override
+    String expectedTeamLoaderMode() {
+        return "sequential";
+    }
+
+    // === In-Memory Storage Tests ===
+    /**
+     * Tests that referenced rows cannot be deleted and that a batch with a missing team stores nothing.
+     */
+    @Test
+    void inMemoryStoreKeepsForeignKeys() {
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Referenced Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        LeagueCreateUpdateDTO leagueDTO = new LeagueCreateUpdateDTO();
+        leagueDTO.setName("Referenced League");
+        LeagueDTO league = restTemplate.postForObject("/api/leagues", leagueDTO, LeagueDTO.class);
+        TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+        teamDTO.setName("Referencing Team");
+        teamDTO.setCoachId(coach.getId());
+        teamDTO.setLeagueId(league.getId());
+        TeamDTO team = restTemplate.postForObject("/api/teams", teamDTO, TeamDTO.class);
+
+        ResponseEntity<String> deleteCoach = restTemplate.exchange("/api/coaches/{id}", HttpMethod.DELETE, null, String.class, coach.getId());
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, deleteCoach.getStatusCode());
+        Assertions.assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/coaches/{id}", String.class, coach.getId()).getStatusCode());
+
+        // the second match of the batch references a missing team: the first must not be kept
+        MatchCreateUpdateDTO valid = new MatchCreateUpdateDTO();
+        valid.setHomeTeamId(team.getId());
+        valid.setAwayTeamId(team.getId());
+        valid.setMatchDate(LocalDateTime.of(2032, 1, 1, 12, 0));
+        valid.setHomeScore(0);
+        valid.setAwayScore(0);
+        MatchCreateUpdateDTO invalid = new MatchCreateUpdateDTO();
+        invalid.setHomeTeamId(team.getId());
+        invalid.setAwayTeamId(Long.MAX_VALUE);
+        invalid.setMatchDate(LocalDateTime.of(2032, 1, 2, 12, 0));
+        invalid.setHomeScore(0);
+        invalid.setAwayScore(0);
+        MatchBatchCreateDTO batch = new MatchBatchCreateDTO();
+        batch.setMatches(List.of(valid, invalid));
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/matches/batch", batch, String.class);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, created.getStatusCode());
+        MatchDTO[] kept = restTemplate.getForObject(
+                "/api/matches?from=2032-01-01T00:00:00&to=2032-02-01T00:00:00", MatchDTO[].class);
+        Assertions.assertEquals(0, kept.length);
+
+        restTemplate.delete("/api/teams/{id}", team.getId());
+        restTemplate.delete("/api/coaches/{id}", coach.getId());
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/api/coaches/{id}", String.class, coach.getId()).getStatusCode());
+    }
+}
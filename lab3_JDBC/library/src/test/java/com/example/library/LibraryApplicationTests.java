@@ -9,9 +9,24 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 /**
  * Integration tests for the Library application.
@@ -391,7 +406,1272 @@ class LibraryApplicationTests {
         restTemplate.delete("/api/leagues/{id}", league.getId());
     }
     
+    // === Team-scoped Finder Tests ===
+    /**
+     * Tests the team-scoped finders exposed under /api/teams/{id}.
+     * Verifies that only the team's own players and matches are returned and that
+     * the optional date window restricts the matches.
+     */
+    @Test
+    void teamScopedFindersViaRest() {
+        Long teamId = createTeamForTesting();
+        Long otherTeamId = createTeamForTesting();
+
+        PlayerCreateUpdateDTO playerDTO = new PlayerCreateUpdateDTO();
+        playerDTO.setName("Scoped Player");
+        playerDTO.setTeamId(teamId);
+        PlayerDTO player = restTemplate.postForEntity("/api/players", playerDTO, PlayerDTO.class).getBody();
+        Assertions.assertNotNull(player);
+
+        LocalDateTime kickOff = LocalDateTime.of(2024, 5, 1, 18, 0);
+        MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+        matchDTO.setHomeTeamId(otherTeamId);
+        matchDTO.setAwayTeamId(teamId);
+        matchDTO.setMatchDate(kickOff);
+        matchDTO.setHomeScore(0);
+        matchDTO.setAwayScore(1);
+        MatchDTO match = restTemplate.postForEntity("/api/matches", matchDTO, MatchDTO.class).getBody();
+        Assertions.assertNotNull(match);
+
+        // Players of the team
+        ResponseEntity<List<PlayerDTO>> playersResponse = restTemplate.exchange(
+                "/api/teams/{id}/players", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<PlayerDTO>>() {}, teamId);
+        Assertions.assertEquals(HttpStatus.OK, playersResponse.getStatusCode());
+        List<PlayerDTO> players = playersResponse.getBody();
+        Assertions.assertNotNull(players);
+        Assertions.assertEquals(1, players.size());
+        Assertions.assertEquals(player.getId(), players.get(0).getId());
+
+        // Matches of the team as away side, inside and outside the date window
+        ResponseEntity<List<MatchDTO>> matchesResponse = restTemplate.exchange(
+                "/api/teams/{id}/matches?from={from}&to={to}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<MatchDTO>>() {},
+                teamId, "2024-05-01T00:00:00", "2024-05-02T00:00:00");
+        Assertions.assertEquals(HttpStatus.OK, matchesResponse.getStatusCode());
+        List<MatchDTO> matches = matchesResponse.getBody();
+        Assertions.assertNotNull(matches);
+        Assertions.assertEquals(1, matches.size());
+        Assertions.assertEquals(match.getId(), matches.get(0).getId());
+
+        ResponseEntity<List<MatchDTO>> emptyWindowResponse = restTemplate.exchange(
+                "/api/teams/{id}/matches?from={from}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<MatchDTO>>() {},
+                teamId, "2024-05-02T00:00:00");
+        Assertions.assertEquals(HttpStatus.OK, emptyWindowResponse.getStatusCode());
+        Assertions.assertNotNull(emptyWindowResponse.getBody());
+        Assertions.assertTrue(emptyWindowResponse.getBody().isEmpty());
+
+        // Unknown team
+        ResponseEntity<String> missingResponse = restTemplate.getForEntity(
+                "/api/teams/{id}/players", String.class, Long.MAX_VALUE);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missingResponse.getStatusCode());
+
+        restTemplate.delete("/api/matches/{id}", match.getId());
+        restTemplate.delete("/api/players/{id}", player.getId());
+    }
+
+    // === Pagination Tests ===
+    /**
+     * Tests keyset pagination of the match list.
+     * Walks a date window page by page via the X-Next-Cursor header and verifies that
+     * every match is returned exactly once, in (match date, ID) order.
+     */
+    @Test
+    void matchesPaginateWithCursor() {
+        Long homeTeamId = createTeamForTesting();
+        Long awayTeamId = createTeamForTesting();
+        LocalDateTime base = LocalDateTime.of(2019, 3, 10, 12, 0);
+        List<Long> createdIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MatchCreateUpdateDTO dto = new MatchCreateUpdateDTO();
+            dto.setHomeTeamId(homeTeamId);
+            dto.setAwayTeamId(awayTeamId);
+            // two matches share a kick-off time to exercise the ID tie-breaker
+            dto.setMatchDate(base.plusHours(i / 2));
+            dto.setHomeScore(i);
+            dto.setAwayScore(0);
+            MatchDTO created = restTemplate.postForEntity("/api/matches", dto, MatchDTO.class).getBody();
+            Assertions.assertNotNull(created);
+            createdIds.add(created.getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/matches?from=2019-03-10T00:00:00&to=2019-03-11T00:00:00&limit=2"
+                    + (cursor == null ? "" : "&cursor=" + cursor);
+            ResponseEntity<List<MatchDTO>> page = restTemplate.exchange(
+                    url, HttpMethod.GET, null, new ParameterizedTypeReference<List<MatchDTO>>() {});
+            Assertions.assertEquals(HttpStatus.OK, page.getStatusCode());
+            Assertions.assertNotNull(page.getBody());
+            Assertions.assertTrue(page.getBody().size() <= 2);
+            page.getBody().forEach(m -> seen.add(m.getId()));
+            cursor = page.getHeaders().getFirst("X-Next-Cursor");
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        Assertions.assertEquals(3, pages);
+        Assertions.assertEquals(createdIds, seen);
+
+        // Malformed cursor
+        ResponseEntity<String> badCursor = restTemplate.getForEntity(
+                "/api/matches?cursor=not-a-cursor", String.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, badCursor.getStatusCode());
+
+        createdIds.forEach(id -> restTemplate.delete("/api/matches/{id}", id));
+    }
+
+    // === Export Tests ===
+    /**
+     * Tests the streaming NDJSON export of matches.
+     * Verifies the content type and that a freshly created match appears as its own JSON line.
+     */
+    @Test
+    void matchesExportAsNdjson() {
+        Long homeTeamId = createTeamForTesting();
+        Long awayTeamId = createTeamForTesting();
+        MatchCreateUpdateDTO dto = new MatchCreateUpdateDTO();
+        dto.setHomeTeamId(homeTeamId);
+        dto.setAwayTeamId(awayTeamId);
+        dto.setMatchDate(LocalDateTime.of(2022, 8, 6, 15, 0));
+        dto.setHomeScore(4);
+        dto.setAwayScore(4);
+        MatchDTO match = restTemplate.postForEntity("/api/matches", dto, MatchDTO.class).getBody();
+        Assertions.assertNotNull(match);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/matches/export", String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getHeaders().getContentType());
+        Assertions.assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        Assertions.assertNotNull(response.getBody());
+        String[] lines = response.getBody().split("\n");
+        boolean found = false;
+        for (String line : lines) {
+            Assertions.assertTrue(line.startsWith("{") && line.endsWith("}"), "Each line must be a JSON object");
+            if (line.contains("\"id\":" + match.getId() + ",")) {
+                found = true;
+            }
+        }
+        Assertions.assertTrue(found, "Exported lines should contain the created match");
+
+        restTemplate.delete("/api/matches/{id}", match.getId());
+    }
+
+    // === Batch Ingestion Tests ===
+    /**
+     * Tests batch creation of matches.
+     * Verifies that IDs come back in input order and that a batch referencing an
+     * unknown team is rejected as a whole.
+     */
+    @Test
+    void matchesBatchCreateViaRest() {
+        Long homeTeamId = createTeamForTesting();
+        Long awayTeamId = createTeamForTesting();
+        List<MatchCreateUpdateDTO> entries = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            MatchCreateUpdateDTO dto = new MatchCreateUpdateDTO();
+            dto.setHomeTeamId(i % 2 == 0 ? homeTeamId : awayTeamId);
+            dto.setAwayTeamId(i % 2 == 0 ? awayTeamId : homeTeamId);
+            dto.setMatchDate(LocalDateTime.of(2023, 1, 1 + i, 20, 0));
+            dto.setHomeScore(i);
+            dto.setAwayScore(1);
+            entries.add(dto);
+        }
+        MatchBatchCreateDTO batch = new MatchBatchCreateDTO();
+        batch.setMatches(entries);
+
+        ResponseEntity<List<MatchDTO>> response = restTemplate.exchange(
+                "/api/matches/batch", HttpMethod.POST, new HttpEntity<>(batch),
+                new ParameterizedTypeReference<List<MatchDTO>>() {});
+        Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        List<MatchDTO> created = response.getBody();
+        Assertions.assertNotNull(created);
+        Assertions.assertEquals(3, created.size());
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertNotNull(created.get(i).getId());
+            Assertions.assertEquals(Integer.valueOf(i), created.get(i).getHomeScore());
+            if (i > 0) {
+                Assertions.assertTrue(created.get(i).getId() > created.get(i - 1).getId());
+            }
+            MatchDTO stored = restTemplate.getForObject("/api/matches/{id}", MatchDTO.class, created.get(i).getId());
+            Assertions.assertEquals(Integer.valueOf(i), stored.getHomeScore());
+            Assertions.assertEquals(entries.get(i).getHomeTeamId(), stored.getHomeTeamId());
+        }
+
+        // Unknown team in the last entry rejects the whole batch before anything is inserted
+        entries.get(2).setAwayTeamId(Long.MAX_VALUE);
+        ResponseEntity<String> rejected = restTemplate.postForEntity("/api/matches/batch", batch, String.class);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, rejected.getStatusCode());
+        Assertions.assertTrue(rejected.getBody().contains(String.valueOf(Long.MAX_VALUE)));
+        MatchDTO[] stored = restTemplate.getForObject(
+                "/api/matches?from=2023-01-01T00:00:00&to=2023-01-04T00:00:00", MatchDTO[].class);
+        Assertions.assertEquals(3, Arrays.stream(stored)
+                .filter(m -> m.getHomeTeamId().equals(homeTeamId) || m.getHomeTeamId().equals(awayTeamId))
+                .count());
+
+        // Empty batch fails validation
+        batch.setMatches(new ArrayList<>());
+        ResponseEntity<String> empty = restTemplate.postForEntity("/api/matches/batch", batch, String.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, empty.getStatusCode());
+
+        created.forEach(m -> restTemplate.delete("/api/matches/{id}", m.getId()));
+    }
+
+    // === Standings Tests ===
+    /**
+     * Tests the league table.
+     * Verifies points, goal difference and ordering, and that updating and deleting
+     * a match is reflected in the table immediately.
+     */
+    @Test
+    void leagueStandingsViaRest() {
+        LeagueCreateUpdateDTO leagueDTO = new LeagueCreateUpdateDTO();
+        leagueDTO.setName("Standings League");
+        LeagueDTO league = restTemplate.postForObject("/api/leagues", leagueDTO, LeagueDTO.class);
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Standings Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        List<Long> teamIds = new ArrayList<>();
+        for (String name : List.of("Alpha", "Bravo", "Charlie")) {
+            TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+            teamDTO.setName(name);
+            teamDTO.setCoachId(coach.getId());
+            teamDTO.setLeagueId(league.getId());
+            teamDTO.setPlayerIds(Collections.emptyList());
+            teamIds.add(restTemplate.postForObject("/api/teams", teamDTO, TeamDTO.class).getId());
+        }
+        Long alpha = teamIds.get(0);
+        Long bravo = teamIds.get(1);
+        Long charlie = teamIds.get(2);
+
+        // Alpha 2:0 Bravo, Bravo 1:1 Charlie
+        MatchCreateUpdateDTO first = new MatchCreateUpdateDTO();
+        first.setHomeTeamId(alpha);
+        first.setAwayTeamId(bravo);
+        first.setMatchDate(LocalDateTime.of(2023, 3, 1, 18, 0));
+        first.setHomeScore(2);
+        first.setAwayScore(0);
+        MatchDTO firstMatch = restTemplate.postForObject("/api/matches", first, MatchDTO.class);
+        MatchCreateUpdateDTO second = new MatchCreateUpdateDTO();
+        second.setHomeTeamId(bravo);
+        second.setAwayTeamId(charlie);
+        second.setMatchDate(LocalDateTime.of(2023, 3, 8, 18, 0));
+        second.setHomeScore(1);
+        second.setAwayScore(1);
+        MatchDTO secondMatch = restTemplate.postForObject("/api/matches", second, MatchDTO.class);
+
+        String url = "/api/leagues/{id}/standings";
+        StandingDTO[] table = restTemplate.getForObject(url, StandingDTO[].class, league.getId());
+        Assertions.assertEquals(3, table.length);
+        Assertions.assertEquals(alpha, table[0].getTeamId());
+        Assertions.assertEquals(3, table[0].getPoints());
+        Assertions.assertEquals(2, table[0].getGoalDifference());
+        Assertions.assertEquals(charlie, table[1].getTeamId());
+        Assertions.assertEquals(1, table[1].getPoints());
+        Assertions.assertEquals(bravo, table[2].getTeamId());
+        Assertions.assertEquals(2, table[2].getPlayed());
+        Assertions.assertEquals(1, table[2].getDrawn());
+        Assertions.assertEquals(1, table[2].getLost());
+        Assertions.assertEquals(-2, table[2].getGoalDifference());
+        Assertions.assertEquals(3, table[2].getPosition());
+
+        // Bravo wins the first match after a correction
+        first.setHomeScore(0);
+        first.setAwayScore(3);
+        restTemplate.put("/api/matches/{id}", first, firstMatch.getId());
+        table = restTemplate.getForObject(url, StandingDTO[].class, league.getId());
+        Assertions.assertEquals(bravo, table[0].getTeamId());
+        Assertions.assertEquals(4, table[0].getPoints());
+        Assertions.assertEquals(alpha, table[2].getTeamId());
+        Assertions.assertEquals(0, table[2].getPoints());
+
+        restTemplate.delete("/api/matches/{id}", firstMatch.getId());
+        restTemplate.delete("/api/matches/{id}", secondMatch.getId());
+        table = restTemplate.getForObject(url, StandingDTO[].class, league.getId());
+        for (StandingDTO row : table) {
+            Assertions.assertEquals(0, row.getPlayed());
+            Assertions.assertEquals(0, row.getPoints());
+        }
+
+        ResponseEntity<String> missing = restTemplate.getForEntity(url, String.class, Long.MAX_VALUE);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+    }
+
+    /**
+     * Tests that concurrent updates of one match leave the table as if they ran one after another,
+     * and that an update of a deleted match is rejected.
+     */
+    @Test
+    void concurrentMatchUpdatesKeepStandingsConsistent() throws Exception {
+        LeagueCreateUpdateDTO leagueDTO = new LeagueCreateUpdateDTO();
+        leagueDTO.setName("Contested League");
+        LeagueDTO league = restTemplate.postForObject("/api/leagues", leagueDTO, LeagueDTO.class);
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Contested Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        List<Long> teamIds = new ArrayList<>();
+        for (String name : List.of("Delta", "Echo")) {
+            TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+            teamDTO.setName(name);
+            teamDTO.setCoachId(coach.getId());
+            teamDTO.setLeagueId(league.getId());
+            teamDTO.setPlayerIds(Collections.emptyList());
+            teamIds.add(restTemplate.postForObject("/api/teams", teamDTO, TeamDTO.class).getId());
+        }
+        MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+        matchDTO.setHomeTeamId(teamIds.get(0));
+        matchDTO.setAwayTeamId(teamIds.get(1));
+        matchDTO.setMatchDate(LocalDateTime.of(2023, 4, 1, 18, 0));
+        matchDTO.setHomeScore(0);
+        matchDTO.setAwayScore(0);
+        MatchDTO match = restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class);
+
+        int writers = 8;
+        ExecutorService clients = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<ResponseEntity<String>>> updates = new ArrayList<>();
+            for (int i = 1; i <= writers; i++) {
+                MatchCreateUpdateDTO update = new MatchCreateUpdateDTO();
+                update.setHomeTeamId(teamIds.get(0));
+                update.setAwayTeamId(teamIds.get(1));
+                update.setMatchDate(matchDTO.getMatchDate());
+                update.setHomeScore(i);
+                update.setAwayScore(0);
+                updates.add(clients.submit(() -> restTemplate.exchange("/api/matches/{id}", HttpMethod.PUT,
+                        new HttpEntity<>(update), String.class, match.getId())));
+            }
+            for (Future<ResponseEntity<String>> update : updates) {
+                Assertions.assertEquals(HttpStatus.OK, update.get().getStatusCode());
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        MatchDTO stored = restTemplate.getForObject("/api/matches/{id}", MatchDTO.class, match.getId());
+        StandingDTO[] table = restTemplate.getForObject("/api/leagues/{id}/standings", StandingDTO[].class, league.getId());
+        for (StandingDTO row : table) {
+            Assertions.assertEquals(1, row.getPlayed());
+            int goals = row.getTeamId().equals(teamIds.get(0)) ? stored.getHomeScore() : stored.getAwayScore();
+            Assertions.assertEquals(goals, row.getGoalsFor());
+        }
+
+        restTemplate.delete("/api/matches/{id}", match.getId());
+        ResponseEntity<String> gone = restTemplate.exchange("/api/matches/{id}", HttpMethod.PUT,
+                new HttpEntity<>(matchDTO), String.class, match.getId());
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, gone.getStatusCode());
+    }
+
+    // === Head-to-Head Tests ===
+    /**
+     * Tests the head-to-head record of two teams.
+     * Verifies that the record is symmetric, lists the newest meetings first and
+     * follows match updates and deletions.
+     */
+    @Test
+    void headToHeadViaRest() {
+        Long teamA = createTeamForTesting();
+        Long teamB = createTeamForTesting();
+        List<Long> matchIds = new ArrayList<>();
+        int[][] scores = {{2, 1}, {0, 0}, {1, 3}};
+        for (int i = 0; i < scores.length; i++) {
+            MatchCreateUpdateDTO dto = new MatchCreateUpdateDTO();
+            dto.setHomeTeamId(i == 2 ? teamB : teamA);
+            dto.setAwayTeamId(i == 2 ? teamA : teamB);
+            dto.setMatchDate(LocalDateTime.of(2023, 4, 1 + i, 19, 0));
+            dto.setHomeScore(scores[i][0]);
+            dto.setAwayScore(scores[i][1]);
+            matchIds.add(restTemplate.postForObject("/api/matches", dto, MatchDTO.class).getId());
+        }
+
+        // A: won 2:1, drew 0:0, won 3:1 away
+        HeadToHeadDTO h2h = restTemplate.getForObject("/api/teams/{a}/vs/{b}?last=2", HeadToHeadDTO.class, teamA, teamB);
+        Assertions.assertEquals(3, h2h.getPlayed());
+        Assertions.assertEquals(2, h2h.getWins());
+        Assertions.assertEquals(1, h2h.getDraws());
+        Assertions.assertEquals(0, h2h.getLosses());
+        Assertions.assertEquals(5, h2h.getGoalsFor());
+        Assertions.assertEquals(2, h2h.getGoalsAgainst());
+        Assertions.assertEquals(2, h2h.getLastMeetings().size());
+        Assertions.assertEquals(matchIds.get(2), h2h.getLastMeetings().get(0).getId());
+
+        HeadToHeadDTO reverse = restTemplate.getForObject("/api/teams/{a}/vs/{b}", HeadToHeadDTO.class, teamB, teamA);
+        Assertions.assertEquals(2, reverse.getLosses());
+        Assertions.assertEquals(2, reverse.getGoalsFor());
+        Assertions.assertEquals(3, reverse.getLastMeetings().size());
+
+        restTemplate.delete("/api/matches/{id}", matchIds.get(0));
+        h2h = restTemplate.getForObject("/api/teams/{a}/vs/{b}", HeadToHeadDTO.class, teamA, teamB);
+        Assertions.assertEquals(2, h2h.getPlayed());
+        Assertions.assertEquals(1, h2h.getWins());
+        Assertions.assertEquals(3, h2h.getGoalsFor());
+
+        ResponseEntity<String> missing = restTemplate.getForEntity("/api/teams/{a}/vs/{b}", String.class, teamA, Long.MAX_VALUE);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+
+        matchIds.subList(1, matchIds.size()).forEach(id -> restTemplate.delete("/api/matches/{id}", id));
+    }
+
+    // === Multi-get Tests ===
+    /**
+     * Tests looking up many players and teams by ID in one request.
+     * Verifies request order, de-duplication and reporting of missing IDs.
+     */
+    @Test
+    void multiGetViaRest() {
+        Long teamId = createTeamForTesting();
+        List<Long> playerIds = new ArrayList<>();
+        for (String name : List.of("First", "Second")) {
+            PlayerCreateUpdateDTO dto = new PlayerCreateUpdateDTO();
+            dto.setName(name);
+            dto.setTeamId(teamId);
+            playerIds.add(restTemplate.postForObject("/api/players", dto, PlayerDTO.class).getId());
+        }
+        long missingId = Long.MAX_VALUE;
+
+        ResponseEntity<PlayerDTO[]> players = restTemplate.getForEntity(
+                "/api/players?ids={a},{m},{b},{c}", PlayerDTO[].class,
+                playerIds.get(1), missingId, playerIds.get(0), playerIds.get(1));
+        Assertions.assertEquals(HttpStatus.OK, players.getStatusCode());
+        Assertions.assertEquals(2, players.getBody().length);
+        Assertions.assertEquals(playerIds.get(1), players.getBody()[0].getId());
+        Assertions.assertEquals(playerIds.get(0), players.getBody()[1].getId());
+        Assertions.assertEquals(String.valueOf(missingId), players.getHeaders().getFirst("X-Missing-Ids"));
+
+        ResponseEntity<TeamDTO[]> teams = restTemplate.getForEntity("/api/teams?ids={id}", TeamDTO[].class, teamId);
+        Assertions.assertEquals(1, teams.getBody().length);
+        Assertions.assertEquals(2, teams.getBody()[0].getPlayers().size());
+        Assertions.assertNull(teams.getHeaders().getFirst("X-Missing-Ids"));
+
+        ResponseEntity<String> empty = restTemplate.getForEntity("/api/coaches?ids=", String.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, empty.getStatusCode());
+
+        playerIds.forEach(id -> restTemplate.delete("/api/players/{id}", id));
+    }
+
+    // === Reference Validation Tests ===
+    /**
+     * Tests that write requests with unknown references are rejected with 404
+     * and that every missing reference is reported at once.
+     */
+    @Test
+    void missingReferencesReportedTogether() {
+        Long teamId = createTeamForTesting();
+        TeamDTO team = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId);
+        long missing = Long.MAX_VALUE;
+
+        TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+        teamDTO.setName("Broken Team");
+        teamDTO.setCoachId(missing);
+        teamDTO.setLeagueId(team.getLeague().getId());
+        teamDTO.setPlayerIds(List.of(missing - 1, missing - 2));
+        ResponseEntity<Map<String, String>> response = restTemplate.exchange(
+                "/api/teams", HttpMethod.POST, new HttpEntity<>(teamDTO),
+                new ParameterizedTypeReference<Map<String, String>>() {});
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        String error = response.getBody().get("error");
+        Assertions.assertTrue(error.contains("Coach not found with id " + missing), error);
+        Assertions.assertTrue(error.contains("Players not found with ids [" + (missing - 2) + ", " + (missing - 1) + "]"), error);
+
+        PlayerCreateUpdateDTO playerDTO = new PlayerCreateUpdateDTO();
+        playerDTO.setName("Orphan");
+        playerDTO.setTeamId(missing);
+        ResponseEntity<String> player = restTemplate.postForEntity("/api/players", playerDTO, String.class);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, player.getStatusCode());
+    }
+
+    // === Dictionary Cache Tests ===
+    /**
+     * Tests that coach and league writes are visible through the dictionary cache
+     * and that the cache metrics are published.
+     */
+    @Test
+    void dictionaryCacheFollowsWrites() {
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Cached Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        Assertions.assertEquals("Cached Coach", restTemplate.getForObject("/api/coaches/{id}", CoachDTO.class, coach.getId()).getName());
+
+        coachDTO.setName("Renamed Coach");
+        restTemplate.put("/api/coaches/{id}", coachDTO, coach.getId());
+        Assertions.assertEquals("Renamed Coach", restTemplate.getForObject("/api/coaches/{id}", CoachDTO.class, coach.getId()).getName());
+
+        restTemplate.delete("/api/coaches/{id}", coach.getId());
+        ResponseEntity<String> deleted = restTemplate.getForEntity("/api/coaches/{id}", String.class, coach.getId());
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, deleted.getStatusCode());
+
+        ResponseEntity<String> metrics = restTemplate.getForEntity(
+                "/actuator/metrics/library.dictionary.requests?tag=cache:leagues", String.class);
+        Assertions.assertEquals(HttpStatus.OK, metrics.getStatusCode());
+    }
+
+    // === TeamDTO Cache Tests ===
+    /**
+     * Tests that cached TeamDTOs are invalidated when a player, match or coach
+     * they were built from changes.
+     */
+    @Test
+    void teamCacheFollowsDependencies() {
+        Long teamId = createTeamForTesting();
+        Long opponentId = createTeamForTesting();
+        TeamDTO team = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId);
+        Assertions.assertTrue(team.getPlayers().isEmpty());
+
+        PlayerCreateUpdateDTO playerDTO = new PlayerCreateUpdateDTO();
+        playerDTO.setName("Cache Player");
+        playerDTO.setTeamId(teamId);
+        PlayerDTO player = restTemplate.postForObject("/api/players", playerDTO, PlayerDTO.class);
+        team = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId);
+        Assertions.assertEquals(1, team.getPlayers().size());
+
+        // moving the player invalidates both teams
+        restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, opponentId);
+        playerDTO.setTeamId(opponentId);
+        restTemplate.put("/api/players/{id}", playerDTO, player.getId());
+        Assertions.assertTrue(restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId).getPlayers().isEmpty());
+        Assertions.assertEquals(1, restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, opponentId).getPlayers().size());
+
+        MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+        matchDTO.setHomeTeamId(teamId);
+        matchDTO.setAwayTeamId(opponentId);
+        matchDTO.setMatchDate(LocalDateTime.of(2023, 5, 1, 18, 0));
+        matchDTO.setHomeScore(1);
+        matchDTO.setAwayScore(0);
+        MatchDTO match = restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class);
+        Assertions.assertEquals(1, restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId).getMatches().size());
+        matchDTO.setHomeScore(4);
+        restTemplate.put("/api/matches/{id}", matchDTO, match.getId());
+        team = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId);
+        Assertions.assertEquals(Integer.valueOf(4), team.getMatches().get(0).getHomeScore());
+
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Renamed For Cache");
+        restTemplate.put("/api/coaches/{id}", coachDTO, team.getCoach().getId());
+        team = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId);
+        Assertions.assertEquals("Renamed For Cache", team.getCoach().getName());
+
+        restTemplate.delete("/api/matches/{id}", match.getId());
+        restTemplate.delete("/api/players/{id}", player.getId());
+        Assertions.assertTrue(restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId).getMatches().isEmpty());
+    }
+
+    // === Team Loader Tests ===
+    /**
+     * Tests that a TeamDTO assembled with concurrently fetched players and matches is complete,
+     * and that the loader fetched them in the mode expected for the storage.
+     */
+    @Test
+    void teamLoaderFetchesAssociations() {
+        Long teamId = createTeamForTesting();
+        Long opponentId = createTeamForTesting();
+        PlayerCreateUpdateDTO playerDTO = new PlayerCreateUpdateDTO();
+        playerDTO.setName("Loaded Player");
+        playerDTO.setTeamId(teamId);
+        PlayerDTO player = restTemplate.postForObject("/api/players", playerDTO, PlayerDTO.class);
+        MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+        matchDTO.setHomeTeamId(opponentId);
+        matchDTO.setAwayTeamId(teamId);
+        matchDTO.setMatchDate(LocalDateTime.of(2024, 3, 9, 15, 0));
+        matchDTO.setHomeScore(2);
+        matchDTO.setAwayScore(2);
+        MatchDTO match = restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class);
+        double before = teamLoads(expectedTeamLoaderMode());
+
+        TeamDTO team = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId);
+        Assertions.assertEquals(1, team.getPlayers().size());
+        Assertions.assertEquals("Loaded Player", team.getPlayers().get(0).getName());
+        Assertions.assertEquals(1, team.getMatches().size());
+        Assertions.assertEquals(match.getId(), team.getMatches().get(0).getId());
+        Assertions.assertNotNull(team.getCoach());
+        Assertions.assertNotNull(team.getLeague());
+        Assertions.assertTrue(teamLoads(expectedTeamLoaderMode()) > before);
+
+        restTemplate.delete("/api/matches/{id}", match.getId());
+        restTemplate.delete("/api/players/{id}", player.getId());
+    }
+
+    /**
+     * The mode in which the team loader fetches players and matches: concurrently against a connection pool.
+     */
+    String expectedTeamLoaderMode() {
+        return "concurrent";
+    }
+
+    // === Read Coalescing Tests ===
+    /**
+     * Tests that concurrent reads of the same match all get it, are counted as led or shared,
+     * and that a write is visible to the reads after it.
+     */
+    @Test
+    void concurrentReadsShareLoadsAndSeeWrites() throws Exception {
+        Long homeId = createTeamForTesting();
+        Long awayId = createTeamForTesting();
+        MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+        matchDTO.setHomeTeamId(homeId);
+        matchDTO.setAwayTeamId(awayId);
+        matchDTO.setMatchDate(LocalDateTime.of(2024, 6, 14, 21, 0));
+        matchDTO.setHomeScore(0);
+        matchDTO.setAwayScore(0);
+        MatchDTO match = restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class);
+        double before = coalescedReads("leader") + coalescedReads("follower");
+
+        int readers = 32;
+        ExecutorService clients = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<MatchDTO>> reads = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                reads.add(clients.submit(() -> restTemplate.getForObject("/api/matches/{id}", MatchDTO.class, match.getId())));
+            }
+            for (Future<MatchDTO> read : reads) {
+                Assertions.assertEquals(match.getId(), read.get().getId());
+                Assertions.assertEquals(Integer.valueOf(0), read.get().getHomeScore());
+            }
+        } finally {
+            clients.shutdown();
+        }
+        Assertions.assertEquals(before + readers, coalescedReads("leader") + coalescedReads("follower"));
+
+        matchDTO.setHomeScore(3);
+        restTemplate.put("/api/matches/{id}", matchDTO, match.getId());
+        Assertions.assertEquals(Integer.valueOf(3),
+                restTemplate.getForObject("/api/matches/{id}", MatchDTO.class, match.getId()).getHomeScore());
+        ResponseEntity<String> missing = restTemplate.getForEntity("/api/matches/{id}", String.class, Long.MAX_VALUE);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+
+        restTemplate.delete("/api/matches/{id}", match.getId());
+    }
+
+    // === Database Limit Tests ===
+    /**
+     * Tests that reads, writes and the streamed export pass the database limits, which publish
+     * their state and hold no permits once the requests are done.
+     */
+    @Test
+    void databaseLimitsArePublished() {
+        Long teamId = createTeamForTesting();
+        Assertions.assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/teams/{id}", String.class, teamId).getStatusCode());
+        Assertions.assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/matches/export", String.class).getStatusCode());
+
+        for (String kind : new String[] {"reads", "writes", "streams"}) {
+            Assertions.assertTrue(dbLimitMetric("library.db-limit.limit", kind) >= 1);
+            Assertions.assertEquals(0, dbLimitMetric("library.db-limit.in-flight", kind));
+            Assertions.assertEquals(0, dbLimitMetric("library.db-limit.queued", kind));
+            Assertions.assertEquals(0, dbLimitMetric("library.db-limit.rejected", kind));
+        }
+    }
+
+    // === Sparse Fieldset Tests ===
+    /**
+     * Tests {@code ?fields=} and {@code ?include=} on the team endpoints.
+     * Verifies that left-out parts are absent from the JSON and that unknown names are rejected.
+     */
+    @Test
+    void teamSparseFieldsetsViaRest() {
+        Long teamId = createTeamForTesting();
+        PlayerCreateUpdateDTO playerDTO = new PlayerCreateUpdateDTO();
+        playerDTO.setName("Sparse Player");
+        playerDTO.setTeamId(teamId);
+        PlayerDTO player = restTemplate.postForObject("/api/players", playerDTO, PlayerDTO.class);
+
+        ResponseEntity<Map<String, Object>> slim = restTemplate.exchange(
+                "/api/teams/{id}?fields=id,name,league", HttpMethod.GET, null,
+                new ParameterizedTypeReference<Map<String, Object>>() {}, teamId);
+        Assertions.assertEquals(HttpStatus.OK, slim.getStatusCode());
+        Assertions.assertEquals(Set.of("id", "name", "league"), slim.getBody().keySet());
+
+        ResponseEntity<Map<String, Object>> withPlayers = restTemplate.exchange(
+                "/api/teams/{id}?include=players", HttpMethod.GET, null,
+                new ParameterizedTypeReference<Map<String, Object>>() {}, teamId);
+        Assertions.assertEquals(Set.of("id", "name", "players"), withPlayers.getBody().keySet());
+        Assertions.assertEquals(1, ((List<?>) withPlayers.getBody().get("players")).size());
+
+        ResponseEntity<List<Map<String, Object>>> page = restTemplate.exchange(
+                "/api/teams?ids={id}&fields=name", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Map<String, Object>>>() {}, teamId);
+        Assertions.assertEquals(Set.of("id", "name"), page.getBody().get(0).keySet());
+
+        // full DTO is unchanged when nothing is requested
+        TeamDTO full = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId);
+        Assertions.assertNotNull(full.getCoach());
+        Assertions.assertNotNull(full.getMatches());
+
+        ResponseEntity<String> unknown = restTemplate.getForEntity("/api/teams/{id}?fields=salary", String.class, teamId);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, unknown.getStatusCode());
+
+        restTemplate.delete("/api/players/{id}", player.getId());
+    }
+
+    // === Write Response Tests ===
+    /**
+     * Tests that create and update responses, built without reading the rows back,
+     * match what is stored, and that missing rows and references still yield 404.
+     */
+    @Test
+    void writeResponsesMatchStoredState() {
+        Long teamId = createTeamForTesting();
+        TeamDTO team = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId);
+
+        TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+        teamDTO.setName("Renamed Team");
+        teamDTO.setCoachId(team.getCoach().getId());
+        teamDTO.setLeagueId(team.getLeague().getId());
+        ResponseEntity<TeamDTO> updated = restTemplate.exchange("/api/teams/{id}", HttpMethod.PUT,
+                new HttpEntity<>(teamDTO), TeamDTO.class, teamId);
+        Assertions.assertEquals(HttpStatus.OK, updated.getStatusCode());
+        Assertions.assertEquals("Renamed Team", updated.getBody().getName());
+        Assertions.assertEquals(team.getCoach().getName(), updated.getBody().getCoach().getName());
+        Assertions.assertEquals("Renamed Team",
+                restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId).getName());
+
+        teamDTO.setLeagueId(Long.MAX_VALUE);
+        ResponseEntity<String> badLeague = restTemplate.exchange("/api/teams/{id}", HttpMethod.PUT,
+                new HttpEntity<>(teamDTO), String.class, teamId);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, badLeague.getStatusCode());
+        Assertions.assertTrue(badLeague.getBody().contains("League not found with id " + Long.MAX_VALUE));
+
+        MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+        matchDTO.setHomeTeamId(teamId);
+        matchDTO.setAwayTeamId(Long.MAX_VALUE);
+        matchDTO.setMatchDate(LocalDateTime.of(2024, 5, 1, 18, 0));
+        matchDTO.setHomeScore(1);
+        matchDTO.setAwayScore(0);
+        ResponseEntity<String> badMatch = restTemplate.postForEntity("/api/matches", matchDTO, String.class);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, badMatch.getStatusCode());
+        Assertions.assertTrue(badMatch.getBody().contains("Team not found with id " + Long.MAX_VALUE));
+
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Nobody");
+        ResponseEntity<String> missingCoach = restTemplate.exchange("/api/coaches/{id}", HttpMethod.PUT,
+                new HttpEntity<>(coachDTO), String.class, Long.MAX_VALUE);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missingCoach.getStatusCode());
+    }
+
+    // === Roster Tests ===
+    /**
+     * Tests that the playerIds of a team create/update replace the roster:
+     * listed players join the team, unlisted players of the team are released.
+     */
+    @Test
+    void teamRosterAppliedOnWrite() {
+        Long teamId = createTeamForTesting();
+        TeamDTO team = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId);
+        List<Long> playerIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            PlayerCreateUpdateDTO playerDTO = new PlayerCreateUpdateDTO();
+            playerDTO.setName("Roster Player " + i);
+            playerDTO.setTeamId(teamId);
+            playerIds.add(restTemplate.postForObject("/api/players", playerDTO, PlayerDTO.class).getId());
+        }
+
+        TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+        teamDTO.setName("Roster Team");
+        teamDTO.setCoachId(team.getCoach().getId());
+        teamDTO.setLeagueId(team.getLeague().getId());
+        teamDTO.setPlayerIds(playerIds.subList(0, 2));
+        TeamDTO created = restTemplate.postForObject("/api/teams", teamDTO, TeamDTO.class);
+        Assertions.assertEquals(2, created.getPlayers().size());
+        Assertions.assertEquals(1, restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId).getPlayers().size());
+
+        // without playerIds the roster is kept
+        teamDTO.setPlayerIds(null);
+        restTemplate.put("/api/teams/{id}", teamDTO, created.getId());
+        Assertions.assertEquals(2, restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, created.getId()).getPlayers().size());
+
+        teamDTO.setPlayerIds(List.of(playerIds.get(1), playerIds.get(2)));
+        ResponseEntity<TeamDTO> updated = restTemplate.exchange("/api/teams/{id}", HttpMethod.PUT,
+                new HttpEntity<>(teamDTO), TeamDTO.class, created.getId());
+        Assertions.assertEquals(List.of(playerIds.get(1), playerIds.get(2)),
+                updated.getBody().getPlayers().stream().map(PlayerDTO::getId).toList());
+        Assertions.assertTrue(restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, teamId).getPlayers().isEmpty());
+        Assertions.assertEquals(HttpStatus.OK,
+                restTemplate.getForEntity("/api/players/{id}", PlayerDTO.class, playerIds.get(0)).getStatusCode());
+
+        teamDTO.setPlayerIds(List.of(playerIds.get(1), Long.MAX_VALUE));
+        ResponseEntity<String> missing = restTemplate.exchange("/api/teams/{id}", HttpMethod.PUT,
+                new HttpEntity<>(teamDTO), String.class, created.getId());
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+        Assertions.assertEquals(2, restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, created.getId()).getPlayers().size());
+
+        playerIds.forEach(id -> restTemplate.delete("/api/players/{id}", id));
+    }
+
+    // === Live Score Tests ===
+    /**
+     * Tests the write-behind live score endpoint: buffered scores are visible at once,
+     * coalesce per match, reach the database with the next flush, and are superseded
+     * by a regular match update, but not by one that fails.
+     */
+    @Test
+    void liveScoresBufferedAndFlushed() throws InterruptedException {
+        Long homeId = createTeamForTesting();
+        Long awayId = createTeamForTesting();
+        MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+        matchDTO.setHomeTeamId(homeId);
+        matchDTO.setAwayTeamId(awayId);
+        matchDTO.setMatchDate(LocalDateTime.of(2024, 6, 1, 20, 0));
+        matchDTO.setHomeScore(0);
+        matchDTO.setAwayScore(0);
+        MatchDTO match = restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class);
+
+        ScoreUpdateDTO score = new ScoreUpdateDTO();
+        score.setHomeScore(1);
+        score.setAwayScore(0);
+        ResponseEntity<MatchDTO> accepted = restTemplate.exchange("/api/matches/{id}/score", HttpMethod.PUT,
+                new HttpEntity<>(score), MatchDTO.class, match.getId());
+        Assertions.assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+        Assertions.assertEquals(Integer.valueOf(1), accepted.getBody().getHomeScore());
+        score.setHomeScore(2);
+        score.setAwayScore(1);
+        restTemplate.put("/api/matches/{id}/score", score, match.getId());
+        MatchDTO live = restTemplate.getForObject("/api/matches/{id}", MatchDTO.class, match.getId());
+        Assertions.assertEquals(Integer.valueOf(2), live.getHomeScore());
+        Assertions.assertEquals(Integer.valueOf(1), live.getAwayScore());
+
+        awaitLiveScoresFlushed();
+        TeamDTO home = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, homeId);
+        Assertions.assertEquals(Integer.valueOf(2), home.getMatches().get(0).getHomeScore());
+        Assertions.assertEquals(Integer.valueOf(1), home.getMatches().get(0).getAwayScore());
+
+        // a regular update that fails leaves the pending live score in place
+        score.setHomeScore(3);
+        restTemplate.put("/api/matches/{id}/score", score, match.getId());
+        MatchCreateUpdateDTO invalid = new MatchCreateUpdateDTO();
+        invalid.setHomeTeamId(homeId);
+        invalid.setAwayTeamId(Long.MAX_VALUE);
+        invalid.setMatchDate(matchDTO.getMatchDate());
+        invalid.setHomeScore(0);
+        invalid.setAwayScore(0);
+        ResponseEntity<String> rejected = restTemplate.exchange("/api/matches/{id}", HttpMethod.PUT,
+                new HttpEntity<>(invalid), String.class, match.getId());
+        Assertions.assertTrue(rejected.getStatusCode().is4xxClientError());
+        Assertions.assertEquals(Integer.valueOf(3),
+                restTemplate.getForObject("/api/matches/{id}", MatchDTO.class, match.getId()).getHomeScore());
+
+        // a regular update supersedes a pending live score
+        score.setHomeScore(5);
+        restTemplate.put("/api/matches/{id}/score", score, match.getId());
+        restTemplate.put("/api/matches/{id}", matchDTO, match.getId());
+        awaitLiveScoresFlushed();
+        Assertions.assertEquals(Integer.valueOf(0),
+                restTemplate.getForObject("/api/matches/{id}", MatchDTO.class, match.getId()).getHomeScore());
+
+        ResponseEntity<String> missing = restTemplate.exchange("/api/matches/{id}/score", HttpMethod.PUT,
+                new HttpEntity<>(score), String.class, Long.MAX_VALUE);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+
+        restTemplate.delete("/api/matches/{id}", match.getId());
+    }
+
+    /**
+     * Tests that a team read shows a pending live score before it is flushed,
+     * also when the team was cached before the score arrived.
+     */
+    @Test
+    void teamReadShowsPendingLiveScore() {
+        Long homeId = createTeamForTesting();
+        Long awayId = createTeamForTesting();
+        MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+        matchDTO.setHomeTeamId(homeId);
+        matchDTO.setAwayTeamId(awayId);
+        matchDTO.setMatchDate(LocalDateTime.of(2024, 6, 2, 20, 0));
+        matchDTO.setHomeScore(0);
+        matchDTO.setAwayScore(0);
+        MatchDTO match = restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class);
+        Assertions.assertEquals(Integer.valueOf(0),
+                restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, homeId).getMatches().get(0).getHomeScore());
+
+        ScoreUpdateDTO score = new ScoreUpdateDTO();
+        score.setHomeScore(4);
+        score.setAwayScore(2);
+        restTemplate.put("/api/matches/{id}/score", score, match.getId());
+        TeamDTO home = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, homeId);
+        Assertions.assertEquals(Integer.valueOf(4), home.getMatches().get(0).getHomeScore());
+        Assertions.assertEquals(Integer.valueOf(2), home.getMatches().get(0).getAwayScore());
+        TeamDTO away = restTemplate.getForObject("/api/teams/{id}", TeamDTO.class, awayId);
+        Assertions.assertEquals(Integer.valueOf(4), away.getMatches().get(0).getHomeScore());
+
+        restTemplate.delete("/api/matches/{id}", match.getId());
+    }
+
+    // === Match Feed Tests ===
+    /**
+     * Tests the server-sent event feed: filtered delivery of committed match changes
+     * and resynchronization of a client whose {@code Last-Event-ID} is no longer buffered.
+     */
+    @Test
+    void matchFeedStreamsChanges() {
+        Long teamId = createTeamForTesting();
+        Long opponentId = createTeamForTesting();
+        Long otherId = createTeamForTesting();
+        HttpClient client = HttpClient.newHttpClient();
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create(restTemplate.getRootUri() + "/api/matches/feed?teamId=" + teamId)).build();
+            HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+            Assertions.assertEquals(200, response.statusCode());
+            Iterator<String> lines = response.body().iterator();
+            // the first keep-alive confirms the subscription
+            Assertions.assertTrue(lines.next().startsWith(":"));
+
+            MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+            matchDTO.setHomeTeamId(otherId);
+            matchDTO.setAwayTeamId(opponentId);
+            matchDTO.setMatchDate(LocalDateTime.of(2024, 7, 1, 18, 0));
+            matchDTO.setHomeScore(0);
+            matchDTO.setAwayScore(0);
+            MatchDTO filtered = restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class);
+            matchDTO.setHomeTeamId(teamId);
+            MatchDTO match = restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class);
+
+            String data = null;
+            while (data == null) {
+                String line = lines.next();
+                if (line.startsWith("data:")) {
+                    data = line;
+                }
+            }
+            Assertions.assertTrue(data.contains("\"type\":\"created\""), data);
+            Assertions.assertTrue(data.contains("\"id\":" + match.getId() + ","), data);
+            response.body().close();
+
+            restTemplate.delete("/api/matches/{id}", filtered.getId());
+            restTemplate.delete("/api/matches/{id}", match.getId());
+        });
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            HttpRequest resume = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + "/api/matches/feed"))
+                    .header("Last-Event-ID", "1").build();
+            HttpResponse<Stream<String>> response = client.send(resume, HttpResponse.BodyHandlers.ofLines());
+            Iterator<String> lines = response.body().iterator();
+            String event = null;
+            while (event == null) {
+                String line = lines.next();
+                if (line.startsWith("event:")) {
+                    event = line;
+                }
+            }
+            Assertions.assertEquals("event:resync", event);
+            response.body().close();
+        });
+    }
+
+    // === Rating Tests ===
+    /**
+     * Tests the Elo ratings: results are rated in match date order, so a late result
+     * is replayed before the later ones, and an edited result is re-rated.
+     */
+    @Test
+    void eloRatingsViaRest() {
+        LeagueCreateUpdateDTO leagueDTO = new LeagueCreateUpdateDTO();
+        leagueDTO.setName("Rating League");
+        LeagueDTO league = restTemplate.postForObject("/api/leagues", leagueDTO, LeagueDTO.class);
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Rating Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        List<Long> teamIds = new ArrayList<>();
+        for (String name : List.of("Delta", "Echo", "Foxtrot")) {
+            TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+            teamDTO.setName(name);
+            teamDTO.setCoachId(coach.getId());
+            teamDTO.setLeagueId(league.getId());
+            teamIds.add(restTemplate.postForObject("/api/teams", teamDTO, TeamDTO.class).getId());
+        }
+        Long delta = teamIds.get(0);
+        Long echo = teamIds.get(1);
+
+        // Delta beats Echo on 10 March; Echo's win on 1 March is reported afterwards
+        MatchCreateUpdateDTO later = new MatchCreateUpdateDTO();
+        later.setHomeTeamId(delta);
+        later.setAwayTeamId(echo);
+        later.setMatchDate(LocalDateTime.of(2023, 3, 10, 18, 0));
+        later.setHomeScore(1);
+        later.setAwayScore(0);
+        MatchDTO laterMatch = restTemplate.postForObject("/api/matches", later, MatchDTO.class);
+        Assertions.assertEquals(1510.0, restTemplate.getForObject("/api/teams/{id}/rating", RatingDTO.class, delta).getRating());
+        MatchCreateUpdateDTO late = new MatchCreateUpdateDTO();
+        late.setHomeTeamId(echo);
+        late.setAwayTeamId(delta);
+        late.setMatchDate(LocalDateTime.of(2023, 3, 1, 18, 0));
+        late.setHomeScore(2);
+        late.setAwayScore(0);
+        MatchDTO lateMatch = restTemplate.postForObject("/api/matches", late, MatchDTO.class);
+
+        RatingDTO[] ratings = restTemplate.getForObject("/api/leagues/{id}/ratings", RatingDTO[].class, league.getId());
+        Assertions.assertEquals(3, ratings.length);
+        Assertions.assertEquals(delta, ratings[0].getTeamId());
+        Assertions.assertEquals(1500.6, ratings[0].getRating());
+        Assertions.assertEquals(2, ratings[0].getPlayed());
+        Assertions.assertEquals(1500.0, ratings[1].getRating());
+        Assertions.assertEquals(0, ratings[1].getPlayed());
+        Assertions.assertEquals(echo, ratings[2].getTeamId());
+        Assertions.assertEquals(1499.4, ratings[2].getRating());
+
+        // the early match was a draw after all: re-rated from 1 March, Delta only gains the later win
+        late.setHomeScore(0);
+        restTemplate.put("/api/matches/{id}", late, lateMatch.getId());
+        RatingDTO rating = restTemplate.getForObject("/api/teams/{id}/rating", RatingDTO.class, delta);
+        Assertions.assertEquals(1510.0, rating.getRating());
+        Assertions.assertEquals(1, rating.getPosition());
+
+        ResponseEntity<String> missing = restTemplate.getForEntity("/api/leagues/{id}/ratings", String.class, Long.MAX_VALUE);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+
+        restTemplate.delete("/api/matches/{id}", laterMatch.getId());
+        restTemplate.delete("/api/matches/{id}", lateMatch.getId());
+        Assertions.assertEquals(1500.0, restTemplate.getForObject("/api/teams/{id}/rating", RatingDTO.class, echo).getRating());
+    }
+
+    // === Season Projection Tests ===
+
+    @Test
+    void seasonProjectionsFollowMatchWrites() {
+        LeagueCreateUpdateDTO leagueDTO = new LeagueCreateUpdateDTO();
+        leagueDTO.setName("Projection League");
+        LeagueDTO league = restTemplate.postForObject("/api/leagues", leagueDTO, LeagueDTO.class);
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Projection Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        List<Long> teamIds = new ArrayList<>();
+        for (String name : List.of("Golf", "Hotel")) {
+            TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+            teamDTO.setName(name);
+            teamDTO.setCoachId(coach.getId());
+            teamDTO.setLeagueId(league.getId());
+            teamIds.add(restTemplate.postForObject("/api/teams", teamDTO, TeamDTO.class).getId());
+        }
+        Long golf = teamIds.get(0);
+        Long hotel = teamIds.get(1);
+
+        // Golf won at home; even if Hotel wins the return match, Golf stays ahead on goal difference
+        MatchCreateUpdateDTO first = new MatchCreateUpdateDTO();
+        first.setHomeTeamId(golf);
+        first.setAwayTeamId(hotel);
+        first.setMatchDate(LocalDateTime.of(2023, 4, 1, 18, 0));
+        first.setHomeScore(2);
+        first.setAwayScore(0);
+        MatchDTO firstMatch = restTemplate.postForObject("/api/matches", first, MatchDTO.class);
+        LeagueProjectionDTO projection = restTemplate.getForObject(
+                "/api/leagues/{id}/projections", LeagueProjectionDTO.class, league.getId());
+        Assertions.assertEquals(1, projection.getRemainingFixtures());
+        Assertions.assertTrue(projection.getSimulations() > 0);
+        Assertions.assertTrue(projection.getWorkers() >= 1);
+        Assertions.assertEquals(golf, projection.getTeams().get(0).getTeamId());
+        Assertions.assertEquals(3, projection.getTeams().get(0).getPoints());
+        Assertions.assertEquals(1.0, projection.getTeams().get(0).getTitleProbability());
+        Assertions.assertEquals(2, projection.getTeams().get(0).getPositionProbabilities().length);
+        Assertions.assertEquals(1.0, projection.getTeams().get(1).getRelegationProbability());
+
+        // the return match is played: Hotel wins by three, and the cached projection is replaced
+        MatchCreateUpdateDTO second = new MatchCreateUpdateDTO();
+        second.setHomeTeamId(hotel);
+        second.setAwayTeamId(golf);
+        second.setMatchDate(LocalDateTime.of(2023, 4, 8, 18, 0));
+        second.setHomeScore(3);
+        second.setAwayScore(0);
+        MatchDTO secondMatch = restTemplate.postForObject("/api/matches", second, MatchDTO.class);
+        projection = restTemplate.getForObject(
+                "/api/leagues/{id}/projections", LeagueProjectionDTO.class, league.getId());
+        Assertions.assertEquals(0, projection.getRemainingFixtures());
+        Assertions.assertEquals(hotel, projection.getTeams().get(0).getTeamId());
+        Assertions.assertEquals(1.0, projection.getTeams().get(0).getTitleProbability());
+        Assertions.assertEquals(3.0, projection.getTeams().get(0).getExpectedPoints());
+
+        ResponseEntity<String> missing = restTemplate.getForEntity("/api/leagues/{id}/projections", String.class, Long.MAX_VALUE);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+
+        restTemplate.delete("/api/matches/{id}", firstMatch.getId());
+        restTemplate.delete("/api/matches/{id}", secondMatch.getId());
+    }
+
+    /**
+     * Tests that concurrent projection requests after a match change share one simulation.
+     */
+    @Test
+    void concurrentProjectionsShareOneSimulation() throws Exception {
+        LeagueCreateUpdateDTO leagueDTO = new LeagueCreateUpdateDTO();
+        leagueDTO.setName("Shared Projection League");
+        LeagueDTO league = restTemplate.postForObject("/api/leagues", leagueDTO, LeagueDTO.class);
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Shared Projection Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        List<Long> teamIds = new ArrayList<>();
+        for (String name : List.of("India", "Juliett", "Kilo")) {
+            TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+            teamDTO.setName(name);
+            teamDTO.setCoachId(coach.getId());
+            teamDTO.setLeagueId(league.getId());
+            teamIds.add(restTemplate.postForObject("/api/teams", teamDTO, TeamDTO.class).getId());
+        }
+        MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+        matchDTO.setHomeTeamId(teamIds.get(0));
+        matchDTO.setAwayTeamId(teamIds.get(1));
+        matchDTO.setMatchDate(LocalDateTime.of(2023, 5, 1, 18, 0));
+        matchDTO.setHomeScore(1);
+        matchDTO.setAwayScore(1);
+        MatchDTO match = restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class);
+
+        double simulationsBefore = projectionSimulations();
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<LeagueProjectionDTO>>> responses = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                responses.add(clients.submit(() -> restTemplate.getForEntity(
+                        "/api/leagues/{id}/projections", LeagueProjectionDTO.class, league.getId())));
+            }
+            for (Future<ResponseEntity<LeagueProjectionDTO>> response : responses) {
+                Assertions.assertEquals(HttpStatus.OK, response.get().getStatusCode());
+                Assertions.assertEquals(5, response.get().getBody().getRemainingFixtures());
+            }
+        } finally {
+            clients.shutdown();
+        }
+        Assertions.assertEquals(simulationsBefore + 1, projectionSimulations(),
+                "Requests for the same ratings must share one simulation");
+
+        restTemplate.delete("/api/matches/{id}", match.getId());
+    }
+
+    // === Match Analytics Tests ===
+
+    @Test
+    void matchAnalyticsFollowMatchWrites() {
+        LeagueCreateUpdateDTO leagueDTO = new LeagueCreateUpdateDTO();
+        leagueDTO.setName("Analytics League");
+        LeagueDTO league = restTemplate.postForObject("/api/leagues", leagueDTO, LeagueDTO.class);
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Analytics Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        List<Long> teamIds = new ArrayList<>();
+        for (String name : List.of("India", "Juliett")) {
+            TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+            teamDTO.setName(name);
+            teamDTO.setCoachId(coach.getId());
+            teamDTO.setLeagueId(league.getId());
+            teamIds.add(restTemplate.postForObject("/api/teams", teamDTO, TeamDTO.class).getId());
+        }
+        List<Long> matchIds = new ArrayList<>();
+        int[][] results = {{2, 1}, {1, 1}, {2, 1}};
+        for (int i = 0; i < results.length; i++) {
+            MatchCreateUpdateDTO matchDTO = new MatchCreateUpdateDTO();
+            matchDTO.setHomeTeamId(teamIds.get(i % 2));
+            matchDTO.setAwayTeamId(teamIds.get((i + 1) % 2));
+            matchDTO.setMatchDate(LocalDateTime.of(2031, 5, 1 + i / 2, 18, 0));
+            matchDTO.setHomeScore(results[i][0]);
+            matchDTO.setAwayScore(results[i][1]);
+            matchIds.add(restTemplate.postForObject("/api/matches", matchDTO, MatchDTO.class).getId());
+        }
+
+        String window = "leagueId={league}&from=2031-05-01&to=2031-06-01";
+        MatchStatsDTO summary = restTemplate.getForObject(
+                "/api/matches/analytics/summary?" + window, MatchStatsDTO.class, league.getId());
+        Assertions.assertEquals(3, summary.getMatches());
+        Assertions.assertEquals(8, summary.getGoals());
+        Assertions.assertEquals(2, summary.getHomeWins());
+        Assertions.assertEquals(1, summary.getDraws());
+        Assertions.assertEquals(66.7, summary.getHomeWinPercentage());
+
+        MatchStatsDTO[] matchdays = restTemplate.getForObject(
+                "/api/matches/analytics/matchdays?" + window, MatchStatsDTO[].class, league.getId());
+        Assertions.assertEquals(2, matchdays.length);
+        Assertions.assertEquals(LocalDate.of(2031, 5, 1), matchdays[0].getDate());
+        Assertions.assertEquals(5, matchdays[0].getGoals());
+        Assertions.assertEquals(3, matchdays[1].getGoals());
+
+        ScorelineDTO[] scorelines = restTemplate.getForObject(
+                "/api/matches/analytics/scorelines?" + window, ScorelineDTO[].class, league.getId());
+        Assertions.assertEquals(2, scorelines.length);
+        Assertions.assertEquals(2, scorelines[0].getHomeScore());
+        Assertions.assertEquals(1, scorelines[0].getAwayScore());
+        Assertions.assertEquals(2, scorelines[0].getMatches());
+
+        MatchStatsDTO[] leagues = restTemplate.getForObject(
+                "/api/matches/analytics/leagues?from=2031-05-01&to=2031-06-01", MatchStatsDTO[].class);
+        Assertions.assertTrue(Arrays.stream(leagues)
+                .anyMatch(row -> row.getLeagueId().equals(league.getId()) && row.getMatches() == 3));
+
+        // the draw is corrected to an away win and one match is deleted
+        MatchCreateUpdateDTO corrected = new MatchCreateUpdateDTO();
+        corrected.setHomeTeamId(teamIds.get(1));
+        corrected.setAwayTeamId(teamIds.get(0));
+        corrected.setMatchDate(LocalDateTime.of(2031, 5, 1, 18, 0));
+        corrected.setHomeScore(0);
+        corrected.setAwayScore(1);
+        restTemplate.put("/api/matches/{id}", corrected, matchIds.get(1));
+        restTemplate.delete("/api/matches/{id}", matchIds.get(2));
+        summary = restTemplate.getForObject(
+                "/api/matches/analytics/summary?" + window, MatchStatsDTO.class, league.getId());
+        Assertions.assertEquals(2, summary.getMatches());
+        Assertions.assertEquals(4, summary.getGoals());
+        Assertions.assertEquals(1, summary.getAwayWins());
+        Assertions.assertEquals(0, summary.getDraws());
+
+        corrected.setHomeScore(-1);
+        ResponseEntity<String> negative = restTemplate.exchange("/api/matches/{id}", HttpMethod.PUT,
+                new HttpEntity<>(corrected), String.class, matchIds.get(1));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, negative.getStatusCode());
+        ResponseEntity<String> missing = restTemplate.getForEntity(
+                "/api/matches/analytics/summary?leagueId={id}", String.class, Long.MAX_VALUE);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+
+        restTemplate.delete("/api/matches/{id}", matchIds.get(0));
+        restTemplate.delete("/api/matches/{id}", matchIds.get(1));
+    }
+
     // === Helper Methods ===
+    /**
+     * Waits until the live score buffer reports no pending scores, for at most ten seconds.
+     */
+    @SuppressWarnings("unchecked")
+    private void awaitLiveScoresFlushed() throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Map<String, Object> metric = restTemplate.getForObject("/actuator/metrics/library.live-scores.pending", Map.class);
+            List<Map<String, Object>> measurements = (List<Map<String, Object>>) metric.get("measurements");
+            if (((Number) measurements.get(0).get("value")).intValue() == 0) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        Assertions.fail("Live scores were not flushed");
+    }
+    /**
+     * Returns the number of TeamDTO loads in the given mode so far.
+     */
+    @SuppressWarnings("unchecked")
+    private double teamLoads(String mode) {
+        Map<String, Object> metric = restTemplate.getForObject("/actuator/metrics/library.team-loader.loads?tag=mode:" + mode, Map.class);
+        List<Map<String, Object>> measurements = (List<Map<String, Object>>) metric.get("measurements");
+        return ((Number) measurements.get(0).get("value")).doubleValue();
+    }
+    /**
+     * Returns the number of coalesced match reads in the given role so far.
+     */
+    @SuppressWarnings("unchecked")
+    private double coalescedReads(String role) {
+        Map<String, Object> metric = restTemplate.getForObject(
+                "/actuator/metrics/library.single-flight.requests?tag=name:matches&tag=role:" + role, Map.class);
+        List<Map<String, Object>> measurements = (List<Map<String, Object>>) metric.get("measurements");
+        return ((Number) measurements.get(0).get("value")).doubleValue();
+    }
+    /**
+     * Returns the number of season simulations run so far.
+     */
+    @SuppressWarnings("unchecked")
+    private double projectionSimulations() {
+        Map<String, Object> metric = restTemplate.getForObject("/actuator/metrics/library.projections.simulation", Map.class);
+        List<Map<String, Object>> measurements = (List<Map<String, Object>>) metric.get("measurements");
+        return ((Number) measurements.get(0).get("value")).doubleValue();
+    }
+    /**
+     * Returns the value of a database limit metric of the given kind.
+     */
+    @SuppressWarnings("unchecked")
+    private double dbLimitMetric(String name, String kind) {
+        Map<String, Object> metric = restTemplate.getForObject("/actuator/metrics/" + name + "?tag=kind:" + kind, Map.class);
+        List<Map<String, Object>> measurements = (List<Map<String, Object>>) metric.get("measurements");
+        return ((Number) measurements.get(0).get("value")).doubleValue();
+    }
     /**
      * Helper method to create a League, Coach, and Team for use in other tests.
      * This simplifies tests that require an existing team.
@@ -0,0 +1,143 @@
+package com.example.library;
+
+import com.example.library.dto.*;
+import com.example.library.service.SeasonSimulator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeatable benchmark of season projections under concurrent requests. Every round changes
+ * a match of the league, so that the ratings get a new version, and then sends the same
+ * projection request from all clients at once; the benchmark logs the simulations run,
+ * the round latency and the requests answered per second. Runs on the {@code inmemory}
+ * profile so that the numbers do not depend on a database, and only when asked for:
+ * <pre>
+ * mvn test -Dtest=SeasonSimulatorBenchmark -Dbenchmark=true -Dbenchmark.rounds=20 -Dbenchmark.clients=32
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("inmemory")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SeasonSimulatorBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(SeasonSimulatorBenchmark.class);
+    private static final int TEAMS = 20;
+    private static final int WARMUP_ROUNDS = 3;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SeasonSimulator seasonSimulator;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // === Season Projection Benchmark ===
+    /**
+     * Measures concurrent projection requests right after a match change; with shared
+     * simulations every round must cost exactly one simulation, whatever the number of clients.
+     */
+    @Test
+    void concurrentProjectionsAfterMatchChanges() throws Exception {
+        int rounds = Integer.getInteger("benchmark.rounds", 20);
+        int clients = Integer.getInteger("benchmark.clients", 32);
+        LeagueCreateUpdateDTO leagueDTO = new LeagueCreateUpdateDTO();
+        leagueDTO.setName("Benchmark League");
+        LeagueDTO league = restTemplate.postForObject("/api/leagues", leagueDTO, LeagueDTO.class);
+        List<Long> teamIds = createTeams(league.getId());
+        MatchCreateUpdateDTO change = new MatchCreateUpdateDTO();
+        change.setHomeTeamId(teamIds.get(0));
+        change.setAwayTeamId(teamIds.get(1));
+        change.setMatchDate(LocalDateTime.of(2024, 1, 1, 18, 0));
+        change.setHomeScore(0);
+        change.setAwayScore(0);
+        MatchDTO match = restTemplate.postForObject("/api/matches", change, MatchDTO.class);
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            for (int r = 0; r < WARMUP_ROUNDS; r++) {
+                change.setHomeScore(r + 1);
+                restTemplate.put("/api/matches/{id}", change, match.getId());
+                round(pool, clients, league.getId());
+            }
+            double simulationsBefore = simulations();
+            long totalNanos = 0;
+            long worstNanos = 0;
+            for (int r = 0; r < rounds; r++) {
+                change.setHomeScore(WARMUP_ROUNDS + r + 1);
+                restTemplate.put("/api/matches/{id}", change, match.getId());
+                long nanos = round(pool, clients, league.getId());
+                totalNanos += nanos;
+                worstNanos = Math.max(worstNanos, nanos);
+            }
+            double simulations = simulations() - simulationsBefore;
+            log.info("{} rounds x {} clients, {} teams: {} simulations, mean round {} ms, worst round {} ms, {} requests/s",
+                    rounds, clients, TEAMS, Math.round(simulations),
+                    String.format("%.1f", totalNanos / 1e6 / rounds), String.format("%.1f", worstNanos / 1e6),
+                    Math.round(rounds * clients * 1e9 / totalNanos));
+            Assertions.assertEquals(rounds, simulations, "Every round must share one simulation");
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Sends one projection request from every client at once and returns the time until all are answered.
+     */
+    private long round(ExecutorService pool, int clients, Long leagueId) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<LeagueProjectionDTO>> results = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return seasonSimulator.findByLeague(leagueId);
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<LeagueProjectionDTO> result : results) {
+            Assertions.assertEquals(TEAMS, result.get().getTeams().size());
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private double simulations() {
+        return registry.get("library.projections.simulation").timer().count();
+    }
+
+    /**
+     * Creates {@link #TEAMS} teams in the league, without matches.
+     */
+    private List<Long> createTeams(Long leagueId) {
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Benchmark Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+        List<Long> teamIds = new ArrayList<>(TEAMS);
+        for (int t = 0; t < TEAMS; t++) {
+            TeamCreateUpdateDTO teamDTO = new TeamCreateUpdateDTO();
+            teamDTO.setName("Benchmark Team " + t);
+            teamDTO.setCoachId(coach.getId());
+            teamDTO.setLeagueId(leagueId);
+            teamIds.add(restTemplate.postForObject("/api/teams", teamDTO, TeamDTO.class).getId());
+        }
+        return teamIds;
+    }
+}
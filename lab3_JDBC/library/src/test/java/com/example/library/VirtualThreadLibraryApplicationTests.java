@@ -0,0 +1,70 @@
+package com.example.library;
+
+import com.example.library.config.VirtualThreadMonitor;
+import com.example.library.dto.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.*;
+import org.springframework.test.context.TestPropertySource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs all integration tests of {@link LibraryApplicationTests} in the virtual-thread mode
+ * ({@code spring.threads.virtual.enabled=true}). Requests only run on virtual threads when
+ * the tests run on Java 21 or later (built with {@code -Pjava21}); on older runtimes this
+ * checks that the mode starts and falls back to platform threads.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadLibraryApplicationTests extends LibraryApplicationTests {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ApplicationContext context;
+
+    // === Virtual Thread Tests ===
+    /**
+     * Tests that the pinning monitor is active and published, and that a burst of
+     * concurrent requests larger than the connection pool is answered.
+     */
+    @Test
+    void virtualThreadModeServesConcurrentRequests() throws Exception {
+        Assertions.assertNotNull(context.getBean(VirtualThreadMonitor.class));
+        Assertions.assertTrue(pinnedThreads() >= 0);
+
+        CoachCreateUpdateDTO coachDTO = new CoachCreateUpdateDTO();
+        coachDTO.setName("Virtual Coach");
+        CoachDTO coach = restTemplate.postForObject("/api/coaches", coachDTO, CoachDTO.class);
+
+        int requests = 64;
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<ResponseEntity<CoachDTO>>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                responses.add(clients.submit(() -> restTemplate.getForEntity("/api/coaches/{id}", CoachDTO.class, coach.getId())));
+            }
+            for (Future<ResponseEntity<CoachDTO>> response : responses) {
+                Assertions.assertEquals(HttpStatus.OK, response.get().getStatusCode());
+                Assertions.assertEquals("Virtual Coach", response.get().getBody().getName());
+            }
+        } finally {
+            clients.shutdown();
+        }
+        restTemplate.delete("/api/coaches/{id}", coach.getId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private double pinnedThreads() {
+        Map<String, Object> metric = restTemplate.getForObject("/actuator/metrics/library.virtual-threads.pinned", Map.class);
+        List<Map<String, Object>> measurements = (List<Map<String, Object>>) metric.get("measurements");
+        return ((Number) measurements.get(0).get("value")).doubleValue();
+    }
+}
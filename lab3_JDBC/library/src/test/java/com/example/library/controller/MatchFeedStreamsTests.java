@@ -0,0 +1,83 @@
+package com.example.library.controller;
+
+import com.example.library.service.MatchFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for dropping stalled subscribers of {@link MatchFeedStreams}, without an application context.
+ */
+class MatchFeedStreamsTests {
+    private static final int SENDER_THREADS = 2;
+
+    /**
+     * Tests that a send returning right after it was flagged as stalled gives the lent thread back,
+     * and that a send returning before the check is not dropped at all.
+     */
+    @Test
+    void stalledSendReturnsTheLentThread() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BlockingStreams streams = new BlockingStreams(registry);
+        try {
+            streams.subscribe(null, null, null);
+            Assertions.assertTrue(streams.blocked.await(5, TimeUnit.SECONDS), "The heartbeat must be sent");
+
+            // flagged while blocked: the pool gets a thread in place of the blocked one
+            streams.dropStalled();
+            Assertions.assertEquals(SENDER_THREADS + 1, streams.senderThreads());
+            Assertions.assertEquals(1.0, registry.get("library.match-feed.stalled").counter().count());
+
+            // the send returns just after being flagged: the thread goes back
+            streams.release.countDown();
+            Assertions.assertTrue(streams.completed.await(5, TimeUnit.SECONDS), "The connection must be ended");
+            Assertions.assertEquals(SENDER_THREADS, streams.senderThreads());
+
+            // a second check finds nothing to drop and lends no thread
+            streams.dropStalled();
+            Assertions.assertEquals(SENDER_THREADS, streams.senderThreads());
+            Assertions.assertEquals(1.0, registry.get("library.match-feed.stalled").counter().count());
+        } finally {
+            streams.release.countDown();
+            streams.shutdown();
+        }
+    }
+
+    /**
+     * Streams whose emitters block every send until released, with a send timeout of zero.
+     */
+    private static final class BlockingStreams extends MatchFeedStreams {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        BlockingStreams(SimpleMeterRegistry registry) {
+            super(new MatchFeed(null, 16), 60000, SENDER_THREADS, 8, 0, registry);
+        }
+
+        @Override
+        SseEmitter newEmitter(long timeout) {
+            return new SseEmitter(timeout) {
+                @Override
+                public void send(SseEventBuilder builder) throws IOException {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void complete() {
+                    completed.countDown();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.library.repository.impl;
+
+import com.example.library.model.Coach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for the read-through {@link DictionaryCache}, without an application context.
+ */
+class DictionaryCacheTests {
+
+    /**
+     * Tests that a load racing with a committed write does not overwrite the written state.
+     */
+    @Test
+    void loadRacingWithAWriteIsNotCached() {
+        DictionaryCache<Coach> cache = newCache();
+        // the write commits while the load is still reading the old row
+        Coach loaded = cache.get(1L, id -> {
+            cache.putAfterCommit(coach(id, "Renamed"));
+            return coach(id, "Original");
+        });
+        Assertions.assertEquals("Original", loaded.getName());
+        Assertions.assertEquals("Renamed", cache.get(1L, id -> Assertions.fail("Must be cached")).getName());
+
+        List<Coach> all = cache.getAll(List.of(2L), ids -> {
+            cache.removeAfterCommit(2L);
+            return List.of(coach(2L, "Removed"));
+        });
+        Assertions.assertEquals(1, all.size());
+        Assertions.assertNull(cache.get(2L, id -> null), "A removed entity must not be cached by a racing load");
+    }
+
+    /**
+     * Tests that a load without concurrent writes is cached.
+     */
+    @Test
+    void loadWithoutWritesIsCached() {
+        DictionaryCache<Coach> cache = newCache();
+        cache.get(1L, id -> coach(id, "Cached"));
+        Assertions.assertEquals("Cached", cache.get(1L, id -> Assertions.fail("Must be cached")).getName());
+    }
+
+    private static DictionaryCache<Coach> newCache() {
+        return new DictionaryCache<>("coaches", Coach::getId, c -> coach(c.getId(), c.getName()), new SimpleMeterRegistry());
+    }
+
+    private static Coach coach(Long id, String name) {
+        Coach coach = new Coach();
+        coach.setId(id);
+        coach.setName(name);
+        return coach;
+    }
+}